@@ -0,0 +1,70 @@
+package com.pedrohenrique.bibliotecavirtual.benchmark;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.TokenService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticacaoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do JWT por requisicao: a verificacao com o token ja no cache do TokenService, a verificacao completa
+ * da assinatura (cache com expiracao zero) e a geracao do token no login do cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutenticacaoBenchmark {
+
+    private static final String SEGREDO = "segredo-usado-apenas-no-benchmark";
+
+    private TokenService tokenServiceComCache;
+    private TokenService tokenServiceSemCache;
+    private UsuarioAutenticacaoService usuarioAutenticacaoService;
+    private ClienteEntity cliente;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        tokenServiceComCache = new TokenService(SEGREDO, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        tokenServiceSemCache = new TokenService(SEGREDO, 10_000, Duration.ZERO, new SimpleMeterRegistry());
+        // gerarTokenCliente nao consulta os repositorios
+        usuarioAutenticacaoService = new UsuarioAutenticacaoService(null, null, tokenServiceComCache);
+
+        cliente = new ClienteEntity();
+        cliente.setId(1L);
+        cliente.setEmail("cliente@email.com");
+        token = tokenServiceComCache.gerarToken(cliente.getEmail());
+        tokenServiceComCache.verificarToken(token);
+    }
+
+    @Benchmark
+    public String verificarTokenEmCache() {
+        return tokenServiceComCache.verificarToken(token);
+    }
+
+    @Benchmark
+    public String verificarTokenSemCache() {
+        return tokenServiceSemCache.verificarToken(token);
+    }
+
+    @Benchmark
+    public String gerarTokenCliente() {
+        return usuarioAutenticacaoService.gerarTokenCliente(cliente);
+    }
+}
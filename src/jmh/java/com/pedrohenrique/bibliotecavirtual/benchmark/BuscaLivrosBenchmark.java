@@ -0,0 +1,151 @@
+package com.pedrohenrique.bibliotecavirtual.benchmark;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.indice.IndiceInvertidoLivros;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara a busca do catalogo no indice invertido em memoria com a busca por tsvector/trigrama no Postgres.
+ * O Postgres sobe via Testcontainers, entao o benchmark precisa de Docker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaLivrosBenchmark {
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    private static final String BUSCA_SQL = """
+            select l.id, l.titulo, l.autor, l.editora, l.ano_publicacao, l.disponivel
+            from livro l
+            where l.busca @@ to_tsquery('portuguese', ?) or l.titulo % ?
+            order by ts_rank(l.busca, to_tsquery('portuguese', ?)) desc, similarity(l.titulo, ?) desc, l.id
+            limit ?""";
+
+    private static final String CARGA_POR_IDS_SQL = """
+            select l.id, l.titulo, l.autor, l.editora, l.ano_publicacao, l.disponivel
+            from livro l
+            where l.id = any(?)""";
+
+    @Param({"100000"})
+    private int quantidadeLivros;
+
+    @Param({"machado", "dom casm", "editora 7"})
+    private String termo;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private IndiceInvertidoLivros indice;
+    private String consultaPorPrefixo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO livro (titulo, autor, editora, ano_publicacao, disponivel)
+                    SELECT (ARRAY['Dom Casmurro', 'Memorias Postumas', 'Quincas Borba', 'Helena', 'Iracema', 'O Cortico'])[1 + i % 6] || ' volume ' || i,
+                           (ARRAY['Machado de Assis', 'Jose de Alencar', 'Aluisio Azevedo', 'Clarice Lispector'])[1 + i % 4],
+                           'Editora ' || (i % 50),
+                           1900 + i % 120,
+                           true
+                    FROM generate_series(1, %d) i""".formatted(quantidadeLivros));
+            statement.execute("ANALYZE livro");
+        }
+
+        indice = new IndiceInvertidoLivros();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select id, titulo, autor, editora from livro")) {
+            while (resultSet.next()) {
+                indice.indexar(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4));
+            }
+        }
+
+        consultaPorPrefixo = Arrays.stream(termo.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(palavra -> !palavra.isBlank())
+                .map(palavra -> palavra + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long[] indiceMemoria() {
+        var ids = indice.buscar(termo);
+        return Arrays.copyOf(ids, Math.min(ids.length, TAMANHO_PAGINA));
+    }
+
+    // Mesmo caminho do LivroUseCase com o indice ativo: ids do indice e depois a carga das linhas pelo id
+    @Benchmark
+    public void indiceMemoriaComCarga(Blackhole blackhole) throws SQLException {
+        var ids = indiceMemoria();
+        if (ids.length == 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(CARGA_POR_IDS_SQL)) {
+            Array arrayIds = connection.createArrayOf("bigint", Arrays.stream(ids).boxed().toArray());
+            statement.setArray(1, arrayIds);
+            consumir(statement, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void sqlTsvector(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(BUSCA_SQL)) {
+            statement.setString(1, consultaPorPrefixo);
+            statement.setString(2, termo);
+            statement.setString(3, consultaPorPrefixo);
+            statement.setString(4, termo);
+            statement.setInt(5, TAMANHO_PAGINA);
+            consumir(statement, blackhole);
+        }
+    }
+
+    private void consumir(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+                blackhole.consume(resultSet.getString(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.pedrohenrique.bibliotecavirtual.benchmark;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.usecase.validate.EmprestimoValidate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Custo das regras de {@link EmprestimoValidate#validarEmprestimo} com as portas de saida em memoria,
+ * ou seja, sem o tempo das consultas ao banco. Roda sem Docker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmprestimoValidateBenchmark {
+
+    @Param({"1", "3"})
+    private int quantidadeLivros;
+
+    private EmprestimoValidate emprestimoValidate;
+    private Emprestimo emprestimo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        var catalogo = LongStream.rangeClosed(1, 1_000).mapToObj(this::criarLivro).toList();
+        // validarEmprestimo nao consulta emprestimos, por isso a porta de emprestimos fica de fora
+        emprestimoValidate = new EmprestimoValidate(new PortasEmMemoria.Livros(catalogo),
+                new PortasEmMemoria.Clientes(List.of(1L, 2L, 3L)), null, new PortasEmMemoria.DisponibilidadeLivres());
+
+        emprestimo = new Emprestimo();
+        emprestimo.setClienteId(2L);
+        emprestimo.setLivros(LongStream.rangeClosed(1, quantidadeLivros).map(id -> id * 7).boxed().toList());
+        emprestimo.setDataEmprestimo(LocalDate.now());
+        emprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
+    }
+
+    @Benchmark
+    public List<Livro> validarEmprestimo() {
+        return emprestimoValidate.validarEmprestimo(emprestimo);
+    }
+
+    private Livro criarLivro(long id) {
+        var livro = new Livro();
+        livro.setId(id);
+        livro.setTitulo("Livro " + id);
+        livro.setAutor("Autor " + id % 40);
+        livro.setEditora("Editora " + id % 10);
+        livro.setAnoPublicacao(1900 + (int) (id % 120));
+        livro.setDisponivel(true);
+        return livro;
+    }
+}
@@ -0,0 +1,130 @@
+package com.pedrohenrique.bibliotecavirtual.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.EmprestimoResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.LivroResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapperImpl;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamentos entre DTO, dominio e entidade feitos em toda requisicao de emprestimo e de livro,
+ * mais a serializacao da resposta de emprestimo com o mesmo ObjectMapper que o Spring MVC usa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    private EmprestimoMapper emprestimoMapper;
+    private LivroMapper livroMapper;
+    private ObjectMapper objectMapper;
+
+    private Emprestimo emprestimo;
+    private ClienteEntity cliente;
+    private List<LivroEntity> livrosEntity;
+    private EmprestimoEntity emprestimoEntity;
+    private EmprestimoResponseDTO emprestimoResponse;
+    private Livro livro;
+    private LivroEntity livroEntity;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        emprestimoMapper = new EmprestimoMapper();
+        livroMapper = new LivroMapperImpl();
+        // Mesmas opcoes de datas do ObjectMapper configurado pelo Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        cliente = new ClienteEntity();
+        cliente.setId(1L);
+        cliente.setEmail("cliente@email.com");
+        livrosEntity = List.of(criarLivroEntity(10L), criarLivroEntity(20L), criarLivroEntity(30L));
+
+        emprestimo = new Emprestimo();
+        emprestimo.setId(100L);
+        emprestimo.setClienteId(1L);
+        emprestimo.setLivros(List.of(10L, 20L, 30L));
+        emprestimo.setDataEmprestimo(LocalDate.of(2024, 5, 2));
+        emprestimo.setDataDevolucao(LocalDate.of(2024, 5, 9));
+        emprestimo.setAtivo(true);
+
+        emprestimoEntity = emprestimoMapper.toEntity(emprestimo, cliente, livrosEntity);
+        emprestimoResponse = emprestimoMapper.toResponse(emprestimo);
+        livroEntity = criarLivroEntity(10L);
+        livro = livroMapper.entityToDomain(livroEntity);
+    }
+
+    @Benchmark
+    public EmprestimoEntity emprestimoToEntity() {
+        return emprestimoMapper.toEntity(emprestimo, cliente, livrosEntity);
+    }
+
+    @Benchmark
+    public Emprestimo emprestimoEntityToDomain() {
+        return emprestimoMapper.entityToDomain(emprestimoEntity);
+    }
+
+    @Benchmark
+    public EmprestimoResponseDTO emprestimoToResponse() {
+        return emprestimoMapper.toResponse(emprestimo);
+    }
+
+    @Benchmark
+    public byte[] emprestimoResponseJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(emprestimoResponse);
+    }
+
+    @Benchmark
+    public LivroEntity livroToEntity() {
+        return livroMapper.toEntity(livro);
+    }
+
+    @Benchmark
+    public Livro livroEntityToDomain() {
+        return livroMapper.entityToDomain(livroEntity);
+    }
+
+    @Benchmark
+    public LivroResponseDTO livroToResponse() {
+        return livroMapper.toResponse(livro);
+    }
+
+    private LivroEntity criarLivroEntity(Long id) {
+        var livroEntity = new LivroEntity();
+        livroEntity.setId(id);
+        livroEntity.setTitulo("Dom Casmurro " + id);
+        livroEntity.setAutor("Machado de Assis");
+        livroEntity.setEditora("Garnier");
+        livroEntity.setAnoPublicacao(1899);
+        livroEntity.setDisponivel(true);
+        return livroEntity;
+    }
+}
@@ -0,0 +1,221 @@
+package com.pedrohenrique.bibliotecavirtual.benchmark;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Portas de saida em memoria para os benchmarks rodarem sem banco. So os metodos usados pelos caminhos medidos
+ * respondem; os demais falham para nao medir por engano um caminho que nao existe aqui.
+ */
+final class PortasEmMemoria {
+
+    private PortasEmMemoria() {
+    }
+
+    static final class Livros implements LivroOutputPort {
+
+        private final Map<Long, Livro> livros = new HashMap<>();
+
+        Livros(Collection<Livro> livros) {
+            livros.forEach(livro -> this.livros.put(livro.getId(), livro));
+        }
+
+        @Override
+        public List<Livro> findAllByIdIn(List<Long> idsLivros) {
+            var encontrados = new ArrayList<Livro>(idsLivros.size());
+            for (var id : idsLivros) {
+                var livro = livros.get(id);
+                if (livro != null) {
+                    encontrados.add(livro);
+                }
+            }
+            return encontrados;
+        }
+
+        @Override
+        public boolean existsById(Long idLivro) {
+            return livros.containsKey(idLivro);
+        }
+
+        @Override
+        public Optional<Livro> buscarLivroPorId(Long idLivro) {
+            return Optional.ofNullable(livros.get(idLivro));
+        }
+
+        @Override
+        public Livro cadastrarLivro(Livro livro) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public List<Livro> cadastrarLivros(List<Livro> livros) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public Set<String> buscarTitulosExistentes(Collection<String> titulos) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public List<Livro> visualizaTodosOsLivros() {
+            throw naoSuportado();
+        }
+
+        @Override
+        public List<Livro> visualizarLivrosAposId(Long ultimoId, int limite) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public List<Livro> visualizarLivrosDisponiveisAposId(Long ultimoId, int limite) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void exportarLivros(Consumer<Livro> consumidor) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public List<Livro> buscarLivros(String termo, int pagina, int tamanho) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public Set<Long> travarLivrosDisponiveis(Collection<Long> idsLivros) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public int reservarLivros(List<Long> idsLivros) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public int liberarLivros(List<Long> idsLivros) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void removerLivro(Long idLivro) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public boolean existsByTitulo(String titulo) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public Livro pegarReferenciaPorId(Long idLivro) {
+            throw naoSuportado();
+        }
+    }
+
+    static final class Clientes implements ClienteOutputPort {
+
+        private final Set<Long> idsClientes;
+
+        Clientes(Collection<Long> idsClientes) {
+            this.idsClientes = new HashSet<>(idsClientes);
+        }
+
+        @Override
+        public boolean existsById(Long id) {
+            return idsClientes.contains(id);
+        }
+
+        @Override
+        public Set<Long> buscarIdsExistentes(Collection<Long> ids) {
+            var existentes = new HashSet<Long>();
+            for (var id : ids) {
+                if (idsClientes.contains(id)) {
+                    existentes.add(id);
+                }
+            }
+            return existentes;
+        }
+
+        @Override
+        public Cliente cadastrarCliente(Cliente cliente) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public boolean existsByEmail(Cliente cliente) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void esqueciMinhaSenha(String email) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void alterarSenha(Integer codigo, String novaSenha, String confirmacaoNovaSenha, String email) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public Optional<Cliente> findById(Long id) {
+            throw naoSuportado();
+        }
+    }
+
+    // Com o mapa de disponibilidade carregado e todos os livros livres, a validacao segue ate a consulta dos livros
+    static final class DisponibilidadeLivres implements DisponibilidadeLivrosOutputPort {
+
+        @Override
+        public boolean carregado() {
+            return true;
+        }
+
+        @Override
+        public boolean possuiIndisponivel(Collection<Long> idsLivros) {
+            return false;
+        }
+
+        @Override
+        public void reconciliar() {
+            throw naoSuportado();
+        }
+
+        @Override
+        public List<Long> idsDisponiveisAposId(Long ultimoId, int limite) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void marcarDisponiveis(Collection<Long> idsLivros) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void marcarIndisponiveis(Collection<Long> idsLivros) {
+            throw naoSuportado();
+        }
+
+        @Override
+        public void remover(Long idLivro) {
+            throw naoSuportado();
+        }
+    }
+
+    private static UnsupportedOperationException naoSuportado() {
+        return new UnsupportedOperationException("Metodo nao usado pelos benchmarks");
+    }
+}
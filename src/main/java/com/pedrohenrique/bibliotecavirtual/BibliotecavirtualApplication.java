@@ -3,11 +3,11 @@ package com.pedrohenrique.bibliotecavirtual;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.PropertySource;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @PropertySource("classpath:messages/global.properties")
 @SpringBootApplication
-@EnableAsync
+@EnableScheduling
 public class BibliotecavirtualApplication {
 
 	public static void main(String[] args) {
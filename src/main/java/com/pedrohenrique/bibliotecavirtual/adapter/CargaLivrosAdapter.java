@@ -0,0 +1,132 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoCargaLivros;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.CargaLivrosOutputPort;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes.TAMANHO_MAX_AUTOR_LIVRO;
+import static com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes.TAMANHO_MAX_EDITORA_LIVRO;
+import static com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes.TAMANHO_MAX_TITULO_LIVRO;
+
+/**
+ * Carga do catalogo pelo COPY do PostgreSQL: o CSV vai direto para uma tabela temporaria
+ * e entra em livro com um unico INSERT ... SELECT, sem passar pelo Hibernate.
+ */
+@Component
+public class CargaLivrosAdapter implements CargaLivrosOutputPort {
+
+    // Chave do pg_advisory_xact_lock que impede duas cargas de gravarem o mesmo titulo ao mesmo tempo
+    static final long CHAVE_LOCK_CARGA = 7_204_117_001L;
+
+    private static final String CRIAR_TABELA_CARGA = """
+            CREATE TEMPORARY TABLE livro_carga (
+                linha BIGSERIAL,
+                titulo TEXT,
+                autor TEXT,
+                editora TEXT,
+                ano_publicacao TEXT
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPIAR_CSV = """
+            COPY livro_carga (titulo, autor, editora, ano_publicacao) FROM STDIN WITH (FORMAT csv, HEADER true)
+            """;
+
+    // As mesmas regras do LivroValidate.validarImportacaoLivro, aplicadas em SQL
+    private static final String LINHA_VALIDA = """
+            coalesce(btrim(c.titulo), '') <> '' AND coalesce(btrim(c.autor), '') <> ''
+            AND length(btrim(c.titulo)) <= %d AND length(btrim(c.autor)) <= %d
+            AND coalesce(length(btrim(c.editora)), 0) <= %d
+            AND coalesce(btrim(c.ano_publicacao), '') ~ '^(-?[0-9]{1,9})?$'
+            """.formatted(TAMANHO_MAX_TITULO_LIVRO, TAMANHO_MAX_AUTOR_LIVRO, TAMANHO_MAX_EDITORA_LIVRO);
+
+    private static final String CONTAR_INVALIDAS = "SELECT count(*) FROM livro_carga c WHERE NOT (" + LINHA_VALIDA + ")";
+
+    // DISTINCT ON fica com a primeira ocorrencia de cada titulo (sem diferenciar maiusculas) e o NOT EXISTS
+    // descarta os que ja estao no catalogo, usando o idx_livro_titulo_upper.
+    // Cada livro recebe o proprio nextval: com a sequence em blocos de 50 (V10) o valor devolvido fica dentro de um
+    // bloco que o Hibernate nunca recebe, entao os ids nao colidem, apenas ficam espacados de 50 em 50
+    private static final String MESCLAR_LIVROS = """
+            INSERT INTO livro (id, titulo, autor, editora, ano_publicacao, disponivel)
+            SELECT nextval('livro_id_seq'), v.titulo, v.autor, v.editora, v.ano_publicacao, TRUE
+            FROM (
+                SELECT DISTINCT ON (upper(btrim(c.titulo)))
+                       btrim(c.titulo) AS titulo,
+                       btrim(c.autor) AS autor,
+                       nullif(btrim(c.editora), '') AS editora,
+                       CAST(nullif(btrim(c.ano_publicacao), '') AS INT) AS ano_publicacao,
+                       c.linha
+                FROM livro_carga c
+                WHERE %s
+                ORDER BY upper(btrim(c.titulo)), c.linha
+            ) v
+            WHERE NOT EXISTS (SELECT 1 FROM livro l WHERE upper(l.titulo) = upper(v.titulo))
+            ORDER BY v.linha
+            """.formatted(LINHA_VALIDA);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String mensagemErroArquivoInvalido;
+
+    private final Logger logger = LoggerFactory.getLogger(CargaLivrosAdapter.class);
+
+    public CargaLivrosAdapter(JdbcTemplate jdbcTemplate,
+                              @Value("${mensagem.erro.carga.arquivo.invalido}") String mensagemErroArquivoInvalido) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mensagemErroArquivoInvalido = mensagemErroArquivoInvalido;
+    }
+
+    @Override
+    @Transactional
+    public ResultadoCargaLivros carregarCsv(InputStream csv) {
+        var inicio = System.nanoTime();
+        jdbcTemplate.execute(CRIAR_TABELA_CARGA);
+        var linhasRecebidas = copiar(csv);
+        // Tabelas temporarias nao passam pelo autovacuum; sem estatisticas o planejador erra o join com livro
+        jdbcTemplate.execute("ANALYZE livro_carga");
+        var invalidos = jdbcTemplate.queryForObject(CONTAR_INVALIDAS, Long.class);
+
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + CHAVE_LOCK_CARGA + ")");
+        var importados = jdbcTemplate.update(MESCLAR_LIVROS);
+
+        var resultado = new ResultadoCargaLivros(linhasRecebidas, importados, invalidos,
+                linhasRecebidas - invalidos - importados, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        logger.info("Carga via COPY concluida: {} linhas recebidas, {} livros importados, {} invalidas, {} duplicadas em {} ms ({} linhas/s)",
+                resultado.getLinhasRecebidas(), resultado.getImportados(), resultado.getInvalidos(), resultado.getDuplicados(),
+                resultado.getDuracaoMillis(), resultado.getLinhasPorSegundo());
+        return resultado;
+    }
+
+    private long copiar(InputStream csv) {
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<Long>) conexao -> {
+                try {
+                    return conexao.unwrap(PGConnection.class).getCopyAPI().copyIn(COPIAR_CSV, csv);
+                } catch (IOException e) {
+                    throw new SQLException("Falha ao ler o arquivo da carga", e);
+                }
+            });
+        } catch (DataAccessException e) {
+            // Classe 22 do SQLSTATE: o arquivo nao esta no formato esperado (colunas a mais ou a menos, aspas abertas...)
+            if (e.getMostSpecificCause() instanceof SQLException erroSql && erroSql.getSQLState() != null
+                    && erroSql.getSQLState().startsWith("22")) {
+                throw new LivroInvalidoException(mensagemErroArquivoInvalido + erroSql.getMessage());
+            }
+            throw e;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMappe
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmprestimoRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
 import org.apache.commons.lang3.RandomUtils;
@@ -15,7 +16,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 public class ClienteAdapter implements ClienteOutputPort {
@@ -24,6 +28,7 @@ public class ClienteAdapter implements ClienteOutputPort {
     private final ClienteRepository clienteRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
     private final String codigo = String.format("%04d", RandomUtils.nextInt(1, 10000));
     private final Logger logger = LoggerFactory.getLogger(ClienteAdapter.class);
 
@@ -39,11 +44,12 @@ public class ClienteAdapter implements ClienteOutputPort {
     @Value("${mensagem.cliente.esqueci.minha.senha.conteudo}")
     private String mensagemEsqueciMinhaSenhaConteudo;
 
-    public ClienteAdapter(ClienteMapper clienteMapper, ClienteRepository clienteRepository, PasswordEncoder passwordEncoder, EmailService emailService) {
+    public ClienteAdapter(ClienteMapper clienteMapper, ClienteRepository clienteRepository, PasswordEncoder passwordEncoder, EmailService emailService, UsuarioAutenticadoCacheService usuarioAutenticadoCacheService) {
         this.clienteMapper = clienteMapper;
         this.clienteRepository = clienteRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.usuarioAutenticadoCacheService = usuarioAutenticadoCacheService;
     }
 
 
@@ -54,7 +60,7 @@ public class ClienteAdapter implements ClienteOutputPort {
         var senhaCliente = clienteEntity.getSenha();
         clienteEntity.setSenha(passwordEncoder.encode(senhaCliente));
         var clienteEntitySalvo = clienteRepository.save(clienteEntity);
-        emailService.enviarEmail(clienteEntitySalvo.getEmail(), mensagemCadastradoSucesso, String.format(mensagemCadastradoSucesso, clienteEntitySalvo.getNome()));
+        emailService.agendarEmail(clienteEntitySalvo.getEmail(), mensagemCadastradoSucesso, String.format(mensagemCadastradoSucesso, clienteEntitySalvo.getNome()));
         logger.info("Cliente cadastrado com sucesso {}", cliente.getId());
         return clienteMapper.entityToDomain(clienteEntitySalvo);
     }
@@ -71,9 +77,18 @@ public class ClienteAdapter implements ClienteOutputPort {
         return clienteRepository.existsById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> buscarIdsExistentes(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(clienteRepository.findIdsExistentes(ids));
+    }
+
     @Override
     public void esqueciMinhaSenha(String email) {
-        emailService.enviarEmail(email, mensagemEsqueciMinhaSenhaAssunto, String.format(mensagemEsqueciMinhaSenhaConteudo, codigo));
+        emailService.agendarEmail(email, mensagemEsqueciMinhaSenhaAssunto, String.format(mensagemEsqueciMinhaSenhaConteudo, codigo));
     }
 
     @Override
@@ -84,6 +99,7 @@ public class ClienteAdapter implements ClienteOutputPort {
                 var clienteEntity = clienteRepository.findByEmailIgnoreCase(email).orElseThrow();
                 clienteEntity.setSenha(passwordEncoder.encode(confirmacaoNovaSenha));
                 clienteRepository.save(clienteEntity);
+                usuarioAutenticadoCacheService.invalidar(email);
             }
         }
     }
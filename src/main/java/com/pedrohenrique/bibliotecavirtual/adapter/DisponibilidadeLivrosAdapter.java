@@ -0,0 +1,205 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.DisponibilidadeLivroProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Mapa de bits em memoria com a disponibilidade dos livros, indexado pelo id.
+ * Serve de pre-filtro: so afirma que um livro esta emprestado quando o mapa conhece o livro,
+ * e a reserva continua sendo decidida pelo UPDATE condicional no banco.
+ */
+@Component
+public class DisponibilidadeLivrosAdapter implements DisponibilidadeLivrosOutputPort {
+
+    private final LivroRepository livroRepository;
+
+    private final Counter divergencias;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private BitSet existentes = new BitSet();
+
+    private BitSet disponiveis = new BitSet();
+
+    // Ids alterados enquanto a reconciliacao le o banco; o valor em memoria deles e mais novo que o lido
+    private Set<Long> alteradosDuranteReconciliacao;
+
+    private volatile boolean carregado;
+
+    private final Logger logger = LoggerFactory.getLogger(DisponibilidadeLivrosAdapter.class);
+
+    public DisponibilidadeLivrosAdapter(LivroRepository livroRepository, MeterRegistry meterRegistry) {
+        this.livroRepository = livroRepository;
+        this.divergencias = Counter.builder("biblioteca.livros.disponibilidade.divergencias")
+                .description("Livros cuja disponibilidade em memoria divergia do banco na reconciliacao")
+                .register(meterRegistry);
+    }
+
+    // A primeira execucao acontece na subida da aplicacao e faz a carga inicial do mapa
+    @Override
+    @Scheduled(fixedDelayString = "${biblioteca.livros.disponibilidade.intervalo-reconciliacao:PT5M}")
+    // Sem readOnly de proposito: transacoes somente leitura vao para o pool de leitura, que pode ser uma replica
+    // atrasada, e a reconciliacao logo depois de uma carga do catalogo precisa ler o que acabou de ser gravado
+    @Transactional
+    public void reconciliar() {
+        lock.writeLock().lock();
+        try {
+            alteradosDuranteReconciliacao = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        var existentesBanco = new BitSet();
+        var disponiveisBanco = new BitSet();
+        var possuiIdForaDoMapa = false;
+        try (Stream<DisponibilidadeLivroProjection> livros = livroRepository.streamDisponibilidade()) {
+            for (var livro : (Iterable<DisponibilidadeLivroProjection>) livros::iterator) {
+                if (livro.getId() > Integer.MAX_VALUE) {
+                    possuiIdForaDoMapa = true;
+                    continue;
+                }
+                var indice = livro.getId().intValue();
+                existentesBanco.set(indice);
+                disponiveisBanco.set(indice, Boolean.TRUE.equals(livro.getDisponivel()));
+            }
+        }
+
+        int quantidadeDivergencias;
+        lock.writeLock().lock();
+        try {
+            for (var idLivro : alteradosDuranteReconciliacao) {
+                var indice = idLivro.intValue();
+                existentesBanco.set(indice, existentes.get(indice));
+                disponiveisBanco.set(indice, disponiveis.get(indice));
+            }
+            alteradosDuranteReconciliacao = null;
+            var diferenca = (BitSet) disponiveis.clone();
+            diferenca.xor(disponiveisBanco);
+            quantidadeDivergencias = carregado ? diferenca.cardinality() : 0;
+            existentes = existentesBanco;
+            disponiveis = disponiveisBanco;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Ids acima de Integer.MAX_VALUE nao cabem no BitSet; nesse caso tudo volta a ser decidido pelo banco
+        carregado = !possuiIdForaDoMapa;
+
+        if (quantidadeDivergencias > 0) {
+            divergencias.increment(quantidadeDivergencias);
+            logger.warn("Reconciliacao corrigiu a disponibilidade de {} livros em memoria", quantidadeDivergencias);
+        }
+        logger.debug("Mapa de disponibilidade reconciliado com {} livros", existentesBanco.cardinality());
+    }
+
+    @Override
+    public boolean carregado() {
+        return carregado;
+    }
+
+    @Override
+    public boolean possuiIndisponivel(Collection<Long> idsLivros) {
+        if (!carregado) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            for (var idLivro : idsLivros) {
+                if (idLivro != null && cabeNoMapa(idLivro) && existentes.get(idLivro.intValue()) && !disponiveis.get(idLivro.intValue())) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> idsDisponiveisAposId(Long ultimoId, int limite) {
+        var ids = new ArrayList<Long>(limite);
+        var inicio = ultimoId == null ? 0 : (int) Math.min(ultimoId + 1, Integer.MAX_VALUE);
+        lock.readLock().lock();
+        try {
+            for (int indice = disponiveis.nextSetBit(inicio); indice >= 0 && ids.size() < limite; indice = disponiveis.nextSetBit(indice + 1)) {
+                ids.add((long) indice);
+                if (indice == Integer.MAX_VALUE) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    @Override
+    public void marcarDisponiveis(Collection<Long> idsLivros) {
+        aplicarAposCommit(() -> alterar(idsLivros, true, true));
+    }
+
+    @Override
+    public void marcarIndisponiveis(Collection<Long> idsLivros) {
+        aplicarAposCommit(() -> alterar(idsLivros, true, false));
+    }
+
+    @Override
+    public void remover(Long idLivro) {
+        aplicarAposCommit(() -> alterar(List.of(idLivro), false, false));
+    }
+
+    private void alterar(Collection<Long> idsLivros, boolean existente, boolean disponivel) {
+        lock.writeLock().lock();
+        try {
+            for (var idLivro : idsLivros) {
+                if (idLivro == null || !cabeNoMapa(idLivro)) {
+                    continue;
+                }
+                existentes.set(idLivro.intValue(), existente);
+                disponiveis.set(idLivro.intValue(), disponivel);
+                if (alteradosDuranteReconciliacao != null) {
+                    alteradosDuranteReconciliacao.add(idLivro);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Um rollback nao pode deixar o mapa com um estado que o banco nunca gravou
+    private void aplicarAposCommit(Runnable alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alteracao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                alteracao.run();
+            }
+        });
+    }
+
+    private boolean cabeNoMapa(Long idLivro) {
+        return idLivro >= 0 && idLivro <= Integer.MAX_VALUE;
+    }
+}
@@ -4,29 +4,66 @@ import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMappe
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.ClienteEmailProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoDevolucaoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoResumoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroDevolvidoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroEmprestimoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroTituloProjection;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmprestimoRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.EmprestimoOutputPort;
-import org.mapstruct.ValueMapping;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class EmprestimoAdapter implements EmprestimoOutputPort {
 
+    // O filtro "ativo" torna o UPDATE idempotente: um emprestimo ja devolvido, inclusive por outro lote
+    // concorrente, nao volta no RETURNING
+    private static final String DEVOLVER_POR_IDS = """
+            update emprestimo set ativo = false, data_devolucao = :dataDevolucao
+            where id in (:ids) and ativo
+            returning id, cliente_id""";
+
+    // Encerra apenas os emprestimos ativos com todos os livros dentro do lote
+    private static final String DEVOLVER_POR_LIVROS = """
+            update emprestimo e set ativo = false, data_devolucao = :dataDevolucao
+            where e.ativo
+              and e.id in (select le.emprestimo_id from livro_emprestimo le where le.livro_id in (:ids))
+              and not exists (select 1 from livro_emprestimo le
+                              where le.emprestimo_id = e.id and le.livro_id not in (:ids))
+            returning e.id, e.cliente_id""";
+
     private final EmprestimoRepository emprestimoRepository;
+    private final ClienteRepository clienteRepository;
+    private final LivroRepository livroRepository;
     private final EmprestimoMapper emprestimoMapper;
     private final EmailService emailService;
-    private final ClienteRepository clienteRepository;
+    private final EntityManager entityManager;
     private final Logger logger = LoggerFactory.getLogger(EmprestimoAdapter.class);
 
     @Value("${mensagem.emprestimo.email.felicitacoes}")
@@ -38,41 +75,118 @@ public class EmprestimoAdapter implements EmprestimoOutputPort {
     @Value("${mensagem.emprestimo.devolucao.email}")
     private String mensagemEmprestimoDevolucaoEmail;
 
-    public EmprestimoAdapter(EmprestimoRepository emprestimoRepository, EmprestimoMapper emprestimoMapper, EmailService emailService, ClienteRepository clienteRepository) {
+    @Value("${mensagem.erro.emprestimo.ja.devolvido}")
+    private String mensagemErroEmprestimoJaDevolvido;
+
+    public EmprestimoAdapter(EmprestimoRepository emprestimoRepository, ClienteRepository clienteRepository, LivroRepository livroRepository,
+                             EmprestimoMapper emprestimoMapper, EmailService emailService, EntityManager entityManager) {
         this.emprestimoRepository = emprestimoRepository;
+        this.clienteRepository = clienteRepository;
+        this.livroRepository = livroRepository;
         this.emprestimoMapper = emprestimoMapper;
         this.emailService = emailService;
-        this.clienteRepository = clienteRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
     @Transactional
     public Emprestimo realizarEmprestimo(Emprestimo emprestimo){
-        var emprestimoEntity = emprestimoMapper.toEntity(emprestimo);
+        var emprestimoEntity = criarEntidade(emprestimo);
         emprestimoRepository.save(emprestimoEntity);
-        var mensagemFelicitacoes = String.format(mensagemEmprestimoEmailFelicitacoes, extrairNomeLivrosEmprestimo(emprestimoEntity));
-        emailService.enviarEmail(emprestimoEntity.getClienteId().getEmail(),mensagemEmprestimoConfirmadoSucesso, mensagemFelicitacoes);
+        agendarEmailsConfirmacao(List.of(emprestimo));
         logger.info("O emprestimo foi confirmado com sucesso: ID: {}", emprestimo.getId());
         return emprestimoMapper.entityToDomain(emprestimoEntity);
     }
 
+    @Override
+    @Transactional
+    public List<Emprestimo> realizarEmprestimos(List<Emprestimo> emprestimos) {
+        var emprestimosEntity = emprestimos.stream().map(this::criarEntidade).toList();
+        // Com a sequence em blocos, os inserts de emprestimo e de livro_emprestimo saem em batches JDBC no flush
+        emprestimoRepository.saveAll(emprestimosEntity);
+        emprestimoRepository.flush();
+        agendarEmailsConfirmacao(emprestimos);
+        logger.info("{} emprestimos confirmados em lote", emprestimosEntity.size());
+        return emprestimosEntity.stream().map(emprestimoMapper::entityToDomain).toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente){
-        ClienteEntity clienteEntity = clienteRepository.findById(idCliente).orElse(null);
-        return emprestimoRepository.findAllEmprestimosByClienteId(clienteEntity).stream().map(emprestimoMapper::entityToDomain)
+    public Pagina<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente, Boolean ativo, int pagina, int tamanho){
+        var fatia = emprestimoRepository.findResumosByClienteId(idCliente, ativo, PageRequest.of(pagina, tamanho));
+        var resumos = fatia.getContent();
+        if (resumos.isEmpty()) {
+            return new Pagina<>(List.of(), pagina, tamanho, false);
+        }
+        // Uma unica consulta na tabela de juncao traz os livros de todos os emprestimos da pagina
+        var idsEmprestimos = resumos.stream().map(EmprestimoResumoProjection::getId).toList();
+        Map<Long, List<Long>> livrosPorEmprestimo = emprestimoRepository.findLivrosByEmprestimoIdIn(idsEmprestimos).stream()
+                .collect(Collectors.groupingBy(LivroEmprestimoProjection::getEmprestimoId,
+                        Collectors.mapping(LivroEmprestimoProjection::getLivroId, Collectors.toList())));
+        var emprestimos = resumos.stream()
+                .map(resumo -> emprestimoMapper.resumoToDomain(resumo, livrosPorEmprestimo.getOrDefault(resumo.getId(), List.of())))
+                .toList();
+        return new Pagina<>(emprestimos, pagina, tamanho, fatia.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Emprestimo> buscarEmprestimoParaDevolucao(Long idEmprestimo) {
+        if (idEmprestimo == null) {
+            return Optional.empty();
+        }
+        var linhas = emprestimoRepository.findDevolucaoById(idEmprestimo);
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+        var livros = linhas.stream()
+                .map(EmprestimoDevolucaoProjection::getLivroId)
+                .filter(Objects::nonNull)
                 .toList();
+        return Optional.of(emprestimoMapper.resumoToDomain(linhas.get(0), livros));
     }
 
     @Override
     @Transactional
     public Emprestimo realizarDevolucaoEmprestimo(Emprestimo emprestimo) {
-        var emprestimoEntity = emprestimoRepository.getReferenceById(emprestimo.getId());
-        emprestimoEntity = emprestimoMapper.toEntity(emprestimo);
-        emprestimoRepository.save(emprestimoEntity);
-        var mensagemDevolucaoEmail = String.format(mensagemEmprestimoDevolucaoEmail, extrairNomeLivrosEmprestimo(emprestimoEntity));
-        emailService.enviarEmail(emprestimoEntity.getClienteId().getEmail(), "Devolução empréstimo", mensagemDevolucaoEmail );
-        return emprestimoMapper.entityToDomain(emprestimoEntity);
+        if (emprestimoRepository.encerrarEmprestimo(emprestimo.getId(), emprestimo.getDataDevolucao()) == 0) {
+            throw new EmprestimoInvalidoException(mensagemErroEmprestimoJaDevolvido);
+        }
+        agendarEmailsDevolucao(Map.of(emprestimo.getId(), emprestimo.getClienteId()),
+                buscarLivrosDevolvidos(Set.of(emprestimo.getId())));
+        logger.info("Devolucao do emprestimo {} registrada", emprestimo.getId());
+        return emprestimo;
+    }
+
+    @Override
+    @Transactional
+    public ResultadoDevolucaoLote devolverEmprestimos(Collection<Long> idsEmprestimos, LocalDate dataDevolucao) {
+        var clientePorEmprestimo = encerrarEmprestimos(DEVOLVER_POR_IDS, idsEmprestimos, dataDevolucao);
+        var idsDevolvidos = clientePorEmprestimo.keySet();
+        var livros = buscarLivrosDevolvidos(idsDevolvidos);
+        agendarEmailsDevolucao(clientePorEmprestimo, livros);
+        var naoEncontrados = idsEmprestimos.stream().filter(id -> !idsDevolvidos.contains(id)).toList();
+        logger.info("Devolucao em lote por emprestimos: {} devolvidos, {} nao encontrados", idsDevolvidos.size(), naoEncontrados.size());
+        return new ResultadoDevolucaoLote(idsDevolvidos.stream().sorted().toList(), idsLivros(livros), List.of(), naoEncontrados);
+    }
+
+    @Override
+    @Transactional
+    public ResultadoDevolucaoLote devolverEmprestimosPorLivros(Collection<Long> idsLivros, LocalDate dataDevolucao) {
+        var clientePorEmprestimo = encerrarEmprestimos(DEVOLVER_POR_LIVROS, idsLivros, dataDevolucao);
+        var idsDevolvidos = clientePorEmprestimo.keySet();
+        var livros = buscarLivrosDevolvidos(idsDevolvidos);
+        agendarEmailsDevolucao(clientePorEmprestimo, livros);
+        // Depois do UPDATE, os emprestimos ainda ativos com livros do lote sao os que ficaram com livros pendentes
+        var pendentes = emprestimoRepository.findEmprestimosAtivosByLivroIdIn(idsLivros);
+        var livrosDevolvidos = idsLivros(livros);
+        var livrosReconhecidos = new HashSet<>(livrosDevolvidos);
+        pendentes.forEach(pendente -> livrosReconhecidos.add(pendente.getLivroId()));
+        var incompletos = pendentes.stream().map(LivroEmprestimoProjection::getEmprestimoId).distinct().sorted().toList();
+        var naoEncontrados = idsLivros.stream().filter(id -> !livrosReconhecidos.contains(id)).toList();
+        logger.info("Devolucao em lote por livros: {} emprestimos devolvidos, {} incompletos, {} livros sem emprestimo ativo",
+                idsDevolvidos.size(), incompletos.size(), naoEncontrados.size());
+        return new ResultadoDevolucaoLote(idsDevolvidos.stream().sorted().toList(), livrosDevolvidos, incompletos, naoEncontrados);
     }
 
     @Override
@@ -80,19 +194,80 @@ public class EmprestimoAdapter implements EmprestimoOutputPort {
         return emprestimoRepository.existsById(idEmprestimo);
     }
 
-    @Override
-    public Emprestimo getReferenceById(Long idEmprestimo) {
-       var emprestimoEntity = emprestimoRepository.getReferenceById(idEmprestimo);
-         return emprestimoMapper.entityToDomain(emprestimoEntity);
+    // Referencias bastam para gravar: o insert em emprestimo e em livro_emprestimo so usa os ids, entao montar
+    // a entidade nao consulta cliente nem livro
+    private EmprestimoEntity criarEntidade(Emprestimo emprestimo){
+        var cliente = clienteRepository.getReferenceById(emprestimo.getClienteId());
+        List<LivroEntity> livros = emprestimo.getLivros() == null ? List.of()
+                : emprestimo.getLivros().stream().map(livroRepository::getReferenceById).toList();
+        return emprestimoMapper.toEntity(emprestimo, cliente, livros);
     }
 
+    // E-mails e titulos vem de duas projecoes para todos os emprestimos de uma vez, em vez de inicializar as
+    // referencias usadas na gravacao, que consultariam cliente e livro um a um fora do cache
+    private void agendarEmailsConfirmacao(List<Emprestimo> emprestimos){
+        Map<Long, String> emailPorCliente = clienteRepository.findEmailsByIdIn(emprestimos.stream()
+                        .map(Emprestimo::getClienteId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(ClienteEmailProjection::getId, ClienteEmailProjection::getEmail));
+        var idsLivros = emprestimos.stream()
+                .filter(emprestimo -> emprestimo.getLivros() != null)
+                .flatMap(emprestimo -> emprestimo.getLivros().stream())
+                .collect(Collectors.toSet());
+        Map<Long, String> tituloPorLivro = idsLivros.isEmpty() ? Map.of()
+                : livroRepository.findTitulosByIdIn(idsLivros).stream()
+                .collect(Collectors.toMap(LivroTituloProjection::getId, LivroTituloProjection::getTitulo));
 
-    private String extrairNomeLivrosEmprestimo(EmprestimoEntity emprestimoEntity){
-        if (emprestimoEntity.getLivros() != null) {
-            return emprestimoEntity.getLivros().stream()
-                    .map(LivroEntity::getTitulo)
-                    .collect(Collectors.joining(", "));
+        emprestimos.forEach(emprestimo -> {
+            var titulos = emprestimo.getLivros() == null ? ""
+                    : emprestimo.getLivros().stream().map(tituloPorLivro::get).collect(Collectors.joining(", "));
+            var mensagemFelicitacoes = String.format(mensagemEmprestimoEmailFelicitacoes, titulos);
+            emailService.agendarEmail(emailPorCliente.get(emprestimo.getClienteId()), mensagemEmprestimoConfirmadoSucesso, mensagemFelicitacoes);
+        });
+    }
+
+    private List<LivroDevolvidoProjection> buscarLivrosDevolvidos(Set<Long> idsEmprestimos) {
+        if (idsEmprestimos.isEmpty()) {
+            return List.of();
+        }
+        return emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(idsEmprestimos);
+    }
+
+    private List<Long> idsLivros(List<LivroDevolvidoProjection> livros) {
+        return livros.stream().map(LivroDevolvidoProjection::getLivroId).distinct().toList();
+    }
+
+    // O UPDATE ... RETURNING e uma consulta de leitura para o Spring Data (nao aceita @Modifying), entao roda
+    // direto no EntityManager. Ele altera emprestimo por fora do contexto de persistencia: o flush antes grava
+    // o que estiver pendente para o UPDATE enxergar, e o clear depois descarta emprestimos ja carregados com
+    // o ativo antigo. Devolve o id do cliente de cada emprestimo encerrado.
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> encerrarEmprestimos(String sql, Collection<Long> ids, LocalDate dataDevolucao) {
+        entityManager.flush();
+        List<Object[]> linhas = entityManager.createNativeQuery(sql)
+                .setParameter("ids", ids)
+                .setParameter("dataDevolucao", dataDevolucao)
+                .getResultList();
+        entityManager.clear();
+        Map<Long, Long> clientePorEmprestimo = new LinkedHashMap<>();
+        linhas.forEach(linha -> clientePorEmprestimo.put(((Number) linha[0]).longValue(), ((Number) linha[1]).longValue()));
+        return clientePorEmprestimo;
+    }
+
+    // Um e-mail por cliente com os titulos de todos os emprestimos dele encerrados
+    private void agendarEmailsDevolucao(Map<Long, Long> clientePorEmprestimo, List<LivroDevolvidoProjection> livros) {
+        if (clientePorEmprestimo.isEmpty()) {
+            return;
         }
-        return "";
+        Map<Long, List<String>> titulosPorCliente = new LinkedHashMap<>();
+        clientePorEmprestimo.values().forEach(idCliente -> titulosPorCliente.putIfAbsent(idCliente, new ArrayList<>()));
+        livros.forEach(livro -> titulosPorCliente.get(clientePorEmprestimo.get(livro.getEmprestimoId())).add(livro.getTitulo()));
+
+        Map<Long, String> emailPorCliente = clienteRepository.findAllById(titulosPorCliente.keySet()).stream()
+                .collect(Collectors.toMap(ClienteEntity::getId, ClienteEntity::getEmail));
+        titulosPorCliente.forEach((idCliente, titulos) -> {
+            var mensagemDevolucaoEmail = String.format(mensagemEmprestimoDevolucaoEmail, String.join(", ", titulos));
+            emailService.agendarEmail(emailPorCliente.get(idCliente), "Devolução empréstimo", mensagemDevolucaoEmail);
+        });
     }
 }
@@ -0,0 +1,146 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.indice.IndiceInvertidoLivros;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.IndiceLivrosOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class IndiceLivrosAdapter implements IndiceLivrosOutputPort {
+
+    // Cada construcao monta um indice novo e troca a referencia no fim: as buscas usam o indice anterior ate la
+    // e livros removidos do banco nao sobrevivem a reconstrucao
+    private volatile IndiceInvertidoLivros indice = new IndiceInvertidoLivros();
+
+    // Cadastros e remocoes feitos enquanto o catalogo e relido; sao reaplicados no indice novo antes da troca.
+    // O valor nulo marca um livro removido. Protegido pelo monitor da propria instancia.
+    private Map<Long, Livro> alteradosDuranteConstrucao;
+
+    private final Object construcao = new Object();
+
+    private final LivroOutputPort livroOutputPort;
+
+    private final boolean habilitado;
+
+    private volatile boolean pronto;
+
+    private final Logger logger = LoggerFactory.getLogger(IndiceLivrosAdapter.class);
+
+    public IndiceLivrosAdapter(LivroOutputPort livroOutputPort,
+                               @Value("${biblioteca.busca.indice-memoria.habilitado:false}") boolean habilitado) {
+        this.livroOutputPort = livroOutputPort;
+        this.habilitado = habilitado;
+    }
+
+    // A leitura do catalogo inteiro roda numa thread propria para nao segurar o fim da subida;
+    // enquanto ela nao termina, ativo() continua falso e as buscas vao para o banco
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarConstrucao() {
+        if (!habilitado) {
+            return;
+        }
+        var threadFactory = new CustomizableThreadFactory("indice-livros-");
+        threadFactory.setDaemon(true);
+        threadFactory.newThread(() -> {
+            try {
+                construirIndice();
+            } catch (RuntimeException e) {
+                logger.error("Falha ao construir o indice de busca em memoria; as buscas continuam no banco", e);
+            }
+        }).start();
+    }
+
+    public void construirIndice() {
+        if (!habilitado) {
+            return;
+        }
+        synchronized (construcao) {
+            var inicio = System.nanoTime();
+            synchronized (this) {
+                alteradosDuranteConstrucao = new HashMap<>();
+            }
+            var novoIndice = new IndiceInvertidoLivros();
+            try {
+                livroOutputPort.exportarLivros(livro -> indexarEm(novoIndice, livro));
+                synchronized (this) {
+                    alteradosDuranteConstrucao.forEach((idLivro, livro) -> {
+                        if (livro == null) {
+                            novoIndice.remover(idLivro);
+                        } else {
+                            indexarEm(novoIndice, livro);
+                        }
+                    });
+                    indice = novoIndice;
+                }
+            } finally {
+                synchronized (this) {
+                    alteradosDuranteConstrucao = null;
+                }
+            }
+            pronto = true;
+            logger.info("Indice de busca em memoria construido com {} livros e {} termos em {} ms",
+                    novoIndice.quantidadeLivros(), novoIndice.quantidadeTermos(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        }
+    }
+
+    @Override
+    public void reconstruir() {
+        construirIndice();
+    }
+
+    // Enquanto a carga inicial nao termina as buscas continuam indo para o banco
+    @Override
+    public boolean ativo() {
+        return habilitado && pronto;
+    }
+
+    @Override
+    public synchronized void indexar(Livro livro) {
+        if (!habilitado || livro == null || livro.getId() == null) {
+            return;
+        }
+        indexarEm(indice, livro);
+        if (alteradosDuranteConstrucao != null) {
+            alteradosDuranteConstrucao.put(livro.getId(), livro);
+        }
+    }
+
+    @Override
+    public synchronized void remover(Long idLivro) {
+        if (!habilitado || idLivro == null) {
+            return;
+        }
+        indice.remover(idLivro);
+        if (alteradosDuranteConstrucao != null) {
+            alteradosDuranteConstrucao.put(idLivro, null);
+        }
+    }
+
+    @Override
+    public List<Long> buscar(String termo, int pagina, int tamanho) {
+        var ids = indice.buscar(termo);
+        var inicio = (int) Math.min((long) pagina * tamanho, ids.length);
+        var fim = Math.min(inicio + tamanho, ids.length);
+        return Arrays.stream(ids, inicio, fim).boxed().toList();
+    }
+
+    private void indexarEm(IndiceInvertidoLivros destino, Livro livro) {
+        if (livro == null || livro.getId() == null) {
+            return;
+        }
+        destino.indexar(livro.getId(), livro.getTitulo(), livro.getAutor(), livro.getEditora());
+    }
+}
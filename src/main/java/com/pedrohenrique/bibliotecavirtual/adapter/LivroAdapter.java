@@ -1,17 +1,29 @@
 package com.pedrohenrique.bibliotecavirtual.adapter;
 
 import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class LivroAdapter implements LivroOutputPort {
@@ -20,11 +32,14 @@ public class LivroAdapter implements LivroOutputPort {
 
     private final LivroMapper livroMapper;
 
+    private final EntityManager entityManager;
+
     private final Logger logger = LoggerFactory.getLogger(LivroAdapter.class);
 
-    public LivroAdapter(LivroRepository livroRepository, LivroMapper livroMapper) {
+    public LivroAdapter(LivroRepository livroRepository, LivroMapper livroMapper, EntityManager entityManager) {
         this.livroRepository = livroRepository;
         this.livroMapper = livroMapper;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -37,6 +52,36 @@ public class LivroAdapter implements LivroOutputPort {
     }
 
 
+    @Override
+    @Transactional
+    public List<Livro> cadastrarLivros(List<Livro> livros) {
+        // Uma importacao nao deve expulsar do cache de segundo nivel os livros consultados com frequencia.
+        // A sessao e a mesma do restante da requisicao (open-in-view), entao o modo anterior volta no finally
+        // e so os livros deste lote saem do contexto de persistencia
+        var session = entityManager.unwrap(Session.class);
+        var cacheModeAnterior = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            var livrosSalvos = livroRepository.saveAll(livros.stream().map(livroMapper::toEntity).toList());
+            entityManager.flush();
+            var resultado = livrosSalvos.stream().map(livroMapper::entityToDomain).toList();
+            livrosSalvos.forEach(entityManager::detach);
+            logger.info("{} livros cadastrados em lote", resultado.size());
+            return resultado;
+        } finally {
+            session.setCacheMode(cacheModeAnterior);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> buscarTitulosExistentes(Collection<String> titulos) {
+        if (titulos.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(livroRepository.findTitulosExistentes(titulos));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Livro> visualizaTodosOsLivros() {
@@ -46,6 +91,51 @@ public class LivroAdapter implements LivroOutputPort {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Livro> visualizarLivrosAposId(Long ultimoId, int limite) {
+        var idInicial = ultimoId != null ? ultimoId : 0L;
+        return livroRepository.findByIdGreaterThanOrderByIdAsc(idInicial, PageRequest.of(0, limite))
+                .stream()
+                .map(livroMapper::entityToDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Livro> visualizarLivrosDisponiveisAposId(Long ultimoId, int limite) {
+        var idInicial = ultimoId != null ? ultimoId : 0L;
+        return livroRepository.findByDisponivelTrueAndIdGreaterThanOrderByIdAsc(idInicial, PageRequest.of(0, limite))
+                .stream()
+                .map(livroMapper::entityToDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarLivros(Consumer<Livro> consumidor) {
+        try (Stream<LivroEntity> livros = livroRepository.streamAllByOrderByIdAsc()) {
+            livros.forEach(livroEntity -> {
+                consumidor.accept(livroMapper.entityToDomain(livroEntity));
+                // Remove a entidade do contexto de persistencia para a memoria nao crescer com o catalogo
+                entityManager.detach(livroEntity);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Livro> buscarLivros(String termo, int pagina, int tamanho) {
+        var consulta = montarConsultaPorPrefixo(termo);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+        return livroRepository.buscarPorTexto(consulta, termo.trim(), PageRequest.of(pagina, tamanho))
+                .stream()
+                .map(livroMapper::entityToDomain)
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Livro> buscarLivroPorId(Long idLivro){
@@ -53,6 +143,34 @@ public class LivroAdapter implements LivroOutputPort {
         return Optional.ofNullable(livroMapper.entityToDomainOptional(livroEntity));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Livro> findAllByIdIn(List<Long> idsLivros) {
+        return livroRepository.findAllByIdIn(idsLivros).stream()
+                .map(livroMapper::entityToDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> travarLivrosDisponiveis(Collection<Long> idsLivros) {
+        return livroRepository.travarLivrosDisponiveis(idsLivros).stream()
+                .map(LivroEntity::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    @Transactional
+    public int reservarLivros(List<Long> idsLivros) {
+        return livroRepository.reservarLivros(idsLivros);
+    }
+
+    @Override
+    @Transactional
+    public int liberarLivros(List<Long> idsLivros) {
+        return livroRepository.liberarLivros(idsLivros);
+    }
+
     @Override
     @Transactional
     public void removerLivro(Long idLivro) {
@@ -79,5 +197,12 @@ public class LivroAdapter implements LivroOutputPort {
         return livroMapper.entityToDomain(livroEntity);
     }
 
-
+    // Cada palavra vira um prefixo (ex.: "dom casm" -> "dom:* & casm:*") para achar titulos digitados pela metade;
+    // so letras e numeros passam, entao o termo nunca quebra a sintaxe do to_tsquery
+    private String montarConsultaPorPrefixo(String termo) {
+        return Arrays.stream(termo.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(palavra -> !palavra.isBlank())
+                .map(palavra -> palavra + ":*")
+                .collect(Collectors.joining(" & "));
+    }
 }
@@ -20,7 +20,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 
 @RestController
@@ -72,8 +71,11 @@ public class ClienteController implements ClienteControllerSwagger {
 
     @Override
     @PreAuthorize("hasRole('CLIENTE') and #idCliente == authentication.principal.id")
-    public ResponseEntity<List<EmprestimoResponseDTO>> visualizarTodosOsEmprestimos(Long idCliente) {
-        var listaResponse = clienteUseCase.visualizarTodosOsEmprestimos(idCliente).stream().map(emprestimoMapper::toResponse).toList();
+    public ResponseEntity<PaginaEmprestimosResponseDTO> visualizarTodosOsEmprestimos(Long idCliente, Boolean ativo, Integer pagina, Integer tamanho) {
+        var paginaEmprestimos = clienteUseCase.visualizarTodosOsEmprestimos(idCliente, ativo, pagina, tamanho);
+        var emprestimos = paginaEmprestimos.getItens().stream().map(emprestimoMapper::toResponse).toList();
+        var listaResponse = new PaginaEmprestimosResponseDTO(emprestimos, paginaEmprestimos.getNumero(), paginaEmprestimos.getTamanho(),
+                paginaEmprestimos.getProximaPagina(), paginaEmprestimos.isPossuiProximaPagina());
         return ResponseEntity.ok().body(listaResponse);
     }
 
@@ -86,6 +88,14 @@ public class ClienteController implements ClienteControllerSwagger {
         return ResponseEntity.ok().body(emprestimoMapper.toResponse(emprestimoCadastrado));
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EmprestimoLoteResponseDTO> realizarEmprestimosEmLote(EmprestimoLoteRequestDTO emprestimoLoteRequestDTO) {
+        var emprestimos = emprestimoMapper.toDomain(emprestimoLoteRequestDTO);
+        var itens = clienteUseCase.realizarEmprestimosEmLote(emprestimos);
+        return ResponseEntity.ok().body(emprestimoMapper.toLoteResponse(itens));
+    }
+
     @Override
     @PreAuthorize("hasRole('CLIENTE') and #devolucaoEmprestimoRequestDTO.idCliente() == authentication.principal.id")
     public ResponseEntity<EmprestimoResponseDTO> realizarDevolucaoEmprestimo( DevolucaoEmprestimoRequestDTO devolucaoEmprestimoRequestDTO) throws Exception, BusinessException {
@@ -94,6 +104,13 @@ public class ClienteController implements ClienteControllerSwagger {
         return ResponseEntity.ok().body(emprestimoMapper.toResponse(devolucaoEmprestimo));
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DevolucaoLoteResponseDTO> realizarDevolucoesEmLote(DevolucaoLoteRequestDTO devolucaoLoteRequestDTO) {
+        var resultado = clienteUseCase.realizarDevolucoesEmLote(devolucaoLoteRequestDTO.idsEmprestimos(), devolucaoLoteRequestDTO.idsLivros());
+        return ResponseEntity.ok().body(emprestimoMapper.toDevolucaoLoteResponse(resultado));
+    }
+
     @Override
     public ResponseEntity<EsqueciMinhaSenhaResponseDTO> esqueciMinhaSenha(EsqueciMinhaSenhaRequestDTO esqueciMinhaSenhaRequestDTO) throws Exception, BusinessException {
         clienteUseCase.esqueciMinhaSenha(esqueciMinhaSenhaRequestDTO.email());
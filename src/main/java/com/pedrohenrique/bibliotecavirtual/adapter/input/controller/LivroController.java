@@ -1,17 +1,29 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.input.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.controller.swagger.LivroControllerSwagger;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LivroRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.CargaLivrosResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ImportacaoLivrosResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.LivroResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.PaginaLivrosResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.importacao.LeitorCsvLivros;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.importacao.LeitorJsonLivros;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.CursorMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapper;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.DataBaseException;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.LivroUseCase;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +32,14 @@ public class LivroController implements LivroControllerSwagger {
 
     private final LivroMapper livroMapper;
     private final LivroUseCase livroUseCase;
+    private final CursorMapper cursorMapper;
+    private final ObjectMapper objectMapper;
 
-    public LivroController(LivroMapper livroMapper, LivroUseCase livroUseCase) {
+    public LivroController(LivroMapper livroMapper, LivroUseCase livroUseCase, CursorMapper cursorMapper, ObjectMapper objectMapper) {
         this.livroMapper = livroMapper;
         this.livroUseCase = livroUseCase;
+        this.cursorMapper = cursorMapper;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -35,6 +51,27 @@ public class LivroController implements LivroControllerSwagger {
         return ResponseEntity.ok().body(livroMapper.toResponse(livroSalvo));
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportacaoLivrosResponseDTO> importarLivrosJson(InputStream corpo) {
+        var resultado = livroUseCase.importarLivros(new LeitorJsonLivros(corpo, objectMapper, livroMapper));
+        return ResponseEntity.ok().body(livroMapper.toImportacaoResponse(resultado));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportacaoLivrosResponseDTO> importarLivrosCsv(InputStream corpo) {
+        var resultado = livroUseCase.importarLivros(new LeitorCsvLivros(corpo));
+        return ResponseEntity.ok().body(livroMapper.toImportacaoResponse(resultado));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CargaLivrosResponseDTO> carregarCatalogo(InputStream corpo) {
+        var resultado = livroUseCase.carregarCatalogo(corpo);
+        return ResponseEntity.ok().body(livroMapper.toCargaResponse(resultado));
+    }
+
     @Override
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     public ResponseEntity<List<LivroResponseDTO>> visualizarTodosOsLivros() {
@@ -46,6 +83,50 @@ public class LivroController implements LivroControllerSwagger {
         return ResponseEntity.ok().body(livros);
     }
 
+    @Override
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    public ResponseEntity<PaginaLivrosResponseDTO> visualizarLivrosPaginados(String cursor, Integer tamanho, Boolean disponiveis) {
+        var idCursor = cursorMapper.decodificar(cursor);
+        var pagina = Boolean.TRUE.equals(disponiveis)
+                ? livroUseCase.visualizarLivrosDisponiveisPaginados(idCursor, tamanho)
+                : livroUseCase.visualizarLivrosPaginados(idCursor, tamanho);
+        var livros = pagina.getItens()
+                .stream()
+                .map(livroMapper::toResponse)
+                .toList();
+
+        return ResponseEntity.ok().body(new PaginaLivrosResponseDTO(livros, cursorMapper.codificar(pagina.getProximoCursor()), pagina.possuiProximaPagina()));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarLivros() {
+        StreamingResponseBody corpo = saida -> {
+            livroUseCase.exportarCatalogo(livro -> {
+                try {
+                    saida.write(objectMapper.writeValueAsBytes(livroMapper.toResponse(livro)));
+                    saida.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            saida.flush();
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    public ResponseEntity<List<LivroResponseDTO>> buscarLivros(String termo, Integer pagina, Integer tamanho) {
+        var livros = livroUseCase.buscarLivros(termo, pagina, tamanho)
+                .stream()
+                .map(livroMapper::toResponse)
+                .toList();
+
+        return ResponseEntity.ok().body(livros);
+    }
+
     @Override
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     public ResponseEntity<Optional<LivroResponseDTO>> buscarLivroPorId(Long idLivro){
@@ -12,7 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.parameters.P;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 
 @Tag(name = "Cliente", description = "Operações disponíveis para clientes da biblioteca")
@@ -27,18 +26,29 @@ public interface ClienteControllerSwagger {
     @PostMapping("clientes/login")
     public ResponseEntity<LoginResponseDTO> efetuarLogin(@RequestBody LoginRequestDTO loginRequestDTO) throws Exception, BusinessException;
 
-    @Operation(summary = "Visualizar empréstimos", description = "Permite que o cliente visualize todos os seus empréstimos feitos na biblioteca")
+    @Operation(summary = "Visualizar empréstimos", description = "Permite que o cliente visualize seus empréstimos feitos na biblioteca, de forma paginada e opcionalmente filtrando pelos ativos ou encerrados; a resposta informa a próxima página quando houver mais empréstimos")
     @GetMapping("/clientes/emprestimos/{idCliente}")
-    public ResponseEntity<List<EmprestimoResponseDTO>> visualizarTodosOsEmprestimos(@PathVariable Long idCliente) throws Exception, BusinessException;
+    public ResponseEntity<PaginaEmprestimosResponseDTO> visualizarTodosOsEmprestimos(@PathVariable Long idCliente,
+                                                                                     @RequestParam(required = false) Boolean ativo,
+                                                                                     @RequestParam(required = false) Integer pagina,
+                                                                                     @RequestParam(required = false) Integer tamanho) throws Exception, BusinessException;
 
     @Operation(summary = "Realizar empréstimo", description = "Permite que o cliente realize o empréstimo de um ou mais livros na biblioteca")
     @PostMapping("/clientes/emprestimos")
     public ResponseEntity<EmprestimoResponseDTO> realizarEmprestimo(@RequestBody EmprestimoRequestDTO emprestimoRequestDTO) throws Exception, BusinessException;
 
+    @Operation(summary = "Realizar empréstimos em lote", description = "Permite que o balcão de atendimento registre de uma vez os empréstimos de vários clientes; cada item da resposta informa se o empréstimo foi realizado ou o motivo da recusa")
+    @PostMapping("/clientes/emprestimos/lote")
+    public ResponseEntity<EmprestimoLoteResponseDTO> realizarEmprestimosEmLote(@RequestBody EmprestimoLoteRequestDTO emprestimoLoteRequestDTO) throws Exception, BusinessException;
+
     @Operation(summary = "Devolução empréstimo", description = "Permite que o cliente realize a devolução de um empréstimo na biblioteca")
     @PatchMapping("/clientes/emprestimos/devolucao")
     public ResponseEntity<EmprestimoResponseDTO> realizarDevolucaoEmprestimo(@Valid  @RequestBody DevolucaoEmprestimoRequestDTO devolucaoEmprestimoRequestDTO) throws Exception, BusinessException;
 
+    @Operation(summary = "Devolução de empréstimos em lote", description = "Permite que o balcão registre de uma vez as devoluções da caixa de coleta, informando os ids dos empréstimos ou os ids dos livros recolhidos; um empréstimo só é encerrado quando todos os seus livros estão no lote")
+    @PatchMapping("/clientes/emprestimos/devolucao/lote")
+    public ResponseEntity<DevolucaoLoteResponseDTO> realizarDevolucoesEmLote(@RequestBody DevolucaoLoteRequestDTO devolucaoLoteRequestDTO) throws Exception, BusinessException;
+
     @Operation(summary = "Esqueci minha senha", description = "Permite que o cliente recupere sua senha caso tenha esquecido")
     @PostMapping("/clientes/esqueci-minha-senha")
     public ResponseEntity<EsqueciMinhaSenhaResponseDTO> esqueciMinhaSenha(@RequestBody EsqueciMinhaSenhaRequestDTO esqueciMinhaSenhaRequestDTO) throws Exception, BusinessException;
@@ -2,13 +2,19 @@ package com.pedrohenrique.bibliotecavirtual.adapter.input.controller.swagger;
 
 
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LivroRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.CargaLivrosResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ImportacaoLivrosResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.LivroResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.PaginaLivrosResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +25,35 @@ public interface LivroControllerSwagger {
     @PostMapping("/cadastrar/livros")
     public ResponseEntity<LivroResponseDTO> cadastrarLivro(@RequestBody LivroRequestDTO livroRequestDTO) throws Exception, BusinessException;
 
+    @Operation(summary = "Importar livros em massa (JSON)", description = "Importa um array JSON de livros lido em streaming; linhas inválidas ou com título já cadastrado são informadas na resposta sem interromper a importação")
+    @PostMapping(value = "/livros/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportacaoLivrosResponseDTO> importarLivrosJson(InputStream corpo) throws Exception, BusinessException;
+
+    @Operation(summary = "Importar livros em massa (CSV)", description = "Importa um arquivo CSV com cabeçalho titulo,autor,editora,anoPublicacao lido em streaming; os erros são informados por linha sem interromper a importação")
+    @PostMapping(value = "/livros/importar", consumes = "text/csv")
+    public ResponseEntity<ImportacaoLivrosResponseDTO> importarLivrosCsv(InputStream corpo) throws Exception, BusinessException;
+
+    @Operation(summary = "Carga inicial do catálogo (CSV)", description = "Carrega um arquivo CSV com cabeçalho titulo,autor,editora,anoPublicacao pelo COPY do PostgreSQL; linhas inválidas e títulos já cadastrados são ignorados e apenas contabilizados, junto com a vazão em linhas por segundo")
+    @PostMapping(value = "/livros/carga", consumes = "text/csv")
+    public ResponseEntity<CargaLivrosResponseDTO> carregarCatalogo(InputStream corpo) throws Exception, BusinessException;
+
     @Operation(summary = "Buscar todos os livros", description = "Permite visualizar todos os livros disponíveis na biblioteca virtual")
     @GetMapping("/livros")
     public ResponseEntity<List<LivroResponseDTO>> visualizarTodosOsLivros() throws Exception, BusinessException;
 
+    @Operation(summary = "Buscar livros paginados", description = "Permite navegar pelo catálogo de livros em páginas, utilizando o cursor retornado na página anterior; com disponiveis=true lista apenas os livros disponíveis para empréstimo")
+    @GetMapping("/livros/paginado")
+    public ResponseEntity<PaginaLivrosResponseDTO> visualizarLivrosPaginados(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho,
+                                                                             @RequestParam(required = false) Boolean disponiveis) throws Exception, BusinessException;
+
+    @Operation(summary = "Exportar catálogo de livros", description = "Exporta todo o catálogo da biblioteca virtual no formato NDJSON, um livro por linha")
+    @GetMapping(value = "/livros/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarLivros() throws Exception, BusinessException;
+
+    @Operation(summary = "Pesquisar livros", description = "Pesquisa livros por título, autor ou editora, aceitando palavras incompletas e pequenos erros de digitação, com os resultados mais relevantes primeiro")
+    @GetMapping("/livros/busca")
+    public ResponseEntity<List<LivroResponseDTO>> buscarLivros(@RequestParam String termo, @RequestParam(required = false) Integer pagina, @RequestParam(required = false) Integer tamanho) throws Exception, BusinessException;
+
     @Operation(summary = "Buscar um livro por ID", description = "Faz a busca de um livro na biblioteca virtual utilizando seu ID")
     @GetMapping("/livros/{idLivro}")
     public ResponseEntity<Optional<LivroResponseDTO>> buscarLivroPorId(@PathVariable Long idLivro) throws Exception, BusinessException;
@@ -0,0 +1,9 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request;
+
+import java.util.List;
+
+public record DevolucaoLoteRequestDTO(
+        List<Long> idsEmprestimos,
+        List<Long> idsLivros
+) {
+}
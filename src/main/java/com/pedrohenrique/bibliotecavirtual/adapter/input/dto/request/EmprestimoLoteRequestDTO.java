@@ -0,0 +1,8 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request;
+
+import java.util.List;
+
+public record EmprestimoLoteRequestDTO(
+        List<EmprestimoRequestDTO> emprestimos
+) {
+}
@@ -0,0 +1,11 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+public record CargaLivrosResponseDTO(
+        Long linhasRecebidas,
+        Long importados,
+        Long invalidos,
+        Long duplicados,
+        Long duracaoMillis,
+        Long linhasPorSegundo
+) {
+}
@@ -0,0 +1,11 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+import java.util.List;
+
+public record DevolucaoLoteResponseDTO(
+        List<Long> emprestimosDevolvidos,
+        List<Long> livrosDevolvidos,
+        List<Long> emprestimosIncompletos,
+        List<Long> naoEncontrados
+) {
+}
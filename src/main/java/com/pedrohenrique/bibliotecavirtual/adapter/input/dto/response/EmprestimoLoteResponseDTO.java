@@ -0,0 +1,10 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+import java.util.List;
+
+public record EmprestimoLoteResponseDTO(
+        Integer realizados,
+        Integer recusados,
+        List<ItemEmprestimoLoteResponseDTO> itens
+) {
+}
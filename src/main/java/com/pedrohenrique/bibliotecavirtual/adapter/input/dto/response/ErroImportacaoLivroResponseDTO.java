@@ -0,0 +1,8 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+public record ErroImportacaoLivroResponseDTO(
+        Integer linha,
+        String titulo,
+        String mensagem
+) {
+}
@@ -0,0 +1,11 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+import java.util.List;
+
+public record ImportacaoLivrosResponseDTO(
+        Integer linhasProcessadas,
+        Integer importados,
+        Integer totalErros,
+        List<ErroImportacaoLivroResponseDTO> erros
+) {
+}
@@ -0,0 +1,9 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+public record ItemEmprestimoLoteResponseDTO(
+        Integer posicao,
+        Boolean realizado,
+        EmprestimoResponseDTO emprestimo,
+        String erro
+) {
+}
@@ -0,0 +1,12 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+import java.util.List;
+
+public record PaginaEmprestimosResponseDTO(
+        List<EmprestimoResponseDTO> emprestimos,
+        Integer pagina,
+        Integer tamanho,
+        Integer proximaPagina,
+        Boolean possuiProximaPagina
+) {
+}
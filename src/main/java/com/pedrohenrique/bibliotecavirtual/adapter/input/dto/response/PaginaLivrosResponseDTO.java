@@ -0,0 +1,10 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response;
+
+import java.util.List;
+
+public record PaginaLivrosResponseDTO(
+        List<LivroResponseDTO> livros,
+        String proximoCursor,
+        Boolean possuiProximaPagina
+) {
+}
@@ -0,0 +1,125 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.importacao;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Le o CSV de importacao linha a linha, sem carregar o arquivo em memoria.
+ * Formato: cabecalho "titulo,autor,editora,anoPublicacao", separador virgula e aspas duplas
+ * para campos com virgula (aspas dentro do campo sao escritas como "").
+ */
+public class LeitorCsvLivros implements Iterator<LinhaImportacaoLivro> {
+
+    private static final int QUANTIDADE_COLUNAS = 4;
+
+    private final BufferedReader leitor;
+    private int numeroLinha;
+    private String proximaLinha;
+
+    public LeitorCsvLivros(InputStream entrada) {
+        this.leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        // A primeira linha e o cabecalho
+        lerLinha();
+        avancar();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proximaLinha != null;
+    }
+
+    @Override
+    public LinhaImportacaoLivro next() {
+        if (proximaLinha == null) {
+            throw new NoSuchElementException();
+        }
+        var linha = proximaLinha;
+        var numero = numeroLinha;
+        avancar();
+        return converter(numero, linha);
+    }
+
+    private void avancar() {
+        do {
+            proximaLinha = lerLinha();
+        } while (proximaLinha != null && proximaLinha.isBlank());
+    }
+
+    private String lerLinha() {
+        try {
+            var linha = leitor.readLine();
+            if (linha != null) {
+                numeroLinha++;
+            }
+            return linha;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LinhaImportacaoLivro converter(int numero, String linha) {
+        List<String> campos;
+        try {
+            campos = separarCampos(linha);
+        } catch (IllegalArgumentException e) {
+            return LinhaImportacaoLivro.invalida(numero, e.getMessage());
+        }
+        if (campos.size() != QUANTIDADE_COLUNAS) {
+            return LinhaImportacaoLivro.invalida(numero, "Linha com " + campos.size() + " colunas, esperado " + QUANTIDADE_COLUNAS);
+        }
+        var livro = new Livro();
+        livro.setTitulo(campos.get(0));
+        livro.setAutor(campos.get(1));
+        livro.setEditora(campos.get(2));
+        if (!campos.get(3).isBlank()) {
+            try {
+                livro.setAnoPublicacao(Integer.valueOf(campos.get(3).trim()));
+            } catch (NumberFormatException e) {
+                return LinhaImportacaoLivro.invalida(numero, "Ano de publicacao invalido: " + campos.get(3));
+            }
+        }
+        return LinhaImportacaoLivro.valida(numero, livro);
+    }
+
+    static List<String> separarCampos(String linha) {
+        var campos = new ArrayList<String>(QUANTIDADE_COLUNAS);
+        var campo = new StringBuilder();
+        var entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            var caractere = linha.charAt(i);
+            if (entreAspas) {
+                if (caractere == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (caractere == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(caractere);
+                }
+            } else if (caractere == '"') {
+                entreAspas = true;
+            } else if (caractere == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(caractere);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas nao fechadas na linha");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,77 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.importacao;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LivroRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapper;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Percorre um array JSON de livros elemento a elemento com o parser de streaming do Jackson.
+ * O numero da linha informado nos erros e a posicao do elemento no array, comecando em 1.
+ */
+public class LeitorJsonLivros implements Iterator<LinhaImportacaoLivro> {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private final LivroMapper livroMapper;
+    private int posicao;
+    private boolean terminado;
+
+    public LeitorJsonLivros(InputStream entrada, ObjectMapper objectMapper, LivroMapper livroMapper) {
+        this.objectMapper = objectMapper;
+        this.livroMapper = livroMapper;
+        try {
+            this.parser = objectMapper.getFactory().createParser(entrada);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new LivroInvalidoException("O corpo da importacao deve ser um array JSON de livros");
+            }
+            avancar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !terminado;
+    }
+
+    @Override
+    public LinhaImportacaoLivro next() {
+        if (terminado) {
+            throw new NoSuchElementException();
+        }
+        posicao++;
+        try {
+            JsonNode elemento = parser.readValueAsTree();
+            LinhaImportacaoLivro linha;
+            try {
+                linha = LinhaImportacaoLivro.valida(posicao, livroMapper.toDomain(objectMapper.treeToValue(elemento, LivroRequestDTO.class)));
+            } catch (JsonProcessingException e) {
+                linha = LinhaImportacaoLivro.invalida(posicao, "Livro com formato invalido: " + e.getOriginalMessage());
+            }
+            avancar();
+            return linha;
+        } catch (IOException e) {
+            // JSON sintaticamente quebrado: nao da para achar o proximo elemento, entao a leitura para aqui
+            terminado = true;
+            return LinhaImportacaoLivro.invalida(posicao, "JSON invalido, importacao interrompida: " + e.getMessage());
+        }
+    }
+
+    private void avancar() throws IOException {
+        var token = parser.nextToken();
+        terminado = token == null || token == JsonToken.END_ARRAY;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.mappers;
+
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.CursorInvalidoException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Component
+public class CursorMapper {
+
+    private static final String PREFIXO_CURSOR = "id:";
+
+    @Value("${mensagem.erro.cursor.invalido}")
+    private String mensagemErroCursorInvalido;
+
+    public String codificar(Long ultimoId) {
+        if (ultimoId == null) {
+            return null;
+        }
+        var cursor = PREFIXO_CURSOR + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO_CURSOR)) {
+                throw new CursorInvalidoException(mensagemErroCursorInvalido);
+            }
+            var ultimoId = Long.parseLong(valor.substring(PREFIXO_CURSOR.length()));
+            if (ultimoId < 0) {
+                throw new CursorInvalidoException(mensagemErroCursorInvalido);
+            }
+            return ultimoId;
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException(mensagemErroCursorInvalido);
+        }
+    }
+}
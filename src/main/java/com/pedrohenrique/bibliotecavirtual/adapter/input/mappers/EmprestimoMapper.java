@@ -1,42 +1,26 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.input.mappers;
 
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.DevolucaoEmprestimoRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.EmprestimoLoteRequestDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.EmprestimoRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.DevolucaoLoteResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.EmprestimoLoteResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.EmprestimoResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ItemEmprestimoLoteResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoResumoProjection;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
-import com.pedrohenrique.bibliotecavirtual.domain.exceptions.cliente.ClienteInvalidoException;
-import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNaoEcontradoException;
-import org.springframework.beans.factory.annotation.Value;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
 
 @Component
 public class EmprestimoMapper {
 
-    private final ClienteRepository clienteRepository;
-
-    private final LivroRepository livroRepository;
-
-    @Value("${mensagem.erro.dados.cliente.id.nao.encontrado}")
-    private String mensagemErroDadosClienteIdNaoEncontrado;
-
-    @Value("${mensagem.erro.livro.indisponivel}")
-    private String mensagemErroLivroIndisponivel;
-
-
-    public EmprestimoMapper(ClienteRepository clienteRepository, LivroRepository livroRepository) {
-        this.clienteRepository = clienteRepository;
-        this.livroRepository = livroRepository;
-    }
-
     public Emprestimo toDomain(EmprestimoRequestDTO emprestimoRequestDTO){
         Emprestimo emprestimo = new Emprestimo();
         emprestimo.setClienteId(emprestimoRequestDTO.clienteId());
@@ -46,6 +30,15 @@ public class EmprestimoMapper {
         return emprestimo;
     }
 
+    public List<Emprestimo> toDomain(EmprestimoLoteRequestDTO emprestimoLoteRequestDTO){
+        if (emprestimoLoteRequestDTO.emprestimos() == null) {
+            return List.of();
+        }
+        return emprestimoLoteRequestDTO.emprestimos().stream()
+                .map(emprestimo -> emprestimo == null ? null : toDomain(emprestimo))
+                .toList();
+    }
+
     public Emprestimo devolucaoEmprestimoMapperToDomain(DevolucaoEmprestimoRequestDTO devolucaoEmprestimoRequestDTO){
         Emprestimo emprestimo = new Emprestimo();
         emprestimo.setId(devolucaoEmprestimoRequestDTO.idEmprestimo());
@@ -71,11 +64,33 @@ public class EmprestimoMapper {
         );
     }
 
-    public EmprestimoEntity toEntity(Emprestimo emprestimo){
+    public EmprestimoLoteResponseDTO toLoteResponse(List<ItemEmprestimoLote> itens){
+        var itensResponse = itens.stream()
+                .map(item -> new ItemEmprestimoLoteResponseDTO(
+                        item.getPosicao(),
+                        !item.recusado(),
+                        item.getEmprestimo() != null ? toResponse(item.getEmprestimo()) : null,
+                        item.getErro()))
+                .toList();
+        var recusados = (int) itens.stream().filter(ItemEmprestimoLote::recusado).count();
+        return new EmprestimoLoteResponseDTO(itens.size() - recusados, recusados, itensResponse);
+    }
+
+    public DevolucaoLoteResponseDTO toDevolucaoLoteResponse(ResultadoDevolucaoLote resultado){
+        return new DevolucaoLoteResponseDTO(
+                resultado.getEmprestimosDevolvidos(),
+                resultado.getLivrosDevolvidos(),
+                resultado.getEmprestimosIncompletos(),
+                resultado.getNaoEncontrados()
+        );
+    }
+
+    // Cliente e livros chegam como referencias resolvidas pelo adapter; o mapper so copia os campos
+    public EmprestimoEntity toEntity(Emprestimo emprestimo, ClienteEntity cliente, List<LivroEntity> livros){
         EmprestimoEntity emprestimoEntity = new EmprestimoEntity();
         emprestimoEntity.setId(emprestimo.getId());
-        emprestimoEntity.setClienteId(pegarReferenciaCliente(emprestimo.getClienteId()));
-        emprestimoEntity.setLivros(pegarReferenciaLivros(emprestimo.getLivros()));
+        emprestimoEntity.setClienteId(cliente);
+        emprestimoEntity.setLivros(livros);
         emprestimoEntity.setDataEmprestimo(emprestimo.getDataEmprestimo());
         emprestimoEntity.setDataDevolucao(emprestimo.getDataDevolucao());
         emprestimoEntity.setAtivo(emprestimo.getAtivo());
@@ -96,6 +111,18 @@ public class EmprestimoMapper {
         return emprestimo;
     }
 
+    public Emprestimo resumoToDomain(EmprestimoResumoProjection resumo, List<Long> livros){
+        Emprestimo emprestimo = new Emprestimo();
+        emprestimo.setId(resumo.getId());
+        emprestimo.setClienteId(resumo.getClienteId());
+        emprestimo.setLivros(livros);
+        emprestimo.setDataEmprestimo(resumo.getDataEmprestimo());
+        emprestimo.setDataDevolucao(resumo.getDataDevolucao());
+        emprestimo.setAtivo(resumo.getAtivo());
+
+        return emprestimo;
+    }
+
     private List<Long> pegarIdsLivros(List<LivroEntity> livros){
         if (livros == null){
             return List.of();
@@ -106,22 +133,4 @@ public class EmprestimoMapper {
                 .map(LivroEntity::getId)
                 .toList();
     }
-
-    private ClienteEntity pegarReferenciaCliente(Long clienteId){
-        return clienteRepository.findById(clienteId).orElseThrow(() -> new ClienteInvalidoException(mensagemErroDadosClienteIdNaoEncontrado + clienteId));
-    }
-
-    private List<LivroEntity> pegarReferenciaLivros(List<Long> livros){
-        if (livros == null || livros.isEmpty()) {
-            return List.of();
-        }
-
-        return livros.stream().map(
-                id -> livroRepository.findById(id).orElseThrow(() -> new LivroNaoEcontradoException(mensagemErroLivroIndisponivel + id)))
-                .filter(Objects::nonNull)
-                .toList();
-
-    }
-
-
 }
@@ -1,9 +1,13 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.input.mappers;
 
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LivroRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.CargaLivrosResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ImportacaoLivrosResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.LivroResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoCargaLivros;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoImportacaoLivros;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -18,6 +22,10 @@ public interface LivroMapper {
 
     LivroResponseDTO toResponse(Livro livro);
 
+    ImportacaoLivrosResponseDTO toImportacaoResponse(ResultadoImportacaoLivros resultadoImportacao);
+
+    CargaLivrosResponseDTO toCargaResponse(ResultadoCargaLivros resultadoCarga);
+
     @Mapping(target = "emprestimos", ignore = true)
     LivroEntity toEntity(Livro livro);
 
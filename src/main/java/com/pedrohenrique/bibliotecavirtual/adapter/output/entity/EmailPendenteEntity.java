@@ -0,0 +1,32 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_pendente")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class EmailPendenteEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String destinatario;
+    private String assunto;
+
+    @Column(columnDefinition = "TEXT")
+    private String conteudo;
+
+    private Integer tentativas;
+    private LocalDateTime dataCriacao;
+    private LocalDateTime proximaTentativa;
+    private String ultimoErro;
+}
@@ -14,8 +14,10 @@ import java.util.List;
 @EqualsAndHashCode(of = "id")
 public class EmprestimoEntity {
 
+    // Sequence com alocacao em blocos de 50 (V11) para os emprestimos em lote serem gravados em batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emprestimo_id_seq")
+    @SequenceGenerator(name = "emprestimo_id_seq", sequenceName = "emprestimo_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -5,19 +5,25 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Table(name = "livro")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "livro")
 @Getter
 @Setter
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class LivroEntity{
 
+    // Sequence com alocacao em blocos de 50 (V10) para o Hibernate conseguir agrupar os inserts em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livro_id_seq")
+    @SequenceGenerator(name = "livro_id_seq", sequenceName = "livro_id_seq", allocationSize = 50)
     private Long id;
     private String titulo;
     private String autor;
@@ -0,0 +1,213 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.indice;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Indice invertido em memoria sobre titulo, autor e editora dos livros.
+ * Cada termo aponta para uma lista ordenada de ids em um long[]; consultas aceitam prefixos
+ * e combinam as palavras com AND.
+ */
+public class IndiceInvertidoLivros {
+
+    private static final long[] VAZIO = new long[0];
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private final NavigableMap<String, ListaPostagem> termos = new TreeMap<>();
+    private final Map<Long, String[]> termosPorLivro = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void indexar(long idLivro, String... textos) {
+        var termosLivro = tokenizar(textos);
+        lock.writeLock().lock();
+        try {
+            removerSemLock(idLivro);
+            for (var termo : termosLivro) {
+                termos.computeIfAbsent(termo, t -> new ListaPostagem()).adicionar(idLivro);
+            }
+            termosPorLivro.put(idLivro, termosLivro);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(long idLivro) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(idLivro);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] buscar(String consulta) {
+        var prefixos = tokenizar(consulta);
+        if (prefixos.length == 0) {
+            return VAZIO;
+        }
+        lock.readLock().lock();
+        try {
+            long[][] listas = new long[prefixos.length][];
+            for (int i = 0; i < prefixos.length; i++) {
+                listas[i] = unirPrefixo(prefixos[i]);
+                if (listas[i].length == 0) {
+                    return VAZIO;
+                }
+            }
+            // Intersecta a partir da lista mais curta para o resultado parcial encolher o quanto antes
+            Arrays.sort(listas, Comparator.comparingInt(lista -> lista.length));
+            var resultado = listas[0];
+            for (int i = 1; i < listas.length && resultado.length > 0; i++) {
+                resultado = intersectar(resultado, listas[i]);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int quantidadeLivros() {
+        lock.readLock().lock();
+        try {
+            return termosPorLivro.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int quantidadeTermos() {
+        lock.readLock().lock();
+        try {
+            return termos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removerSemLock(long idLivro) {
+        var termosAntigos = termosPorLivro.remove(idLivro);
+        if (termosAntigos == null) {
+            return;
+        }
+        for (var termo : termosAntigos) {
+            var lista = termos.get(termo);
+            if (lista != null && lista.remover(idLivro)) {
+                termos.remove(termo);
+            }
+        }
+    }
+
+    private long[] unirPrefixo(String prefixo) {
+        var correspondentes = termos.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+        if (correspondentes.isEmpty()) {
+            return VAZIO;
+        }
+        if (correspondentes.size() == 1) {
+            return correspondentes.firstEntry().getValue().copia();
+        }
+        int total = 0;
+        for (var lista : correspondentes.values()) {
+            total += lista.tamanho;
+        }
+        long[] todos = new long[total];
+        int posicao = 0;
+        for (var lista : correspondentes.values()) {
+            System.arraycopy(lista.ids, 0, todos, posicao, lista.tamanho);
+            posicao += lista.tamanho;
+        }
+        Arrays.sort(todos);
+        int unicos = 0;
+        for (int i = 0; i < todos.length; i++) {
+            if (i == 0 || todos[i] != todos[i - 1]) {
+                todos[unicos++] = todos[i];
+            }
+        }
+        return Arrays.copyOf(todos, unicos);
+    }
+
+    static long[] intersectar(long[] a, long[] b) {
+        long[] resultado = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, k);
+    }
+
+    static String[] tokenizar(String... textos) {
+        return Arrays.stream(textos)
+                .filter(Objects::nonNull)
+                .map(IndiceInvertidoLivros::normalizar)
+                .flatMap(SEPARADOR::splitAsStream)
+                .filter(termo -> !termo.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static String normalizar(String texto) {
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ListaPostagem {
+
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        void adicionar(long id) {
+            // Na carga inicial e nos novos cadastros os ids chegam em ordem crescente, entao o caso comum e um append
+            if (tamanho == 0 || ids[tamanho - 1] < id) {
+                garantirCapacidade();
+                ids[tamanho++] = id;
+                return;
+            }
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            int insercao = -posicao - 1;
+            garantirCapacidade();
+            System.arraycopy(ids, insercao, ids, insercao + 1, tamanho - insercao);
+            ids[insercao] = id;
+            tamanho++;
+        }
+
+        // Retorna true quando a lista ficou vazia e o termo pode sair do dicionario
+        boolean remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+                tamanho--;
+            }
+            return tamanho == 0;
+        }
+
+        long[] copia() {
+            return Arrays.copyOf(ids, tamanho);
+        }
+
+        private void garantirCapacidade() {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.projection;
+
+public interface ClienteEmailProjection {
+
+    Long getId();
+
+    String getEmail();
+}
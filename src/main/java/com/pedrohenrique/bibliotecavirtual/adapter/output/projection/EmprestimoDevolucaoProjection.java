@@ -0,0 +1,7 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.projection;
+
+// Uma linha por livro do emprestimo, com os dados do emprestimo repetidos em cada uma
+public interface EmprestimoDevolucaoProjection extends EmprestimoResumoProjection {
+
+    Long getLivroId();
+}
@@ -0,0 +1,16 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.projection;
+
+import java.time.LocalDate;
+
+public interface EmprestimoResumoProjection {
+
+    Long getId();
+
+    Long getClienteId();
+
+    LocalDate getDataEmprestimo();
+
+    LocalDate getDataDevolucao();
+
+    Boolean getAtivo();
+}
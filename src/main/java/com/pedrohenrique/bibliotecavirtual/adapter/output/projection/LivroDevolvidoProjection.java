@@ -0,0 +1,6 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.projection;
+
+public interface LivroDevolvidoProjection extends LivroEmprestimoProjection {
+
+    String getTitulo();
+}
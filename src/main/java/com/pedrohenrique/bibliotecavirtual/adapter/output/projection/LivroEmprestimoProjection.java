@@ -0,0 +1,8 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.projection;
+
+public interface LivroEmprestimoProjection {
+
+    Long getEmprestimoId();
+
+    Long getLivroId();
+}
@@ -0,0 +1,8 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.projection;
+
+public interface LivroTituloProjection {
+
+    Long getId();
+
+    String getTitulo();
+}
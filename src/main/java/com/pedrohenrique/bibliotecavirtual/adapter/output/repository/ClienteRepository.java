@@ -1,12 +1,23 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
 
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.ClienteEmailProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ClienteRepository extends JpaRepository<ClienteEntity ,Long> {
 
     Optional<ClienteEntity> findByEmailIgnoreCase(String email);
     boolean existsByEmailIgnoreCase(String email);
+
+    @Query("select c.id from ClienteEntity c where c.id in :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id as id, c.email as email from ClienteEntity c where c.id in :ids")
+    List<ClienteEmailProjection> findEmailsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,26 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmailPendenteEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailPendenteRepository extends JpaRepository<EmailPendenteEntity, Long> {
+
+    // Timeout -2 gera FOR UPDATE SKIP LOCKED: despachos concorrentes nunca pegam o mesmo email
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from EmailPendenteEntity e
+            where e.tentativas < :maximoTentativas and e.proximaTentativa <= :agora
+            order by e.id""")
+    List<EmailPendenteEntity> buscarLotePendente(@Param("agora") LocalDateTime agora, @Param("maximoTentativas") int maximoTentativas, Pageable pageable);
+}
@@ -2,12 +2,67 @@ package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
 
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoDevolucaoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoResumoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroDevolvidoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroEmprestimoProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface EmprestimoRepository extends JpaRepository<EmprestimoEntity, Long> {
 
-    List<EmprestimoEntity> findAllEmprestimosByClienteId(ClienteEntity clienteId);
+    @Query("""
+            select e.id as id, e.clienteId.id as clienteId, e.dataEmprestimo as dataEmprestimo,
+                   e.dataDevolucao as dataDevolucao, e.ativo as ativo
+            from EmprestimoEntity e
+            where e.clienteId.id = :idCliente and (:ativo is null or e.ativo = :ativo)
+            order by e.id desc""")
+    // Slice busca um registro a mais para saber se ha proxima pagina, sem o count de uma Page
+    Slice<EmprestimoResumoProjection> findResumosByClienteId(@Param("idCliente") Long idCliente, @Param("ativo") Boolean ativo, Pageable pageable);
+
+    // Emprestimo, id do cliente e ids dos livros numa unica consulta, sem carregar ClienteEntity nem LivroEntity
+    @Query("""
+            select e.id as id, e.clienteId.id as clienteId, e.dataEmprestimo as dataEmprestimo,
+                   e.dataDevolucao as dataDevolucao, e.ativo as ativo, l.id as livroId
+            from EmprestimoEntity e
+            left join e.livros l
+            where e.id = :idEmprestimo
+            order by l.id""")
+    List<EmprestimoDevolucaoProjection> findDevolucaoById(@Param("idEmprestimo") Long idEmprestimo);
+
+    // So altera o emprestimo ainda ativo: uma devolucao concorrente do mesmo emprestimo encontra 0 linhas
+    @Modifying
+    @Query("update EmprestimoEntity e set e.ativo = false, e.dataDevolucao = :dataDevolucao where e.id = :idEmprestimo and e.ativo = true")
+    int encerrarEmprestimo(@Param("idEmprestimo") Long idEmprestimo, @Param("dataDevolucao") LocalDate dataDevolucao);
+
+    @Query(value = """
+            select le.emprestimo_id as "emprestimoId", le.livro_id as "livroId"
+            from livro_emprestimo le
+            where le.emprestimo_id in (:idsEmprestimos)""", nativeQuery = true)
+    List<LivroEmprestimoProjection> findLivrosByEmprestimoIdIn(@Param("idsEmprestimos") Collection<Long> idsEmprestimos);
+
+    @Query(value = """
+            select le.emprestimo_id as "emprestimoId", le.livro_id as "livroId"
+            from livro_emprestimo le
+            join emprestimo e on e.id = le.emprestimo_id
+            where e.ativo and le.livro_id in (:idsLivros)""", nativeQuery = true)
+    List<LivroEmprestimoProjection> findEmprestimosAtivosByLivroIdIn(@Param("idsLivros") Collection<Long> idsLivros);
+
+    @Query(value = """
+            select le.emprestimo_id as "emprestimoId", le.livro_id as "livroId", l.titulo as "titulo"
+            from livro_emprestimo le
+            join livro l on l.id = le.livro_id
+            where le.emprestimo_id in (:idsEmprestimos)
+            order by le.emprestimo_id, le.livro_id""", nativeQuery = true)
+    List<LivroDevolvidoProjection> findLivrosDevolvidosByEmprestimoIdIn(@Param("idsEmprestimos") Collection<Long> idsEmprestimos);
+
     Boolean findEmprestimoByClienteId(ClienteEntity clienteId);
 }
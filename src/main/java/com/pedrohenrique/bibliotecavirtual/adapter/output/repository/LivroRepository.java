@@ -1,9 +1,23 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
 
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.DisponibilidadeLivroProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroTituloProjection;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LivroRepository extends JpaRepository<LivroEntity, Long> {
 
@@ -12,4 +26,51 @@ public interface LivroRepository extends JpaRepository<LivroEntity, Long> {
 
     Optional<LivroEntity> findByTituloIgnoreCase(String titulo);
 
+    List<LivroEntity> findAllByIdIn(Collection<Long> ids);
+
+    // Usa o indice funcional idx_livro_titulo_upper; os titulos ja chegam em caixa alta
+    @Query("select upper(l.titulo) from LivroEntity l where upper(l.titulo) in :titulos")
+    List<String> findTitulosExistentes(@Param("titulos") Collection<String> titulos);
+
+    @Query("select l.id as id, l.titulo as titulo from LivroEntity l where l.id in :ids")
+    List<LivroTituloProjection> findTitulosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Updates em massa nao passam pelas entidades: o Hibernate invalida a regiao "livro" do cache de segundo nivel
+    // ao executar e ao concluir a transacao, entao leituras por id nunca enxergam a disponibilidade antiga
+    @Modifying(flushAutomatically = true)
+    @Query("update LivroEntity l set l.disponivel = false where l.id in :ids and l.disponivel = true")
+    int reservarLivros(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LivroEntity l set l.disponivel = true where l.id in :ids and l.disponivel = false")
+    int liberarLivros(@Param("ids") Collection<Long> ids);
+
+    // Trava os livros ainda disponiveis ate o fim da transacao; a ordem por id evita deadlock entre lotes concorrentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from LivroEntity l where l.id in :ids and l.disponivel = true order by l.id")
+    List<LivroEntity> travarLivrosDisponiveis(@Param("ids") Collection<Long> ids);
+
+    List<LivroEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<LivroEntity> findByDisponivelTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Palavras completas ou prefixos casam pelo indice GIN de busca; o trigrama no titulo tolera erros de digitacao
+    @Query(value = """
+            select l.id, l.titulo, l.autor, l.editora, l.ano_publicacao, l.disponivel
+            from livro l
+            where l.busca @@ to_tsquery('portuguese', :consulta) or l.titulo % :termo
+            order by ts_rank(l.busca, to_tsquery('portuguese', :consulta)) desc, similarity(l.titulo, :termo) desc, l.id""", nativeQuery = true)
+    List<LivroEntity> buscarPorTexto(@Param("consulta") String consulta, @Param("termo") String termo, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select l from LivroEntity l order by l.id")
+    Stream<LivroEntity> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select l.id as id, l.disponivel as disponivel from LivroEntity l")
+    Stream<DisponibilidadeLivroProjection> streamDisponibilidade();
+
 }
@@ -0,0 +1,4 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.service;
+
+public record EmailAgendadoEvent(Long idEmail) {
+}
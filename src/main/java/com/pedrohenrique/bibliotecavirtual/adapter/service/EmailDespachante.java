@@ -0,0 +1,223 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.service;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmailPendenteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmailPendenteRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.exception.EmailException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class EmailDespachante {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+    private final EmailPendenteRepository emailPendenteRepository;
+
+    private final EmailService emailService;
+
+    private final JavaMailSender mailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService emailExecutor;
+
+    private final int tamanhoLote;
+
+    private final int maximoTentativas;
+
+    private final Duration intervaloRetentativa;
+
+    private final Duration prazoEnvio;
+
+    private final AtomicBoolean despachoSolicitado = new AtomicBoolean(false);
+
+    private final Logger logger = LoggerFactory.getLogger(EmailDespachante.class);
+
+    public EmailDespachante(EmailPendenteRepository emailPendenteRepository,
+                            EmailService emailService,
+                            JavaMailSender mailSender,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${biblioteca.email.executor.threads:2}") int threads,
+                            @Value("${biblioteca.email.executor.capacidade-fila:10}") int capacidadeFila,
+                            @Value("${biblioteca.email.despacho.tamanho-lote:50}") int tamanhoLote,
+                            @Value("${biblioteca.email.despacho.maximo-tentativas:5}") int maximoTentativas,
+                            @Value("${biblioteca.email.despacho.intervalo-retentativa:1m}") Duration intervaloRetentativa,
+                            @Value("${biblioteca.email.despacho.prazo-envio:5m}") Duration prazoEnvio) {
+        this.emailPendenteRepository = emailPendenteRepository;
+        this.emailService = emailService;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.intervaloRetentativa = intervaloRetentativa;
+        this.prazoEnvio = prazoEnvio;
+        // Pool e fila limitados: quando a fila enche o pedido de despacho e recusado, mas nada se perde
+        // porque os emails continuam gravados em email_pendente e o proximo ciclo os envia
+        var executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), new CustomizableThreadFactory("email-"), new ThreadPoolExecutor.AbortPolicy());
+        this.emailExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "emailExecutor");
+    }
+
+    @Scheduled(fixedDelayString = "${biblioteca.email.despacho.intervalo:PT10S}")
+    public void despacharPendentesAgendados() {
+        solicitarDespacho();
+    }
+
+    // So roda depois do commit: um rollback nunca envia email e a requisicao nao espera pelo SMTP
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAgendarEmail(EmailAgendadoEvent evento) {
+        solicitarDespacho();
+    }
+
+    public void solicitarDespacho() {
+        // Varios emails na mesma transacao ou em commits seguidos viram um unico despacho na fila
+        if (!despachoSolicitado.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailExecutor.execute(this::despacharPendentes);
+        } catch (RejectedExecutionException e) {
+            despachoSolicitado.set(false);
+            logger.warn("Fila de envio de emails cheia; os pendentes serao enviados no proximo ciclo");
+        }
+    }
+
+    void despacharPendentes() {
+        despachoSolicitado.set(false);
+        try {
+            int processados;
+            do {
+                processados = despacharLote();
+            } while (processados == tamanhoLote);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao despachar emails pendentes: {}", e.getMessage());
+        }
+    }
+
+    // O envio SMTP fica fora de qualquer transacao: so a reserva do lote e o registro do resultado usam conexao
+    // do banco, cada um numa transacao curta, e nenhuma linha de email_pendente fica travada durante o envio
+    private int despacharLote() {
+        var agora = LocalDateTime.now();
+        var lote = transactionTemplate.execute(status -> reservarLote(agora));
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> falhas = new HashMap<>();
+        Map<MimeMessage, EmailPendenteEntity> mensagens = new LinkedHashMap<>();
+        for (var emailPendente : lote) {
+            try {
+                mensagens.put(emailService.criarMensagem(emailPendente.getDestinatario(), emailPendente.getAssunto(), emailPendente.getConteudo()), emailPendente);
+            } catch (EmailException e) {
+                falhas.put(emailPendente.getId(), e.getMessage());
+            }
+        }
+        if (!mensagens.isEmpty()) {
+            enviar(mensagens, falhas);
+        }
+
+        List<Long> enviados = lote.stream()
+                .map(EmailPendenteEntity::getId)
+                .filter(id -> !falhas.containsKey(id))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> registrarResultado(enviados, falhas, agora));
+        logger.info("Lote de emails despachado: {} enviados, {} com falha", enviados.size(), falhas.size());
+        return lote.size();
+    }
+
+    // Empurra a proxima tentativa para depois do prazo de envio: outro despacho nao pega o mesmo email enquanto
+    // este envia, e se o processo cair no meio do envio o email volta a ficar pendente quando o prazo vencer
+    private List<EmailPendenteEntity> reservarLote(LocalDateTime agora) {
+        var lote = emailPendenteRepository.buscarLotePendente(agora, maximoTentativas, PageRequest.of(0, tamanhoLote));
+        var reservadoAte = agora.plus(prazoEnvio);
+        lote.forEach(emailPendente -> emailPendente.setProximaTentativa(reservadoAte));
+        return lote;
+    }
+
+    private void enviar(Map<MimeMessage, EmailPendenteEntity> mensagens, Map<Long, String> falhas) {
+        Map<Object, Exception> recusadas = Map.of();
+        try {
+            // Enviar o lote num unico send faz o JavaMailSenderImpl reaproveitar a mesma conexao SMTP
+            mailSender.send(mensagens.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            recusadas = e.getFailedMessages();
+        } catch (MailException e) {
+            // Falha de conexao ou autenticacao: nenhuma mensagem do lote saiu
+            recusadas = new LinkedHashMap<>();
+            for (var mensagem : mensagens.keySet()) {
+                recusadas.put(mensagem, e);
+            }
+        }
+        for (var entrada : mensagens.entrySet()) {
+            var falha = recusadas.get(entrada.getKey());
+            if (falha != null) {
+                falhas.put(entrada.getValue().getId(), falha.getMessage());
+            }
+        }
+    }
+
+    private void registrarResultado(List<Long> enviados, Map<Long, String> falhas, LocalDateTime agora) {
+        List<Long> removidos = new ArrayList<>(enviados);
+        if (!falhas.isEmpty()) {
+            for (var emailPendente : emailPendenteRepository.findAllById(falhas.keySet())) {
+                if (registrarFalha(emailPendente, falhas.get(emailPendente.getId()), agora)) {
+                    removidos.add(emailPendente.getId());
+                }
+            }
+        }
+        if (!removidos.isEmpty()) {
+            emailPendenteRepository.deleteAllByIdInBatch(removidos);
+        }
+    }
+
+    // Devolve true quando o email esgotou as tentativas e deve sair da fila
+    private boolean registrarFalha(EmailPendenteEntity emailPendente, String erro, LocalDateTime agora) {
+        var tentativas = emailPendente.getTentativas() + 1;
+        emailPendente.setTentativas(tentativas);
+        emailPendente.setUltimoErro(erro != null && erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro);
+        // Espera dobra a cada tentativa para nao insistir num servidor SMTP fora do ar
+        emailPendente.setProximaTentativa(agora.plus(intervaloRetentativa.multipliedBy(1L << Math.min(tentativas - 1, 10))));
+        if (tentativas >= maximoTentativas) {
+            logger.error("Email {} descartado apos {} tentativas: {}", emailPendente.getId(), tentativas, erro);
+            return true;
+        }
+        logger.warn("Falha ao enviar email {} (tentativa {}): {}", emailPendente.getId(), tentativas, erro);
+        return false;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        emailExecutor.shutdown();
+    }
+}
@@ -1,24 +1,34 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.service;
 
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmailPendenteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmailPendenteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.exception.EmailException;
 import com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes;
 import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
 
 @Service
 public class EmailService {
 
     private final JavaMailSender mailSender;
 
-    public EmailService(JavaMailSender mailSender) {
+    private final EmailPendenteRepository emailPendenteRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmailService(JavaMailSender mailSender, EmailPendenteRepository emailPendenteRepository, ApplicationEventPublisher eventPublisher) {
         this.mailSender = mailSender;
+        this.emailPendenteRepository = emailPendenteRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @PostConstruct
@@ -26,8 +36,22 @@ public class EmailService {
         System.out.println("Mail sender: " + mailSender);
     }
 
-    @Async
-    public void enviarEmail(String emailUsuario, String assunto, String conteudo) {
+    // Grava o email na mesma transacao de quem chamou; o EmailDespachante so envia depois do commit
+    @Transactional
+    public void agendarEmail(String emailUsuario, String assunto, String conteudo) {
+        var agora = LocalDateTime.now();
+        var emailPendente = new EmailPendenteEntity();
+        emailPendente.setDestinatario(emailUsuario.trim());
+        emailPendente.setAssunto(assunto);
+        emailPendente.setConteudo(conteudo);
+        emailPendente.setTentativas(0);
+        emailPendente.setDataCriacao(agora);
+        emailPendente.setProximaTentativa(agora);
+        var emailSalvo = emailPendenteRepository.save(emailPendente);
+        eventPublisher.publishEvent(new EmailAgendadoEvent(emailSalvo.getId()));
+    }
+
+    public MimeMessage criarMensagem(String emailUsuario, String assunto, String conteudo) {
         String emailDoUsuario = emailUsuario.trim();
         String emailOrigem = Constantes.EMAIL_ORIGEM.trim();
         MimeMessage message = mailSender.createMimeMessage();
@@ -42,6 +66,6 @@ public class EmailService {
             throw new EmailException("Erro ao enviar email " + e.getMessage());
         }
 
-        mailSender.send(message);
+        return message;
     }
 }
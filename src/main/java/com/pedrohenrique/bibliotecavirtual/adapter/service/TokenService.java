@@ -4,31 +4,125 @@ package com.pedrohenrique.bibliotecavirtual.adapter.service;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
 @Service
 public class TokenService {
 
-    @Value("${spring.security.jwt.secret}")
-    private String JWT_SECRET;
+    private static final String EMISSOR = "Biblioteca Virtual";
 
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Duration expiracaoMaximaCache;
+    private final Cache<String, TokenVerificado> tokensVerificados;
 
-    public String verificarToken(String token){
-        DecodedJWT decodedJWT;
+    public TokenService(@Value("${spring.security.jwt.secret}") String segredo,
+                        @Value("${biblioteca.seguranca.cache-tokens.tamanho-maximo:10000}") long tamanhoMaximoCache,
+                        @Value("${biblioteca.seguranca.cache-tokens.expiracao-maxima:5m}") Duration expiracaoMaximaCache,
+                        MeterRegistry meterRegistry) {
+        this.algorithm = Algorithm.HMAC256(segredo);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(EMISSOR)
+                .build();
+        this.expiracaoMaximaCache = expiracaoMaximaCache;
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(new ExpiracaoTokenVerificado())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "tokensVerificados");
+    }
+
+    public String gerarToken(String email){
         try{
-            Algorithm algorithm = Algorithm.HMAC256(JWT_SECRET);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer("Biblioteca Virtual")
-                    .build();
+            return JWT.create()
+                    .withIssuer(EMISSOR)
+                    .withSubject(email)
+                    .withExpiresAt(dataExpiracaoToken())
+                    .sign(algorithm);
+        } catch(JWTCreationException e){
+            throw new RuntimeException("Erro ao gerar token JWT", e);
+        }
+    }
+
+    public String verificarToken(String token){
+        if (token == null || token.isBlank()){
+            throw new RuntimeException("Token JWT invalido ou expirado");
+        }
+
+        String chave = hashToken(token);
+        TokenVerificado tokenVerificado = tokensVerificados.getIfPresent(chave);
+        if (tokenVerificado != null){
+            return tokenVerificado.subject();
+        }
 
-            decodedJWT = verifier.verify(token);
+        try{
+            DecodedJWT decodedJWT = verifier.verify(token);
+            Instant expiracao = decodedJWT.getExpiresAtAsInstant();
+            tokensVerificados.put(chave, new TokenVerificado(decodedJWT.getSubject(), expiracao));
             return decodedJWT.getSubject();
         } catch(JWTVerificationException e){
             // todo lancar uma exceção correta, fazer isso depois que criar a exception handler a a exceção personalizada
             throw new RuntimeException("Token JWT invalido ou expirado", e);
         }
     }
+
+    private Instant dataExpiracaoToken(){
+        return LocalDateTime.now().plusMinutes(30).toInstant(ZoneOffset.of("-03:00"));
+    }
+
+    // O token em si nao fica em memoria, apenas o seu hash
+    private String hashToken(String token){
+        try{
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("Algoritmo SHA-256 indisponivel", e);
+        }
+    }
+
+    private record TokenVerificado(String subject, Instant expiracao) {
+    }
+
+    // Cada token fica no cache no maximo ate a sua propria expiracao, nunca alem do limite configurado
+    private class ExpiracaoTokenVerificado implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String chave, TokenVerificado tokenVerificado, long currentTime) {
+            long limite = expiracaoMaximaCache.toNanos();
+            if (tokenVerificado.expiracao() == null){
+                return limite;
+            }
+            long restante = Duration.between(Instant.now(), tokenVerificado.expiracao()).toNanos();
+            return Math.max(0, Math.min(restante, limite));
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, TokenVerificado tokenVerificado, long currentTime, long currentDuration) {
+            return expireAfterCreate(chave, tokenVerificado, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, TokenVerificado tokenVerificado, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
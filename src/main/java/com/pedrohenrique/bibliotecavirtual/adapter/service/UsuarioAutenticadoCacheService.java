@@ -0,0 +1,68 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+@Service
+public class UsuarioAutenticadoCacheService {
+
+    private final ClienteRepository clienteRepository;
+    private final AdministradorRepository administradorRepository;
+    private final Cache<String, UserDetails> usuariosAutenticados;
+    private final Logger logger = LoggerFactory.getLogger(UsuarioAutenticadoCacheService.class);
+
+    public UsuarioAutenticadoCacheService(ClienteRepository clienteRepository,
+                                          AdministradorRepository administradorRepository,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${biblioteca.seguranca.cache-usuarios.tamanho-maximo:10000}") long tamanhoMaximo,
+                                          @Value("${biblioteca.seguranca.cache-usuarios.expiracao:5m}") Duration expiracao) {
+        this.clienteRepository = clienteRepository;
+        this.administradorRepository = administradorRepository;
+        this.usuariosAutenticados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosAutenticados, "usuariosAutenticados");
+    }
+
+    public Optional<UserDetails> buscarPorEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        // Usuarios inexistentes nao sao armazenados, para que um cadastro novo seja enxergado na proxima requisicao
+        return Optional.ofNullable(usuariosAutenticados.get(chave(email), this::carregarUsuario));
+    }
+
+    public void invalidar(String email) {
+        if (email != null) {
+            logger.info("Removendo usuario {} do cache de autenticacao", email);
+            usuariosAutenticados.invalidate(chave(email));
+        }
+    }
+
+    private UserDetails carregarUsuario(String email) {
+        return clienteRepository.findByEmailIgnoreCase(email)
+                .map(user -> (UserDetails) user)
+                .or(() -> administradorRepository.findByEmailIgnoreCase(email)
+                        .map(user -> (UserDetails) user))
+                .orElse(null);
+    }
+
+    private String chave(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta as instrucoes SQL que o Hibernate prepara na thread atual enquanto houver uma contagem aberta,
+ * seja uma requisicao HTTP (InstrucoesSqlInterceptor) ou um trecho de teste. Um batch JDBC conta uma vez;
+ * o SQL feito direto pelo JdbcTemplate nao passa por aqui.
+ */
+public class ContadorInstrucoesSql implements StatementInspector {
+
+    private static final ThreadLocal<ContagemInstrucoesSql> CONTAGEM_ATUAL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        var contagem = CONTAGEM_ATUAL.get();
+        if (contagem != null) {
+            contagem.registrar(sql);
+        }
+        return sql;
+    }
+
+    public static ContagemInstrucoesSql iniciar() {
+        var contagem = new ContagemInstrucoesSql();
+        CONTAGEM_ATUAL.set(contagem);
+        return contagem;
+    }
+
+    // Devolve a contagem encerrada, ou null se nenhuma estava aberta na thread
+    public static ContagemInstrucoesSql encerrar() {
+        var contagem = CONTAGEM_ATUAL.get();
+        CONTAGEM_ATUAL.remove();
+        return contagem;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Instrucoes SQL de uma requisicao ou trecho de teste, agrupadas pelo texto. O Hibernate gera o mesmo texto
+ * para a mesma consulta com parametros diferentes, entao um texto que se repete muito indica um N+1.
+ */
+public class ContagemInstrucoesSql {
+
+    private final Map<String, Integer> execucoesPorInstrucao = new LinkedHashMap<>();
+
+    private int total;
+
+    void registrar(String sql) {
+        total++;
+        execucoesPorInstrucao.merge(sql, 1, Integer::sum);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getExecucoesPorInstrucao() {
+        return Map.copyOf(execucoesPorInstrucao);
+    }
+
+    public Map<String, Integer> instrucoesRepetidas(int minimoExecucoes) {
+        return execucoesPorInstrucao.entrySet().stream()
+                .filter(instrucao -> instrucao.getValue() >= minimoExecucoes)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public long contar(String prefixo) {
+        return execucoesPorInstrucao.entrySet().stream()
+                .filter(instrucao -> instrucao.getKey().regionMatches(true, 0, prefixo, 0, prefixo.length()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    @Override
+    public String toString() {
+        return execucoesPorInstrucao.entrySet().stream()
+                .map(instrucao -> instrucao.getValue() + "x " + instrucao.getKey())
+                .collect(Collectors.joining("\n", total + " instrucoes SQL:\n", ""));
+    }
+}
@@ -0,0 +1,103 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Dois pools Hikari, um de escrita e um de leitura, para que as consultas somente leitura nao disputem conexoes
+ * com os emprestimos e devolucoes. Os dois recebem as opcoes de spring.datasource.hikari (timeouts, deteccao de
+ * vazamento, cache de statements do driver); nome, tamanho e somente leitura sao aplicados depois, entao nenhuma
+ * chave compartilhada sobrescreve o que e de cada pool. Os pools dividem um unico total de conexoes de
+ * biblioteca.datasource.tamanho-pool, que com 0 e calculado pelos nucleos da maquina. Sem
+ * biblioteca.datasource.leitura.url o pool de leitura usa o mesmo banco. As metricas hikaricp.* saem pelo
+ * actuator com o nome de cada pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "biblioteca.datasource.roteamento-leitura.habilitado", havingValue = "true")
+public class DataSourceConfiguration {
+
+    private static final String PREFIXO_HIKARI = "spring.datasource.hikari";
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final Binder binder;
+
+    private final int tamanhoTotal;
+
+    private final int percentualLeitura;
+
+    public DataSourceConfiguration(DataSourceProperties dataSourceProperties,
+                                   Environment environment,
+                                   @Value("${biblioteca.datasource.tamanho-pool:0}") int tamanhoPool,
+                                   @Value("${biblioteca.datasource.leitura.percentual-pool:30}") int percentualLeitura) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.binder = Binder.get(environment);
+        this.tamanhoTotal = tamanhoTotal(tamanhoPool);
+        this.percentualLeitura = percentualLeitura;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceEscrita() {
+        var dataSource = criarPool();
+        dataSource.setPoolName("biblioteca-escrita");
+        dataSource.setMaximumPoolSize(tamanhoTotal - tamanhoLeitura(tamanhoTotal, percentualLeitura));
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceLeitura(@Value("${biblioteca.datasource.leitura.url:}") String url) {
+        var dataSource = criarPool();
+        if (StringUtils.hasText(url)) {
+            dataSource.setJdbcUrl(url);
+        }
+        dataSource.setPoolName("biblioteca-leitura");
+        dataSource.setReadOnly(true);
+        dataSource.setMaximumPoolSize(tamanhoLeitura(tamanhoTotal, percentualLeitura));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourceEscrita") DataSource dataSourceEscrita,
+                                 @Qualifier("dataSourceLeitura") DataSource dataSourceLeitura) {
+        var roteamento = new RoteamentoLeituraDataSource();
+        roteamento.setTargetDataSources(Map.of(
+                RoteamentoLeituraDataSource.Pool.ESCRITA, dataSourceEscrita,
+                RoteamentoLeituraDataSource.Pool.LEITURA, dataSourceLeitura));
+        roteamento.setDefaultTargetDataSource(dataSourceEscrita);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    private HikariDataSource criarPool() {
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(PREFIXO_HIKARI, Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    // Ponto de partida da formula do PostgreSQL (nucleos * 2 + 1) para o total de conexoes da aplicacao
+    static int tamanhoTotal(int configurado) {
+        var total = configurado > 0 ? configurado : Runtime.getRuntime().availableProcessors() * 2 + 1;
+        // Cada pool precisa de pelo menos uma conexao
+        return Math.max(total, 2);
+    }
+
+    static int tamanhoLeitura(int total, int percentualLeitura) {
+        var leitura = total * percentualLeitura / 100;
+        return Math.min(Math.max(leitura, 1), total - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Conta as instrucoes SQL de cada requisicao e publica por metodo de controller. Avisa no log quando a requisicao
+ * passa do limite ou quando a mesma instrucao se repete o bastante para ser um N+1.
+ */
+public class InstrucoesSqlInterceptor implements AsyncHandlerInterceptor {
+
+    static final String METRICA_INSTRUCOES = "biblioteca.sql.instrucoes";
+    static final String METRICA_REPETICOES = "biblioteca.sql.repeticoes";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int limiteAlerta;
+
+    private final int limiteRepeticoes;
+
+    private final Logger logger = LoggerFactory.getLogger(InstrucoesSqlInterceptor.class);
+
+    public InstrucoesSqlInterceptor(MeterRegistry meterRegistry, int limiteAlerta, int limiteRepeticoes) {
+        this.meterRegistry = meterRegistry;
+        this.limiteAlerta = limiteAlerta;
+        this.limiteRepeticoes = limiteRepeticoes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            ContadorInstrucoesSql.iniciar();
+        }
+        return true;
+    }
+
+    // O corpo de uma resposta assincrona e escrito em outra thread; a contagem desta thread e descartada
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorInstrucoesSql.encerrar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        var contagem = ContadorInstrucoesSql.encerrar();
+        if (contagem == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        var controller = handlerMethod.getBeanType().getSimpleName();
+        var metodo = handlerMethod.getMethod().getName();
+
+        DistributionSummary.builder(METRICA_INSTRUCOES)
+                .description("Instrucoes SQL executadas por requisicao")
+                .baseUnit("instrucoes")
+                .tags("controller", controller, "metodo", metodo)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(contagem.getTotal());
+
+        if (contagem.getTotal() > limiteAlerta) {
+            logger.warn("{}.{} executou {} instrucoes SQL, acima do limite de {}", controller, metodo, contagem.getTotal(), limiteAlerta);
+        }
+        var repetidas = contagem.instrucoesRepetidas(limiteRepeticoes);
+        if (!repetidas.isEmpty()) {
+            Counter.builder(METRICA_REPETICOES)
+                    .description("Requisicoes em que a mesma instrucao SQL se repetiu acima do limite (possivel N+1)")
+                    .tags("controller", controller, "metodo", metodo)
+                    .register(meterRegistry)
+                    .increment();
+            repetidas.forEach((sql, execucoes) ->
+                    logger.warn("Possivel N+1 em {}.{}: {} execucoes de {}", controller, metodo, execucoes, sql));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tempo de cada metodo publico dos casos de uso e dos adapters de Cliente, Emprestimo e Livro, com histograma
+ * para os percentis no Prometheus, e contagem das recusas de regra de negocio por tipo de excecao.
+ */
+@Aspect
+@Component
+public class MetricasAspect {
+
+    static final String METRICA_CASOS_USO = "biblioteca.casos.uso";
+    static final String METRICA_PORTAS_SAIDA = "biblioteca.portas.saida";
+    static final String METRICA_RECUSAS = "biblioteca.casos.uso.recusas";
+    static final String SEM_EXCECAO = "nenhuma";
+
+    private final MeterRegistry meterRegistry;
+
+    // Um caso de uso pode chamar outro (ClienteUseCase -> EmprestimoUseCase); a recusa so conta no mais externo
+    private final ThreadLocal<int[]> profundidadeCasoUso = ThreadLocal.withInitial(() -> new int[1]);
+
+    public MetricasAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.pedrohenrique.bibliotecavirtual.domain.usecase.*UseCase.*(..))")
+    public Object medirCasoDeUso(ProceedingJoinPoint joinPoint) throws Throwable {
+        var casoUso = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        var metodo = joinPoint.getSignature().getName();
+        var profundidade = profundidadeCasoUso.get();
+        profundidade[0]++;
+        var amostra = Timer.start(meterRegistry);
+        var excecao = SEM_EXCECAO;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excecao = nomeExcecao(e);
+            if (profundidade[0] == 1 && e instanceof BusinessException) {
+                Counter.builder(METRICA_RECUSAS)
+                        .description("Recusas de regra de negocio devolvidas pelos casos de uso")
+                        .tags("casoUso", casoUso, "metodo", metodo, "excecao", excecao)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            throw e;
+        } finally {
+            profundidade[0]--;
+            amostra.stop(timer(METRICA_CASOS_USO, "casoUso", casoUso, metodo, excecao));
+        }
+    }
+
+    @Around("execution(public * com.pedrohenrique.bibliotecavirtual.adapter.ClienteAdapter.*(..))"
+            + " || execution(public * com.pedrohenrique.bibliotecavirtual.adapter.EmprestimoAdapter.*(..))"
+            + " || execution(public * com.pedrohenrique.bibliotecavirtual.adapter.LivroAdapter.*(..))")
+    public Object medirPortaSaida(ProceedingJoinPoint joinPoint) throws Throwable {
+        var adapter = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        var amostra = Timer.start(meterRegistry);
+        var excecao = SEM_EXCECAO;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excecao = nomeExcecao(e);
+            throw e;
+        } finally {
+            amostra.stop(timer(METRICA_PORTAS_SAIDA, "adapter", adapter, joinPoint.getSignature().getName(), excecao));
+        }
+    }
+
+    private Timer timer(String nome, String tagClasse, String classe, String metodo, String excecao) {
+        return Timer.builder(nome)
+                .tags(tagClasse, classe, "metodo", metodo, "excecao", excecao)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    // Os casos de uso relancam as recusas como BusinessException; o tipo original fica na causa
+    private String nomeExcecao(Throwable e) {
+        if (e.getClass() == BusinessException.class && e.getCause() instanceof BusinessException original) {
+            return original.getClass().getSimpleName();
+        }
+        return e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,32 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MonitoramentoSqlConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorInstrucoesSqlCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorInstrucoesSql());
+    }
+
+    @Bean
+    public WebMvcConfigurer instrucoesSqlWebMvcConfigurer(MeterRegistry meterRegistry,
+                                                          @Value("${biblioteca.sql.limite-alerta:30}") int limiteAlerta,
+                                                          @Value("${biblioteca.sql.limite-repeticoes:10}") int limiteRepeticoes) {
+        var interceptor = new InstrucoesSqlInterceptor(meterRegistry, limiteAlerta, limiteRepeticoes);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
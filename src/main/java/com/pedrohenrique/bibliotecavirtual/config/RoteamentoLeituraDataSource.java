@@ -0,0 +1,22 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Manda as transacoes @Transactional(readOnly = true) para o pool de leitura e todo o resto para o de escrita.
+ * Precisa ficar atras de um LazyConnectionDataSourceProxy: a conexao so pode ser escolhida depois que a
+ * transacao ja foi marcada como somente leitura.
+ */
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+
+    enum Pool {
+        ESCRITA, LEITURA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Pool.LEITURA : Pool.ESCRITA;
+    }
+}
@@ -1,6 +1,9 @@
 package com.pedrohenrique.bibliotecavirtual.config;
 
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -23,8 +26,12 @@ public class SecurityConfiguration {
 
     private final SecurityFilter securityFilter;
 
-    public SecurityConfiguration(SecurityFilter securityFilter) {
+    private final int portaGerenciamento;
+
+    public SecurityConfiguration(SecurityFilter securityFilter,
+                                 @Value("${management.server.port:-1}") int portaGerenciamento) {
         this.securityFilter = securityFilter;
+        this.portaGerenciamento = portaGerenciamento;
     }
 
     @Bean
@@ -33,7 +40,12 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/actuator/**").permitAll()
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/actuator/health/**").permitAll()
+                        // O Prometheus raspa sem token apenas pela porta de gerenciamento, que fica fora do acesso publico;
+                        // na porta da aplicacao o endpoint exige ADMIN como o resto do actuator
+                        .requestMatchers(this::raspagemPelaPortaGerenciamento).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/clientes/login", "/clientes/cadastrar",
                                 "/administradores/login", "/clientes/esqueci-minha-senha",
                                 "/clientes/alterar-senha").permitAll()
@@ -44,6 +56,12 @@ public class SecurityConfiguration {
     }
 
 
+    private boolean raspagemPelaPortaGerenciamento(HttpServletRequest request) {
+        return portaGerenciamento > 0
+                && request.getLocalPort() == portaGerenciamento
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder(){
         return new BCryptPasswordEncoder();
@@ -1,8 +1,7 @@
 package com.pedrohenrique.bibliotecavirtual.config;
 
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.TokenService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -19,13 +17,11 @@ import java.io.IOException;
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
-    private final ClienteRepository clienteRepository;
-    private final AdministradorRepository administradorRepository;
+    private final UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
     private final TokenService tokenService;
 
-    public SecurityFilter(ClienteRepository clienteRepository, AdministradorRepository administradorRepository, TokenService tokenService) {
-        this.clienteRepository = clienteRepository;
-        this.administradorRepository = administradorRepository;
+    public SecurityFilter(UsuarioAutenticadoCacheService usuarioAutenticadoCacheService, TokenService tokenService) {
+        this.usuarioAutenticadoCacheService = usuarioAutenticadoCacheService;
         this.tokenService = tokenService;
     }
 
@@ -36,11 +32,7 @@ public class SecurityFilter extends OncePerRequestFilter {
         if (token != null){
             String email = tokenService.verificarToken(token);
 
-            var usuario = clienteRepository.findByEmailIgnoreCase(email)
-                    .map(user -> (UserDetails) user)
-                    .or (() -> administradorRepository.findByEmailIgnoreCase(email)
-                            .map(user -> (UserDetails) user))
-                    .orElse(null);
+            var usuario = usuarioAutenticadoCacheService.buscarPorEmail(email).orElse(null);
 
             if (usuario != null) {
                 Authentication authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
@@ -0,0 +1,13 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ErroImportacaoLivro {
+
+    private int linha;
+    private String titulo;
+    private String mensagem;
+}
@@ -0,0 +1,28 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.Getter;
+
+@Getter
+public class ItemEmprestimoLote {
+
+    private final int posicao;
+    private Emprestimo emprestimo;
+    private String erro;
+
+    public ItemEmprestimoLote(int posicao, Emprestimo emprestimo) {
+        this.posicao = posicao;
+        this.emprestimo = emprestimo;
+    }
+
+    public void recusar(String erro) {
+        this.erro = erro;
+    }
+
+    public void confirmar(Emprestimo emprestimoRealizado) {
+        this.emprestimo = emprestimoRealizado;
+    }
+
+    public boolean recusado() {
+        return erro != null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LinhaImportacaoLivro {
+
+    private int numero;
+    private Livro livro;
+    // Preenchido quando a linha nem chegou a virar um livro (CSV malformado, JSON com tipo errado)
+    private String erro;
+
+    public static LinhaImportacaoLivro valida(int numero, Livro livro) {
+        return new LinhaImportacaoLivro(numero, livro, null);
+    }
+
+    public static LinhaImportacaoLivro invalida(int numero, String erro) {
+        return new LinhaImportacaoLivro(numero, null, erro);
+    }
+
+    public boolean possuiErro() {
+        return erro != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class Pagina<T> {
+
+    private List<T> itens;
+    private int numero;
+    private int tamanho;
+    private boolean possuiProximaPagina;
+
+    public Integer getProximaPagina() {
+        return possuiProximaPagina ? numero + 1 : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    private List<T> itens;
+    private Long proximoCursor;
+
+    public boolean possuiProximaPagina() {
+        return proximoCursor != null;
+    }
+}
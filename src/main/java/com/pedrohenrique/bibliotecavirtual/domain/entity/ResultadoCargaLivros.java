@@ -0,0 +1,19 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ResultadoCargaLivros {
+
+    private long linhasRecebidas;
+    private long importados;
+    private long invalidos;
+    private long duplicados;
+    private long duracaoMillis;
+
+    public long getLinhasPorSegundo() {
+        return duracaoMillis == 0 ? linhasRecebidas * 1000 : linhasRecebidas * 1000 / duracaoMillis;
+    }
+}
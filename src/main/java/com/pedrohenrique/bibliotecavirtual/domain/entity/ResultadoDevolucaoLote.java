@@ -0,0 +1,18 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ResultadoDevolucaoLote {
+
+    private List<Long> emprestimosDevolvidos;
+    private List<Long> livrosDevolvidos;
+    // Emprestimos ativos com apenas parte dos livros no lote: continuam em aberto ate o restante voltar
+    private List<Long> emprestimosIncompletos;
+    // Ids informados que nao correspondem a nenhum emprestimo ativo
+    private List<Long> naoEncontrados;
+}
@@ -0,0 +1,37 @@
+package com.pedrohenrique.bibliotecavirtual.domain.entity;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class ResultadoImportacaoLivros {
+
+    private int linhasProcessadas;
+    private int importados;
+    private int totalErros;
+    private final List<ErroImportacaoLivro> erros = new ArrayList<>();
+
+    // Limita os erros devolvidos para um arquivo inteiro invalido nao gerar uma resposta gigante
+    private final int maximoErrosReportados;
+
+    public ResultadoImportacaoLivros(int maximoErrosReportados) {
+        this.maximoErrosReportados = maximoErrosReportados;
+    }
+
+    public void registrarLinha() {
+        linhasProcessadas++;
+    }
+
+    public void registrarImportados(int quantidade) {
+        importados += quantidade;
+    }
+
+    public void registrarErro(int linha, String titulo, String mensagem) {
+        totalErros++;
+        if (erros.size() < maximoErrosReportados) {
+            erros.add(new ErroImportacaoLivro(linha, titulo, mensagem));
+        }
+    }
+}
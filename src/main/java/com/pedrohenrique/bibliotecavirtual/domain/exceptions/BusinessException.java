@@ -4,4 +4,8 @@ public class BusinessException extends RuntimeException {
     public BusinessException(String message) {
         super(message);
     }
+
+    public BusinessException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,7 @@
+package com.pedrohenrique.bibliotecavirtual.domain.exceptions;
+
+public class CursorInvalidoException extends BusinessException {
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro;
+
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+
+public class TermoBuscaInvalidoException extends BusinessException {
+    public TermoBuscaInvalidoException(String message) {
+        super(message);
+    }
+}
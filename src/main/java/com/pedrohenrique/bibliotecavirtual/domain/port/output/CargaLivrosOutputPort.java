@@ -0,0 +1,10 @@
+package com.pedrohenrique.bibliotecavirtual.domain.port.output;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoCargaLivros;
+
+import java.io.InputStream;
+
+public interface CargaLivrosOutputPort {
+
+    ResultadoCargaLivros carregarCsv(InputStream csv);
+}
@@ -2,14 +2,17 @@ package com.pedrohenrique.bibliotecavirtual.domain.port.output;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ClienteOutputPort {
 
     Cliente cadastrarCliente(Cliente cliente);
     boolean existsByEmail(Cliente cliente);
     boolean existsById(Long id);
+    Set<Long> buscarIdsExistentes(Collection<Long> ids);
     void esqueciMinhaSenha(String email);
     void alterarSenha(Integer codigo, String novaSenha, String confirmacaoNovaSenha, String email);
     Optional<Cliente> findById(Long id);
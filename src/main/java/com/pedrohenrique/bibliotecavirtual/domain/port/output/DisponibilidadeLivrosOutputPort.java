@@ -0,0 +1,15 @@
+package com.pedrohenrique.bibliotecavirtual.domain.port.output;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DisponibilidadeLivrosOutputPort {
+
+    boolean carregado();
+    void reconciliar();
+    boolean possuiIndisponivel(Collection<Long> idsLivros);
+    List<Long> idsDisponiveisAposId(Long ultimoId, int limite);
+    void marcarDisponiveis(Collection<Long> idsLivros);
+    void marcarIndisponiveis(Collection<Long> idsLivros);
+    void remover(Long idLivro);
+}
@@ -1,7 +1,11 @@
 package com.pedrohenrique.bibliotecavirtual.domain.port.output;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,12 +13,18 @@ public interface EmprestimoOutputPort {
 
     Emprestimo realizarEmprestimo(Emprestimo emprestimo);
 
-    List<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente);
+    List<Emprestimo> realizarEmprestimos(List<Emprestimo> emprestimos);
+
+    Pagina<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente, Boolean ativo, int pagina, int tamanho);
+
+    Optional<Emprestimo> buscarEmprestimoParaDevolucao(Long idEmprestimo);
 
     Emprestimo realizarDevolucaoEmprestimo(Emprestimo emprestimo);
 
-    Boolean existsById(Long idEmprestimo);
+    ResultadoDevolucaoLote devolverEmprestimos(Collection<Long> idsEmprestimos, LocalDate dataDevolucao);
 
-    Emprestimo getReferenceById(Long idEmprestimo);
+    ResultadoDevolucaoLote devolverEmprestimosPorLivros(Collection<Long> idsLivros, LocalDate dataDevolucao);
+
+    Boolean existsById(Long idEmprestimo);
 
 }
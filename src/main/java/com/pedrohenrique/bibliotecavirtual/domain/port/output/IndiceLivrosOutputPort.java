@@ -0,0 +1,14 @@
+package com.pedrohenrique.bibliotecavirtual.domain.port.output;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+
+import java.util.List;
+
+public interface IndiceLivrosOutputPort {
+
+    boolean ativo();
+    void reconstruir();
+    void indexar(Livro livro);
+    void remover(Long idLivro);
+    List<Long> buscar(String termo, int pagina, int tamanho);
+}
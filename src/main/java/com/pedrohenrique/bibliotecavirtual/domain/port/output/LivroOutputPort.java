@@ -2,14 +2,27 @@ package com.pedrohenrique.bibliotecavirtual.domain.port.output;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface LivroOutputPort {
 
     Livro cadastrarLivro(Livro livro);
+    List<Livro> cadastrarLivros(List<Livro> livros);
+    Set<String> buscarTitulosExistentes(Collection<String> titulos);
     List<Livro> visualizaTodosOsLivros();
+    List<Livro> visualizarLivrosAposId(Long ultimoId, int limite);
+    List<Livro> visualizarLivrosDisponiveisAposId(Long ultimoId, int limite);
+    void exportarLivros(Consumer<Livro> consumidor);
+    List<Livro> buscarLivros(String termo, int pagina, int tamanho);
     Optional<Livro> buscarLivroPorId(Long idLivro);
+    List<Livro> findAllByIdIn(List<Long> idsLivros);
+    Set<Long> travarLivrosDisponiveis(Collection<Long> idsLivros);
+    int reservarLivros(List<Long> idsLivros);
+    int liberarLivros(List<Long> idsLivros);
     void removerLivro(Long idLivro);
     boolean existsById(Long idLivro);
     boolean existsByTitulo(String titulo);
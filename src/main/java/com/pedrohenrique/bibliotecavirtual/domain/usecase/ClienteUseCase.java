@@ -2,6 +2,9 @@ package com.pedrohenrique.bibliotecavirtual.domain.usecase;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
@@ -38,7 +41,7 @@ public class ClienteUseCase {
             return clienteOutputPort.cadastrarCliente(cliente);
         } catch (BusinessException e){
             logger.error("Erro ao cadastrar cliente: {}", e.getMessage());
-            throw new BusinessException(e.getMessage());
+            throw new BusinessException(e.getMessage(), e);
         }
     }
 
@@ -48,15 +51,24 @@ public class ClienteUseCase {
         return emprestimoUseCase.realizarEmprestimo(emprestimo);
     }
 
+    public List<ItemEmprestimoLote> realizarEmprestimosEmLote(List<Emprestimo> emprestimos) {
+        logger.info("Realizando emprestimos em lote");
+        return emprestimoUseCase.realizarEmprestimosEmLote(emprestimos);
+    }
+
     public Emprestimo realizarDevolucaoEmprestimo(Emprestimo emprestimo){
         logger.info("Cliente do id {} realizando devolucao de emprestimo", emprestimo.getClienteId());
         return emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo);
     }
 
+    public ResultadoDevolucaoLote realizarDevolucoesEmLote(List<Long> idsEmprestimos, List<Long> idsLivros){
+        logger.info("Realizando devolucoes em lote");
+        return emprestimoUseCase.realizarDevolucoesEmLote(idsEmprestimos, idsLivros);
+    }
 
-    public List<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente){
+    public Pagina<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente, Boolean ativo, Integer pagina, Integer tamanho){
         logger.info("Cliente realizando busca de seus emprestimos");
-        return emprestimoUseCase.visualizarTodosOsEmprestimos(idCliente);
+        return emprestimoUseCase.visualizarTodosOsEmprestimos(idCliente, ativo, pagina, tamanho);
     }
 
     public void esqueciMinhaSenha(String email){
@@ -72,7 +84,7 @@ public class ClienteUseCase {
             logger.info("Senha do cliente alterada com sucesso");
         } catch (BusinessException e){
             logger.error("Erro ao alterar senha do cliente: {}", e.getMessage());
-            throw new BusinessException(e.getMessage());
+            throw new BusinessException(e.getMessage(), e);
 
         }
     };
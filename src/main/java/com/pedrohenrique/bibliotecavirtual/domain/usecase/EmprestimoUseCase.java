@@ -1,8 +1,13 @@
 package com.pedrohenrique.bibliotecavirtual.domain.usecase;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.EmprestimoOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.validate.EmprestimoValidate;
@@ -10,8 +15,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -24,72 +31,155 @@ public class EmprestimoUseCase {
     private final LivroOutputPort livroOutputPort;
     private final ClienteOutputPort clienteOutputPort;
 
+    private final DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
+    private final Paginacao paginacao;
+
     @Value("${mensagem.erro.livro.indisponivel}")
     private String mensagemErroLivroIndisponivel;
 
 
     private final Logger logger = LoggerFactory.getLogger(EmprestimoUseCase.class);
 
-    public EmprestimoUseCase(EmprestimoValidate emprestimoValidate, EmprestimoOutputPort emprestimoOutputPort, LivroOutputPort livroOutputPort, ClienteOutputPort clienteOutputPort) {
+    public EmprestimoUseCase(EmprestimoValidate emprestimoValidate, EmprestimoOutputPort emprestimoOutputPort, LivroOutputPort livroOutputPort,
+                             ClienteOutputPort clienteOutputPort, DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort,
+                             Paginacao paginacao) {
         this.emprestimoValidate = emprestimoValidate;
         this.emprestimoOutputPort = emprestimoOutputPort;
         this.livroOutputPort = livroOutputPort;
         this.clienteOutputPort = clienteOutputPort;
+        this.disponibilidadeLivrosOutputPort = disponibilidadeLivrosOutputPort;
+        this.paginacao = paginacao;
     }
 
 
+    @Transactional
     public Emprestimo realizarEmprestimo(Emprestimo emprestimo) {
         try{
             emprestimo.setDataEmprestimo(LocalDate.now());
             emprestimo.setAtivo(true);
             emprestimoValidate.validarEmprestimo(emprestimo);
-            atualizarDisponibilidadeDosLivrosAposEmprestimo(emprestimo);
+            reservarLivros(emprestimo.getLivros());
             logger.info("Inciando processo de empréstimo");
             return emprestimoOutputPort.realizarEmprestimo(emprestimo);
         } catch (BusinessException e){
             logger.error("Erro ao realizar emprestimo: {}", e.getMessage());
-            throw new BusinessException(e.getMessage());
+            throw new BusinessException(e.getMessage(), e);
+        }
+    }
+
+    // Itens recusados na validacao ou na trava dos livros voltam com o motivo; os demais sao gravados juntos na mesma transacao
+    @Transactional
+    public List<ItemEmprestimoLote> realizarEmprestimosEmLote(List<Emprestimo> emprestimos) {
+        var dataEmprestimo = LocalDate.now();
+        var itens = new ArrayList<ItemEmprestimoLote>(emprestimos == null ? 0 : emprestimos.size());
+        if (emprestimos != null) {
+            for (int posicao = 0; posicao < emprestimos.size(); posicao++) {
+                var emprestimo = emprestimos.get(posicao);
+                if (emprestimo != null) {
+                    emprestimo.setDataEmprestimo(dataEmprestimo);
+                    emprestimo.setAtivo(true);
+                }
+                itens.add(new ItemEmprestimoLote(posicao, emprestimo));
+            }
+        }
+        emprestimoValidate.validarEmprestimosEmLote(itens);
+        logger.info("Iniciando processo de emprestimo em lote com {} itens", itens.size());
+
+        var validos = itens.stream().filter(item -> !item.recusado()).toList();
+        if (validos.isEmpty()) {
+            return itens;
+        }
+        // Os livros ficam travados ate o commit: o que estiver disponivel aqui ainda estara no UPDATE de reserva
+        var livrosTravados = livroOutputPort.travarLivrosDisponiveis(validos.stream()
+                .flatMap(item -> item.getEmprestimo().getLivros().stream())
+                .toList());
+        var reservaveis = new ArrayList<ItemEmprestimoLote>(validos.size());
+        for (var item : validos) {
+            if (livrosTravados.containsAll(item.getEmprestimo().getLivros())) {
+                reservaveis.add(item);
+            } else {
+                item.recusar(mensagemErroLivroIndisponivel);
+            }
+        }
+        if (reservaveis.isEmpty()) {
+            return itens;
         }
+
+        reservarLivros(reservaveis.stream().flatMap(item -> item.getEmprestimo().getLivros().stream()).toList());
+        var emprestimosRealizados = emprestimoOutputPort.realizarEmprestimos(reservaveis.stream().map(ItemEmprestimoLote::getEmprestimo).toList());
+        for (int i = 0; i < reservaveis.size(); i++) {
+            reservaveis.get(i).confirmar(emprestimosRealizados.get(i));
+        }
+        logger.info("Emprestimo em lote concluido: {} realizados, {} recusados", reservaveis.size(), itens.size() - reservaveis.size());
+        return itens;
     }
 
+    @Transactional
     public Emprestimo realizarDevolucaoEmprestimo(Emprestimo emprestimo){
         try{
-            emprestimoValidate.validarDevolucao(emprestimo);
-            var emprestimoDevolucao = emprestimoOutputPort.getReferenceById(emprestimo.getId());
-            if (emprestimoDevolucao == null) {
-                throw new BusinessException("Empréstimo não encontrado");
-            }
+            var emprestimoDevolucao = emprestimoValidate.validarDevolucao(emprestimo);
             emprestimoDevolucao.setAtivo(false);
             emprestimoDevolucao.setDataDevolucao(LocalDate.now());
-            atualizarDisponibilidadeDosLivrosAposDevolucao(emprestimoDevolucao);
             logger.info("Iniciando processo de devolução de empréstimo");
-            return emprestimoOutputPort.realizarDevolucaoEmprestimo(emprestimoDevolucao);
+            var emprestimoDevolvido = emprestimoOutputPort.realizarDevolucaoEmprestimo(emprestimoDevolucao);
+            liberarLivros(emprestimoDevolucao.getLivros());
+            return emprestimoDevolvido;
         } catch (BusinessException e){
             logger.error("Erro ao realizar devolução de empréstimo: {}", e.getMessage());
-            throw new BusinessException(e.getMessage());
+            throw new BusinessException(e.getMessage(), e);
         } catch (NullPointerException e) {
             logger.error("Erro ao realizar devolução de empréstimo: Empréstimo não encontrado");
             throw new BusinessException("Empréstimo não encontrado");
         }
     }
 
-    public List<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente){
-        logger.info("Buscando todos os emprestimos");
-        return emprestimoOutputPort.visualizarTodosOsEmprestimos(idCliente);
+    // Devolucao da caixa de coleta: encerra os emprestimos, libera os livros e agenda os e-mails em poucas instrucoes
+    // sobre o lote inteiro, sem carregar cada emprestimo
+    @Transactional
+    public ResultadoDevolucaoLote realizarDevolucoesEmLote(List<Long> idsEmprestimos, List<Long> idsLivros){
+        emprestimoValidate.validarDevolucoesEmLote(idsEmprestimos, idsLivros);
+        var dataDevolucao = LocalDate.now();
+        ResultadoDevolucaoLote resultado;
+        if (idsEmprestimos != null && !idsEmprestimos.isEmpty()) {
+            logger.info("Iniciando devolucao em lote de {} emprestimos", idsEmprestimos.size());
+            resultado = emprestimoOutputPort.devolverEmprestimos(idsEmprestimos.stream().distinct().toList(), dataDevolucao);
+        } else {
+            logger.info("Iniciando devolucao em lote de {} livros", idsLivros.size());
+            resultado = emprestimoOutputPort.devolverEmprestimosPorLivros(idsLivros.stream().distinct().toList(), dataDevolucao);
+        }
+        if (!resultado.getLivrosDevolvidos().isEmpty()) {
+            liberarLivros(resultado.getLivrosDevolvidos());
+        }
+        return resultado;
+    }
+
+    public Pagina<Emprestimo> visualizarTodosOsEmprestimos(Long idCliente, Boolean ativo, Integer pagina, Integer tamanho){
+        var numeroPagina = paginacao.definirNumeroPagina(pagina);
+        var tamanhoPagina = paginacao.definirTamanhoPagina(tamanho);
+        logger.info("Buscando emprestimos do cliente {} (ativo: {}, pagina: {}, tamanho: {})", idCliente, ativo, numeroPagina, tamanhoPagina);
+        return emprestimoOutputPort.visualizarTodosOsEmprestimos(idCliente, ativo, numeroPagina, tamanhoPagina);
     }
 
 
-    private void atualizarDisponibilidadeDosLivrosAposEmprestimo(Emprestimo emprestimo){
-        for (Long idLivro : emprestimo.getLivros()){
-            var livro = livroOutputPort.buscarLivroPorId(idLivro);
-            livro.get().setDisponivel(false);
+    // O UPDATE condicional so altera livros ainda disponiveis; se outro emprestimo reservou algum deles
+    // antes, o numero de linhas afetadas fica menor e a transacao inteira e desfeita
+    private void reservarLivros(List<Long> idsLivros){
+        var idsDistintos = idsLivros.stream().distinct().toList();
+        var livrosReservados = livroOutputPort.reservarLivros(idsDistintos);
+        if (livrosReservados != idsDistintos.size()){
+            logger.warn("Apenas {} de {} livros puderam ser reservados", livrosReservados, idsDistintos.size());
+            throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
         }
+        disponibilidadeLivrosOutputPort.marcarIndisponiveis(idsDistintos);
     }
 
-    private void atualizarDisponibilidadeDosLivrosAposDevolucao(Emprestimo emprestimo){
-        for (Long idLivro : emprestimo.getLivros()){
-            var livro = livroOutputPort.buscarLivroPorId(idLivro);
-            livro.get().setDisponivel(true);
+    private void liberarLivros(List<Long> idsLivros){
+        var idsDistintos = idsLivros.stream().distinct().toList();
+        var livrosLiberados = livroOutputPort.liberarLivros(idsDistintos);
+        if (livrosLiberados != idsDistintos.size()){
+            logger.warn("Apenas {} de {} livros estavam marcados como emprestados na devolucao", livrosLiberados, idsDistintos.size());
         }
+        disponibilidadeLivrosOutputPort.marcarDisponiveis(idsDistintos);
     }
 }
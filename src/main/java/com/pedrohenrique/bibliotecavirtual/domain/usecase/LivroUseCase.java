@@ -1,8 +1,15 @@
 package com.pedrohenrique.bibliotecavirtual.domain.usecase;
 
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.PaginaCursor;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoCargaLivros;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoImportacaoLivros;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.DataBaseException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.CargaLivrosOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.IndiceLivrosOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.validate.LivroValidate;
 import org.slf4j.Logger;
@@ -11,8 +18,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class LivroUseCase {
@@ -21,11 +38,40 @@ public class LivroUseCase {
 
     private final LivroValidate livroValidate;
 
+    private final IndiceLivrosOutputPort indiceLivrosOutputPort;
+
+    private final DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
+    private final CargaLivrosOutputPort cargaLivrosOutputPort;
+
+    private final Paginacao paginacao;
+
     private final Logger logger = LoggerFactory.getLogger(LivroUseCase.class);
 
-    public LivroUseCase(LivroOutputPort livroOutputPort, LivroValidate livroValidate) {
+    @Value("${biblioteca.importacao.tamanho-lote:500}")
+    private Integer tamanhoLoteImportacao;
+
+    @Value("${biblioteca.importacao.maximo-erros-reportados:1000}")
+    private Integer maximoErrosReportadosImportacao;
+
+    @Value("${mensagem.erro.livro.existente}")
+    private String mensagemErroLivroExistente;
+
+    @Value("${mensagem.erro.importacao.titulo.repetido}")
+    private String mensagemErroTituloRepetido;
+
+    @Value("${mensagem.erro.importacao.gravacao}")
+    private String mensagemErroGravacaoImportacao;
+
+    public LivroUseCase(LivroOutputPort livroOutputPort, LivroValidate livroValidate, IndiceLivrosOutputPort indiceLivrosOutputPort,
+                        DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort, CargaLivrosOutputPort cargaLivrosOutputPort,
+                        Paginacao paginacao) {
         this.livroOutputPort = livroOutputPort;
         this.livroValidate = livroValidate;
+        this.indiceLivrosOutputPort = indiceLivrosOutputPort;
+        this.disponibilidadeLivrosOutputPort = disponibilidadeLivrosOutputPort;
+        this.cargaLivrosOutputPort = cargaLivrosOutputPort;
+        this.paginacao = paginacao;
     }
 
 
@@ -34,11 +80,53 @@ public class LivroUseCase {
             livro.setDisponivel(true);
             livroValidate.validarCadastroLivro(livro);
             logger.info("Inciando processo de cadastro de livro");
-            return livroOutputPort.cadastrarLivro(livro);
+            var livroSalvo = livroOutputPort.cadastrarLivro(livro);
+            indiceLivrosOutputPort.indexar(livroSalvo);
+            disponibilidadeLivrosOutputPort.marcarDisponiveis(List.of(livroSalvo.getId()));
+            return livroSalvo;
         } catch (BusinessException e){
             logger.error("Erro ao cadastrar livro: {}", e.getMessage());
-            throw new BusinessException(e.getMessage());
+            throw new BusinessException(e.getMessage(), e);
+        }
+    }
+
+    public ResultadoImportacaoLivros importarLivros(Iterator<LinhaImportacaoLivro> linhas) {
+        logger.info("Iniciando importacao de livros em lotes de {}", tamanhoLoteImportacao);
+        var resultado = new ResultadoImportacaoLivros(maximoErrosReportadosImportacao);
+        var lote = new ArrayList<LinhaImportacaoLivro>(tamanhoLoteImportacao);
+        while (linhas.hasNext()) {
+            var linha = linhas.next();
+            resultado.registrarLinha();
+            if (linha.possuiErro()) {
+                resultado.registrarErro(linha.getNumero(), null, linha.getErro());
+                continue;
+            }
+            lote.add(linha);
+            if (lote.size() == tamanhoLoteImportacao) {
+                importarLote(lote, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            importarLote(lote, resultado);
+        }
+        logger.info("Importacao concluida: {} linhas, {} livros importados, {} erros",
+                resultado.getLinhasProcessadas(), resultado.getImportados(), resultado.getTotalErros());
+        return resultado;
+    }
+
+    public ResultadoCargaLivros carregarCatalogo(InputStream csv) {
+        logger.info("Iniciando carga do catalogo de livros via COPY");
+        var resultado = cargaLivrosOutputPort.carregarCsv(csv);
+        if (resultado.getImportados() > 0) {
+            // A carga grava direto no banco; o mapa de disponibilidade e o indice sao relidos de uma vez
+            // em vez de receberem milhoes de atualizacoes individuais
+            disponibilidadeLivrosOutputPort.reconciliar();
+            if (indiceLivrosOutputPort.ativo()) {
+                indiceLivrosOutputPort.reconstruir();
+            }
         }
+        return resultado;
     }
 
     public List<Livro> visualizarTodosOsLivros(){
@@ -46,6 +134,59 @@ public class LivroUseCase {
         return livroOutputPort.visualizaTodosOsLivros();
     }
 
+    public PaginaCursor<Livro> visualizarLivrosPaginados(Long cursor, Integer tamanho){
+        var tamanhoPagina = paginacao.definirTamanhoPagina(tamanho);
+        logger.info("Buscando pagina de livros apos o ID {} com tamanho {}", cursor, tamanhoPagina);
+        // Busca um registro a mais para saber se existe proxima pagina sem precisar de um count
+        var livros = livroOutputPort.visualizarLivrosAposId(cursor, tamanhoPagina + 1);
+        if (livros.size() <= tamanhoPagina) {
+            return new PaginaCursor<>(livros, null);
+        }
+        var itens = livros.subList(0, tamanhoPagina);
+        return new PaginaCursor<>(itens, itens.get(itens.size() - 1).getId());
+    }
+
+    public PaginaCursor<Livro> visualizarLivrosDisponiveisPaginados(Long cursor, Integer tamanho){
+        var tamanhoPagina = paginacao.definirTamanhoPagina(tamanho);
+        logger.info("Buscando pagina de livros disponiveis apos o ID {} com tamanho {}", cursor, tamanhoPagina);
+        if (!disponibilidadeLivrosOutputPort.carregado()) {
+            var livros = livroOutputPort.visualizarLivrosDisponiveisAposId(cursor, tamanhoPagina + 1);
+            if (livros.size() <= tamanhoPagina) {
+                return new PaginaCursor<>(livros, null);
+            }
+            var itens = livros.subList(0, tamanhoPagina);
+            return new PaginaCursor<>(itens, itens.get(itens.size() - 1).getId());
+        }
+        // O mapa em memoria escolhe os ids da pagina; o banco continua sendo a fonte da disponibilidade exibida
+        var ids = disponibilidadeLivrosOutputPort.idsDisponiveisAposId(cursor, tamanhoPagina + 1);
+        var idsPagina = ids.size() > tamanhoPagina ? ids.subList(0, tamanhoPagina) : ids;
+        if (idsPagina.isEmpty()) {
+            return new PaginaCursor<>(List.of(), null);
+        }
+        var itens = livroOutputPort.findAllByIdIn(idsPagina).stream()
+                .filter(livro -> Boolean.TRUE.equals(livro.getDisponivel()))
+                .sorted(Comparator.comparing(Livro::getId))
+                .toList();
+        var proximoCursor = ids.size() > tamanhoPagina ? idsPagina.get(idsPagina.size() - 1) : null;
+        return new PaginaCursor<>(itens, proximoCursor);
+    }
+
+    public void exportarCatalogo(Consumer<Livro> consumidor){
+        logger.info("Iniciando exportacao do catalogo de livros");
+        livroOutputPort.exportarLivros(consumidor);
+    }
+
+    public List<Livro> buscarLivros(String termo, Integer pagina, Integer tamanho){
+        livroValidate.validarTermoBusca(termo);
+        var numeroPagina = paginacao.definirNumeroPagina(pagina);
+        var tamanhoPagina = paginacao.definirTamanhoPagina(tamanho);
+        logger.info("Buscando livros pelo termo '{}' (pagina: {}, tamanho: {})", termo, numeroPagina, tamanhoPagina);
+        if (indiceLivrosOutputPort.ativo()) {
+            return buscarLivrosNoIndice(termo, numeroPagina, tamanhoPagina);
+        }
+        return livroOutputPort.buscarLivros(termo, numeroPagina, tamanhoPagina);
+    }
+
     public Optional<Livro> buscarLivroPorId(Long idLivro){
         logger.info("Buscando livro do ID {}", idLivro);
         return livroOutputPort.buscarLivroPorId(idLivro);
@@ -57,9 +198,84 @@ public class LivroUseCase {
             livroValidate.validarIdLivro(idLivro);
             logger.info("Livro do ID {} removido com sucesso", idLivro);
             livroOutputPort.removerLivro(idLivro);
+            indiceLivrosOutputPort.remover(idLivro);
+            disponibilidadeLivrosOutputPort.remover(idLivro);
         } catch (BusinessException e){
             logger.error("Erro ao remover livro: {}", e.getMessage());
-            throw new BusinessException(e.getMessage());
+            throw new BusinessException(e.getMessage(), e);
+        }
+    }
+
+    // Cada lote e validado com uma unica consulta de titulos e gravado na sua propria transacao,
+    // entao um lote com problema nao desfaz os anteriores
+    private void importarLote(List<LinhaImportacaoLivro> lote, ResultadoImportacaoLivros resultado) {
+        var candidatas = new ArrayList<LinhaImportacaoLivro>(lote.size());
+        for (var linha : lote) {
+            try {
+                livroValidate.validarImportacaoLivro(linha.getLivro());
+                candidatas.add(linha);
+            } catch (BusinessException e) {
+                resultado.registrarErro(linha.getNumero(), linha.getLivro() == null ? null : linha.getLivro().getTitulo(), e.getMessage());
+            }
+        }
+
+        var titulosExistentes = livroOutputPort.buscarTitulosExistentes(candidatas.stream()
+                .map(linha -> normalizarTitulo(linha.getLivro().getTitulo()))
+                .collect(Collectors.toSet()));
+        var titulosDoLote = new HashSet<String>();
+        var validas = new ArrayList<LinhaImportacaoLivro>(candidatas.size());
+        for (var linha : candidatas) {
+            var titulo = linha.getLivro().getTitulo();
+            var tituloNormalizado = normalizarTitulo(titulo);
+            if (titulosExistentes.contains(tituloNormalizado)) {
+                resultado.registrarErro(linha.getNumero(), titulo, mensagemErroLivroExistente + titulo);
+            } else if (!titulosDoLote.add(tituloNormalizado)) {
+                resultado.registrarErro(linha.getNumero(), titulo, mensagemErroTituloRepetido + titulo);
+            } else {
+                linha.getLivro().setDisponivel(true);
+                validas.add(linha);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        try {
+            registrarLivrosImportados(livroOutputPort.cadastrarLivros(validas.stream().map(LinhaImportacaoLivro::getLivro).toList()), resultado);
+        } catch (RuntimeException e) {
+            // Sem saber qual linha o banco recusou, regrava uma a uma para isolar o erro
+            logger.warn("Falha ao gravar lote de {} livros, gravando individualmente: {}", validas.size(), e.getMessage());
+            for (var linha : validas) {
+                try {
+                    registrarLivrosImportados(livroOutputPort.cadastrarLivros(List.of(linha.getLivro())), resultado);
+                } catch (RuntimeException erroLinha) {
+                    resultado.registrarErro(linha.getNumero(), linha.getLivro().getTitulo(), mensagemErroGravacaoImportacao);
+                }
+            }
+        }
+    }
+
+    private void registrarLivrosImportados(List<Livro> livrosSalvos, ResultadoImportacaoLivros resultado) {
+        livrosSalvos.forEach(indiceLivrosOutputPort::indexar);
+        disponibilidadeLivrosOutputPort.marcarDisponiveis(livrosSalvos.stream().map(Livro::getId).toList());
+        resultado.registrarImportados(livrosSalvos.size());
+    }
+
+    private String normalizarTitulo(String titulo) {
+        return titulo.toUpperCase(Locale.ROOT);
+    }
+
+    private List<Livro> buscarLivrosNoIndice(String termo, int pagina, int tamanho){
+        var ids = indiceLivrosOutputPort.buscar(termo, pagina, tamanho);
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        // O banco devolve os livros em qualquer ordem; a pagina segue a ordem do indice
+        var livrosPorId = livroOutputPort.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Livro::getId, Function.identity()));
+        return ids.stream()
+                .map(livrosPorId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
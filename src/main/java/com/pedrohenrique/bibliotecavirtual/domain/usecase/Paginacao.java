@@ -0,0 +1,31 @@
+package com.pedrohenrique.bibliotecavirtual.domain.usecase;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Normaliza a pagina e o tamanho pedidos pelos clientes da API segundo biblioteca.paginacao, para que todas as
+ * listagens paginadas usem os mesmos limites.
+ */
+@Component
+public class Paginacao {
+
+    private final int tamanhoPaginaPadrao;
+
+    private final int tamanhoPaginaMaximo;
+
+    public Paginacao(@Value("${biblioteca.paginacao.tamanho-padrao:20}") int tamanhoPaginaPadrao,
+                     @Value("${biblioteca.paginacao.tamanho-maximo:100}") int tamanhoPaginaMaximo) {
+        this.tamanhoPaginaPadrao = tamanhoPaginaPadrao;
+        this.tamanhoPaginaMaximo = tamanhoPaginaMaximo;
+    }
+
+    public int definirTamanhoPagina(Integer tamanho) {
+        if (tamanho == null || tamanho < 1) return tamanhoPaginaPadrao;
+        return Math.min(tamanho, tamanhoPaginaMaximo);
+    }
+
+    public int definirNumeroPagina(Integer pagina) {
+        return pagina == null || pagina < 0 ? 0 : pagina;
+    }
+}
@@ -1,6 +1,8 @@
 package com.pedrohenrique.bibliotecavirtual.domain.usecase.validate;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.cliente.ClienteInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.DataEmprestimoInvalidoException;
@@ -8,16 +10,20 @@ import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.Empresti
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoNuloException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
-import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNaoEcontradoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.QuantidadeMaximaLivrosEmprestimoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.EmprestimoOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class EmprestimoValidate {
@@ -28,6 +34,8 @@ public class EmprestimoValidate {
 
     private final EmprestimoOutputPort emprestimoOutputPort;
 
+    private final DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
     @Value(value = "${mensagem.erro.emprestimo.nulo}")
     private String mensagemErroEmprestimoNulo;
 
@@ -55,28 +63,112 @@ public class EmprestimoValidate {
     @Value("${mensagem.erro.emprestimo.ja.devolvido}")
     private String mensagemErroEmprestimoJaDevolvido;
 
-    public EmprestimoValidate(LivroOutputPort livroOutputPort, ClienteOutputPort clienteOutputPort, EmprestimoOutputPort emprestimoOutputPort) {
+    @Value("${mensagem.erro.emprestimo.livro.repetido}")
+    private String mensagemErroLivroRepetido;
+
+    @Value("${mensagem.erro.emprestimo.lote.tamanho}")
+    private String mensagemErroTamanhoLote;
+
+    @Value("${biblioteca.emprestimos.lote.tamanho-maximo:100}")
+    private Integer tamanhoMaximoLote;
+
+    @Value("${mensagem.erro.devolucao.lote.criterio}")
+    private String mensagemErroCriterioDevolucaoLote;
+
+    @Value("${mensagem.erro.devolucao.lote.tamanho}")
+    private String mensagemErroTamanhoDevolucaoLote;
+
+    @Value("${biblioteca.emprestimos.devolucao-lote.tamanho-maximo:1000}")
+    private Integer tamanhoMaximoDevolucaoLote;
+
+    public EmprestimoValidate(LivroOutputPort livroOutputPort, ClienteOutputPort clienteOutputPort, EmprestimoOutputPort emprestimoOutputPort,
+                              DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort) {
         this.livroOutputPort = livroOutputPort;
         this.clienteOutputPort = clienteOutputPort;
         this.emprestimoOutputPort = emprestimoOutputPort;
+        this.disponibilidadeLivrosOutputPort = disponibilidadeLivrosOutputPort;
     }
 
-    public void validarEmprestimo(Emprestimo emprestimo){
+    public List<Livro> validarEmprestimo(Emprestimo emprestimo){
         validarNulidadeEmprestimo(emprestimo);
-        validarLivros(emprestimo);
+        var livros = validarLivros(emprestimo);
         validarDataDevolucaoLivro(emprestimo);
         validarNulidadeIdCliente(emprestimo);
         validarExistenciaIdCliente(emprestimo);
         validarQuantidadesLivrosEmprestimo(emprestimo);
+        return livros;
+    }
+
+    // Recusa item a item em vez de lancar excecao; clientes e livros de todo o lote sao conferidos com uma consulta cada
+    public void validarEmprestimosEmLote(List<ItemEmprestimoLote> itens){
+        if (itens == null || itens.isEmpty() || itens.size() > tamanhoMaximoLote){
+            throw new EmprestimoInvalidoException(mensagemErroTamanhoLote + tamanhoMaximoLote);
+        }
+        for (var item : itens) {
+            try {
+                validarDadosEmprestimo(item.getEmprestimo());
+            } catch (BusinessException e) {
+                item.recusar(e.getMessage());
+            }
+        }
+        var pendentes = itens.stream().filter(item -> !item.recusado()).toList();
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        var clientesExistentes = clienteOutputPort.buscarIdsExistentes(pendentes.stream()
+                .map(item -> item.getEmprestimo().getClienteId())
+                .collect(Collectors.toSet()));
+        var idsLivros = pendentes.stream()
+                .flatMap(item -> item.getEmprestimo().getLivros().stream())
+                .distinct()
+                .toList();
+        Set<Long> livrosDisponiveis = livroOutputPort.findAllByIdIn(idsLivros).stream()
+                .filter(livro -> Boolean.TRUE.equals(livro.getDisponivel()))
+                .map(Livro::getId)
+                .collect(Collectors.toSet());
+
+        // Um livro pedido por mais de um item fica com o primeiro deles
+        var livrosDoLote = new HashSet<Long>();
+        for (var item : pendentes) {
+            var emprestimo = item.getEmprestimo();
+            if (!clientesExistentes.contains(emprestimo.getClienteId())) {
+                item.recusar(mensagemErroDadosClienteIdNaoEncontrado);
+            } else if (!livrosDisponiveis.containsAll(emprestimo.getLivros())
+                    || emprestimo.getLivros().stream().anyMatch(livrosDoLote::contains)) {
+                item.recusar(mensagemErroLivroIndisponivel);
+            } else {
+                livrosDoLote.addAll(emprestimo.getLivros());
+            }
+        }
     }
 
-    public void validarDevolucao(Emprestimo emprestimo){
+    // O lote e identificado ou pelos emprestimos ou pelos livros recolhidos, nunca pelos dois ao mesmo tempo
+    public void validarDevolucoesEmLote(List<Long> idsEmprestimos, List<Long> idsLivros){
+        var porEmprestimos = idsEmprestimos != null && !idsEmprestimos.isEmpty();
+        var porLivros = idsLivros != null && !idsLivros.isEmpty();
+        if (porEmprestimos == porLivros){
+            throw new EmprestimoInvalidoException(mensagemErroCriterioDevolucaoLote);
+        }
+        var ids = porEmprestimos ? idsEmprestimos : idsLivros;
+        if (ids.stream().anyMatch(Objects::isNull)){
+            throw new EmprestimoInvalidoException(mensagemErroCriterioDevolucaoLote);
+        }
+        if (ids.size() > tamanhoMaximoDevolucaoLote){
+            throw new EmprestimoInvalidoException(mensagemErroTamanhoDevolucaoLote + tamanhoMaximoDevolucaoLote);
+        }
+    }
+
+    // O emprestimo e lido uma unica vez e todas as regras rodam sobre essa leitura, que volta para o caso de uso.
+    // Se ele pertence ao cliente informado, o cliente existe (chave estrangeira), sem consulta extra ao cliente.
+    public Emprestimo validarDevolucao(Emprestimo emprestimo){
         validarNulidadeEmprestimo(emprestimo);
-        validarExistenciaEmprestimo(emprestimo);
+        var emprestimoAtual = emprestimoOutputPort.buscarEmprestimoParaDevolucao(emprestimo.getId())
+                .orElseThrow(() -> new EmprestimoInexistenteException(mensagemErroEmprestimoInexistente));
         validarNulidadeIdCliente(emprestimo);
-        validarExistenciaIdCliente(emprestimo);
-        validarExistenciaEmprestimoPorIdCliente(emprestimo);
-        validarSeOEmprestimoJaFoiDevolvido(emprestimo);
+        validarExistenciaEmprestimoPorIdCliente(emprestimo, emprestimoAtual);
+        validarSeOEmprestimoJaFoiDevolvido(emprestimoAtual);
+        return emprestimoAtual;
     }
 
     private void validarNulidadeEmprestimo(Emprestimo emprestimo){
@@ -107,45 +199,56 @@ public class EmprestimoValidate {
             throw new ClienteInvalidoException(mensagemErroDadosClienteIdNaoEncontrado);
     }
 
-    private void validarExistenciaEmprestimo(Emprestimo emprestimo){
-        if (!emprestimoOutputPort.existsById(emprestimo.getId())){
-            throw new EmprestimoInexistenteException(mensagemErroEmprestimoInexistente);
+    private void validarDadosEmprestimo(Emprestimo emprestimo){
+        validarNulidadeEmprestimo(emprestimo);
+        validarPreenchimentoLivros(emprestimo);
+        validarLivrosRepetidos(emprestimo);
+        validarDataDevolucaoLivro(emprestimo);
+        validarNulidadeIdCliente(emprestimo);
+        validarQuantidadesLivrosEmprestimo(emprestimo);
+    }
+
+    private void validarPreenchimentoLivros(Emprestimo emprestimo){
+        if (emprestimo.getLivros() == null || emprestimo.getLivros().isEmpty()
+                || emprestimo.getLivros().stream().anyMatch(Objects::isNull)){
+            throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
         }
     }
 
-    private void validarLivros(Emprestimo emprestimo){
-        if (emprestimo.getLivros() == null || emprestimo.getLivros().isEmpty()){
+    private void validarLivrosRepetidos(Emprestimo emprestimo){
+        if (emprestimo.getLivros().stream().distinct().count() != emprestimo.getLivros().size()){
+            throw new LivroInvalidoException(mensagemErroLivroRepetido);
+        }
+    }
+
+    private List<Livro> validarLivros(Emprestimo emprestimo){
+        validarPreenchimentoLivros(emprestimo);
+        validarLivrosRepetidos(emprestimo);
+        // Livro sabidamente emprestado e recusado sem ir ao banco
+        if (disponibilidadeLivrosOutputPort.possuiIndisponivel(emprestimo.getLivros())){
+            throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
+        }
+
+        var livros = livroOutputPort.findAllByIdIn(emprestimo.getLivros());
+        Set<Long> idsEncontrados = livros.stream().map(Livro::getId).collect(Collectors.toSet());
+        if (!idsEncontrados.containsAll(emprestimo.getLivros())){
+            throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
+        }
+        if (livros.stream().anyMatch(livro -> !livro.getDisponivel())){
             throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
-        } else {
-            for (Long idLivro : emprestimo.getLivros()){
-                var livro = livroOutputPort.buscarLivroPorId(idLivro);
-                if (idLivro == null){
-                    throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
-                }
-                if (livro.isEmpty()){
-                    throw new LivroInvalidoException(mensagemErroLivroIndisponivel);
-                }
-                if (!livroOutputPort.existsById(idLivro)){
-                    throw new LivroNaoEcontradoException(mensagemErroLivroIndisponivel);
-                }
-                if (!livro.get().getDisponivel()){
-                    throw new LivroInvalidoException(mensagemErroLivroIndisponivel );
-                }
-            }
         }
+        return livros;
     }
 
 
-    private void validarExistenciaEmprestimoPorIdCliente(Emprestimo emprestimo) {
-        var emprestimoEntity = emprestimoOutputPort.getReferenceById(emprestimo.getId());
-        if (emprestimoEntity == null || !emprestimoEntity.getClienteId().equals(emprestimo.getClienteId())) {
+    private void validarExistenciaEmprestimoPorIdCliente(Emprestimo emprestimo, Emprestimo emprestimoAtual) {
+        if (!emprestimo.getClienteId().equals(emprestimoAtual.getClienteId())) {
             throw new EmprestimoInexistenteException(mensagemErroEmprestimoInexistenteClienteId);
         }
     }
 
-    private void validarSeOEmprestimoJaFoiDevolvido(Emprestimo emprestimo){
-        var emprestimoEntity = emprestimoOutputPort.getReferenceById(emprestimo.getId());
-        if (emprestimoEntity == null || !emprestimoEntity.getAtivo() ){
+    private void validarSeOEmprestimoJaFoiDevolvido(Emprestimo emprestimoAtual){
+        if (!Boolean.TRUE.equals(emprestimoAtual.getAtivo())){
             throw new EmprestimoInvalidoException(mensagemErroEmprestimoJaDevolvido);
         }
 
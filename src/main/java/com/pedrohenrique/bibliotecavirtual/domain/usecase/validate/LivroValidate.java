@@ -2,9 +2,12 @@ package com.pedrohenrique.bibliotecavirtual.domain.usecase.validate;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroExistenteException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNaoEcontradoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNuloException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.TermoBuscaInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +25,15 @@ public class LivroValidate {
     @Value("${mensagem.erro.livro.existente}")
     private String mensagemErroLivroExistnte;
 
+    @Value("${mensagem.erro.busca.termo.invalido}")
+    private String mensagemErroBuscaTermoInvalido;
+
+    @Value("${mensagem.erro.importacao.campo.obrigatorio}")
+    private String mensagemErroImportacaoCampoObrigatorio;
+
+    @Value("${mensagem.erro.importacao.campo.tamanho}")
+    private String mensagemErroImportacaoCampoTamanho;
+
     public LivroValidate(LivroOutputPort livroOutputPort) {
         this.livroOutputPort = livroOutputPort;
     }
@@ -41,6 +53,18 @@ public class LivroValidate {
         validarExistenciaParaCadastroLivro(livro);
     }
 
+    // Roda antes do insert em lote: um valor que o banco recusaria derrubaria o lote inteiro
+    public void validarImportacaoLivro(Livro livro){
+        validarNulidade(livro);
+        validarCampoImportacao("titulo", livro.getTitulo(), Constantes.TAMANHO_MAX_TITULO_LIVRO, true);
+        validarCampoImportacao("autor", livro.getAutor(), Constantes.TAMANHO_MAX_AUTOR_LIVRO, true);
+        validarCampoImportacao("editora", livro.getEditora(), Constantes.TAMANHO_MAX_EDITORA_LIVRO, false);
+    }
+
+    public void validarTermoBusca(String termo){
+        if (termo == null || termo.trim().length() < 2) throw new TermoBuscaInvalidoException(mensagemErroBuscaTermoInvalido);
+    }
+
     private void validarNulidade(Livro livro){
         if (livro == null) throw new LivroNuloException(mensagemErroLivroNulo);
     }
@@ -55,6 +79,14 @@ public class LivroValidate {
             throw new LivroExistenteException(mensagemErroLivroExistnte + livro.getTitulo());
     }
 
+    private void validarCampoImportacao(String campo, String valor, int tamanhoMaximo, boolean obrigatorio){
+        if (valor == null || valor.isBlank()) {
+            if (obrigatorio) throw new LivroInvalidoException(mensagemErroImportacaoCampoObrigatorio + campo);
+            return;
+        }
+        if (valor.length() > tamanhoMaximo) throw new LivroInvalidoException(mensagemErroImportacaoCampoTamanho + campo);
+    }
+
     private void  validarNulidadeIdLivro(Long id){
         if (id == null) throw  new LivroNuloException(mensagemErroLivroNulo + "ID: " + id);
     }
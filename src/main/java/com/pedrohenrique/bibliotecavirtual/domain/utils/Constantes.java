@@ -5,4 +5,7 @@ public class Constantes {
     public static final Integer QUANTIDADE_MAX_NUMERO_EMPRESTIMO = 3;
     public static final String EMAIL_ORIGEM = "pedro.romanowski02@gmail.com";
     public static final String NOME_ENVIADOR = "Biblioteca Virtual";
+    public static final Integer TAMANHO_MAX_TITULO_LIVRO = 200;
+    public static final Integer TAMANHO_MAX_AUTOR_LIVRO = 150;
+    public static final Integer TAMANHO_MAX_EDITORA_LIVRO = 150;
 }
@@ -0,0 +1,3 @@
+-- O Hibernate reserva blocos de 50 ids por chamada ao nextval (otimizador pooled) e consegue agrupar os inserts.
+-- Inserts direto em SQL continuam usando o default da coluna, apenas com ids espacados de 50 em 50.
+ALTER SEQUENCE livro_id_seq INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- Mesmo ajuste feito para livro na V10: blocos de 50 ids por nextval permitem gravar emprestimos em lote
+ALTER SEQUENCE emprestimo_id_seq INCREMENT BY 50;
@@ -0,0 +1,9 @@
+-- As consultas derivadas com IgnoreCase do Spring Data geram upper(coluna) = upper(?)
+CREATE INDEX idx_cliente_email_upper ON cliente (upper(email));
+CREATE INDEX idx_administrador_email_upper ON administrador (upper(email));
+CREATE INDEX idx_livro_titulo_upper ON livro (upper(titulo));
+
+CREATE INDEX idx_emprestimo_cliente_id ON emprestimo (cliente_id);
+CREATE INDEX idx_emprestimo_cliente_id_ativo ON emprestimo (cliente_id) WHERE ativo;
+
+CREATE INDEX idx_livro_emprestimo_livro_id ON livro_emprestimo (livro_id);
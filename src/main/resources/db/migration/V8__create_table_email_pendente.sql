@@ -0,0 +1,12 @@
+CREATE TABLE email_pendente (
+                                id BIGSERIAL PRIMARY KEY,
+                                destinatario VARCHAR(255) NOT NULL,
+                                assunto VARCHAR(255) NOT NULL,
+                                conteudo TEXT NOT NULL,
+                                tentativas INTEGER NOT NULL DEFAULT 0,
+                                data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                proxima_tentativa TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                ultimo_erro VARCHAR(1000)
+);
+
+CREATE INDEX idx_email_pendente_proxima_tentativa ON email_pendente (proxima_tentativa);
@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE livro ADD COLUMN busca tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A') ||
+    setweight(to_tsvector('portuguese', coalesce(autor, '')), 'B') ||
+    setweight(to_tsvector('portuguese', coalesce(editora, '')), 'C')
+) STORED;
+
+CREATE INDEX idx_livro_busca ON livro USING GIN (busca);
+CREATE INDEX idx_livro_titulo_trgm ON livro USING GIN (titulo gin_trgm_ops);
@@ -0,0 +1,95 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.PostgresDataJpaTest;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntityFixture.livro;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(CargaLivrosAdapter.class)
+class CargaLivrosAdapterTest extends PostgresDataJpaTest {
+
+    @Autowired
+    private CargaLivrosAdapter cargaLivrosAdapter;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve importar as linhas válidas e ignorar inválidas e títulos repetidos")
+    void deveImportarLinhasValidasEIgnorarInvalidasETitulosRepetidos() {
+        livroRepository.saveAndFlush(livro("Dom Casmurro"));
+        var csv = """
+                titulo,autor,editora,anoPublicacao
+                O Cortiço,Aluísio Azevedo,Ática,1890
+                "Iracema, lenda do Ceará",José de Alencar,,1865
+                DOM CASMURRO,Machado de Assis,Garnier,1899
+                o cortiço,Outro Autor,Outra,2000
+                ,Sem Titulo,Editora,2000
+                Sem Autor,,Editora,2000
+                Ano Invalido,Autor,Editora,mil
+                """;
+
+        var resultado = cargaLivrosAdapter.carregarCsv(comoStream(csv));
+
+        assertEquals(7, resultado.getLinhasRecebidas());
+        assertEquals(2, resultado.getImportados());
+        assertEquals(3, resultado.getInvalidos());
+        assertEquals(2, resultado.getDuplicados());
+        assertEquals(1, contarPorTitulo("O Cortiço"));
+        assertEquals(1, contarPorTitulo("Iracema, lenda do Ceará"));
+        assertEquals("Aluísio Azevedo", jdbcTemplate.queryForObject("SELECT autor FROM livro WHERE titulo = 'O Cortiço'", String.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT editora FROM livro WHERE titulo = 'Iracema, lenda do Ceará'", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM livro WHERE disponivel IS NOT TRUE", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids pela sequence sem colidir com os ids reservados pelo Hibernate")
+    void deveGerarIdsPelaSequenceSemColidirComIdsReservadosPeloHibernate() {
+        livroRepository.saveAndFlush(livro("Livro antes da carga"));
+        var csv = new StringBuilder("titulo,autor,editora,anoPublicacao\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append("Livro ").append(i).append(",Autor,Editora,2000\n");
+        }
+
+        var resultado = cargaLivrosAdapter.carregarCsv(comoStream(csv.toString()));
+        var depois = livroRepository.saveAndFlush(livro("Livro depois da carga"));
+
+        assertEquals(120, resultado.getImportados());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM livro WHERE id <= 0", Integer.class));
+        assertEquals(122, jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM livro", Integer.class));
+        assertNotNull(depois.getId());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o arquivo estiver fora do formato CSV")
+    void deveLancarExcecaoQuandoArquivoEstiverForaDoFormatoCsv() {
+        var csv = """
+                titulo,autor,editora,anoPublicacao
+                Livro,Autor,Editora,2000,coluna extra
+                """;
+
+        assertThrows(LivroInvalidoException.class, () -> cargaLivrosAdapter.carregarCsv(comoStream(csv)));
+    }
+
+    private Integer contarPorTitulo(String titulo) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM livro WHERE upper(titulo) = upper(?)", Integer.class, titulo);
+    }
+
+    private InputStream comoStream(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
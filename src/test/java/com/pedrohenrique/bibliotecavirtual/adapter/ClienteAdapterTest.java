@@ -4,6 +4,7 @@ import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.ClienteMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,7 +16,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +39,9 @@ class ClienteAdapterTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
+
     @InjectMocks
     private ClienteAdapter clienteAdapter;
 
@@ -73,7 +79,7 @@ class ClienteAdapterTest {
         when(passwordEncoder.encode(anyString())).thenReturn("senha_criptografada");
         when(clienteRepository.save(clienteEntity)).thenReturn(clienteEntity);
         when(clienteMapper.entityToDomain(clienteEntity)).thenReturn(cliente);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         Cliente resultado = clienteAdapter.cadastrarCliente(cliente);
 
@@ -82,7 +88,7 @@ class ClienteAdapterTest {
         assertEquals(cliente.getNome(), resultado.getNome());
         verify(clienteRepository, times(1)).save(clienteEntity);
         verify(passwordEncoder, times(1)).encode(anyString());
-        verify(emailService, times(1)).enviarEmail(eq("joao@email.com"), anyString(), anyString());
+        verify(emailService, times(1)).agendarEmail(eq("joao@email.com"), anyString(), anyString());
     }
 
     @Test
@@ -129,15 +135,32 @@ class ClienteAdapterTest {
         verify(clienteRepository, times(1)).existsById(999L);
     }
 
+    @Test
+    @DisplayName("Deve buscar de uma vez os IDs de clientes existentes")
+    void deveBuscarDeUmaVezIdsDeClientesExistentes() {
+        when(clienteRepository.findIdsExistentes(Set.of(1L, 2L))).thenReturn(List.of(1L));
+
+        var resultado = clienteAdapter.buscarIdsExistentes(Set.of(1L, 2L));
+
+        assertEquals(Set.of(1L), resultado);
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco quando nenhum ID de cliente for informado")
+    void naoDeveConsultarBancoQuandoNenhumIdDeClienteForInformado() {
+        assertTrue(clienteAdapter.buscarIdsExistentes(Set.of()).isEmpty());
+        verify(clienteRepository, never()).findIdsExistentes(anyCollection());
+    }
+
     @Test
     @DisplayName("Deve enviar email de recuperação de senha")
     void deveEnviarEmailRecuperacaoSenha() {
         String email = "joao@email.com";
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         clienteAdapter.esqueciMinhaSenha(email);
 
-        verify(emailService, times(1)).enviarEmail(eq(email), anyString(), contains(codigoRecuperacao));
+        verify(emailService, times(1)).agendarEmail(eq(email), anyString(), contains(codigoRecuperacao));
     }
 
     @Test
@@ -158,6 +181,7 @@ class ClienteAdapterTest {
         verify(passwordEncoder, times(1)).encode(novaSenha);
         verify(clienteRepository, times(1)).save(clienteEntity);
         assertEquals("nova_senha_criptografada", clienteEntity.getSenha());
+        verify(usuarioAutenticadoCacheService, times(1)).invalidar(email);
     }
 
     @Test
@@ -174,6 +198,7 @@ class ClienteAdapterTest {
         verify(clienteRepository, never()).findByEmailIgnoreCase(anyString());
         verify(passwordEncoder, never()).encode(anyString());
         verify(clienteRepository, never()).save(any(ClienteEntity.class));
+        verify(usuarioAutenticadoCacheService, never()).invalidar(anyString());
     }
 
     @Test
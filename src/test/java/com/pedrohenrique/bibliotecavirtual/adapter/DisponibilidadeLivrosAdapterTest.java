@@ -0,0 +1,143 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.DisponibilidadeLivroProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DisponibilidadeLivrosAdapterTest {
+
+    @Mock
+    private LivroRepository livroRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DisponibilidadeLivrosAdapter disponibilidadeLivrosAdapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        disponibilidadeLivrosAdapter = new DisponibilidadeLivrosAdapter(livroRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve recusar livros antes da carga inicial do mapa")
+    void naoDeveRecusarLivrosAntesDaCargaInicial() {
+        disponibilidadeLivrosAdapter.marcarIndisponiveis(List.of(1L));
+
+        assertFalse(disponibilidadeLivrosAdapter.carregado());
+        assertFalse(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L)));
+    }
+
+    @Test
+    @DisplayName("Deve carregar o mapa a partir do banco e indicar livros emprestados")
+    void deveCarregarMapaAPartirDoBanco() {
+        when(livroRepository.streamDisponibilidade()).thenReturn(Stream.of(projecao(1L, true), projecao(2L, false), projecao(3L, true)));
+
+        disponibilidadeLivrosAdapter.reconciliar();
+
+        assertTrue(disponibilidadeLivrosAdapter.carregado());
+        assertTrue(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L, 2L)));
+        assertFalse(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L, 3L)));
+        assertEquals(List.of(1L, 3L), disponibilidadeLivrosAdapter.idsDisponiveisAposId(null, 10));
+    }
+
+    @Test
+    @DisplayName("Não deve recusar livro que o mapa ainda não conhece")
+    void naoDeveRecusarLivroQueOMapaNaoConhece() {
+        when(livroRepository.streamDisponibilidade()).thenReturn(Stream.of(projecao(1L, true)));
+        disponibilidadeLivrosAdapter.reconciliar();
+
+        assertFalse(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(99L)));
+    }
+
+    @Test
+    @DisplayName("Deve refletir empréstimos, devoluções, cadastros e remoções")
+    void deveRefletirAlteracoesIncrementais() {
+        when(livroRepository.streamDisponibilidade()).thenReturn(Stream.of(projecao(1L, true), projecao(2L, true)));
+        disponibilidadeLivrosAdapter.reconciliar();
+
+        disponibilidadeLivrosAdapter.marcarIndisponiveis(List.of(1L));
+        assertTrue(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L)));
+
+        disponibilidadeLivrosAdapter.marcarDisponiveis(List.of(1L, 5L));
+        assertEquals(List.of(1L, 2L, 5L), disponibilidadeLivrosAdapter.idsDisponiveisAposId(null, 10));
+
+        disponibilidadeLivrosAdapter.remover(2L);
+        assertEquals(List.of(5L), disponibilidadeLivrosAdapter.idsDisponiveisAposId(1L, 10));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a alteração apenas após o commit da transação")
+    void deveAplicarAlteracaoApenasAposCommit() {
+        when(livroRepository.streamDisponibilidade()).thenReturn(Stream.of(projecao(1L, true)));
+        disponibilidadeLivrosAdapter.reconciliar();
+        TransactionSynchronizationManager.initSynchronization();
+
+        disponibilidadeLivrosAdapter.marcarIndisponiveis(List.of(1L));
+        assertFalse(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L)));
+    }
+
+    @Test
+    @DisplayName("Deve corrigir divergências com o banco e contabilizá-las na reconciliação")
+    void deveCorrigirDivergenciasNaReconciliacao() {
+        when(livroRepository.streamDisponibilidade())
+                .thenReturn(Stream.of(projecao(1L, true), projecao(2L, true)))
+                .thenReturn(Stream.of(projecao(1L, false), projecao(2L, true)));
+        disponibilidadeLivrosAdapter.reconciliar();
+
+        disponibilidadeLivrosAdapter.reconciliar();
+
+        assertTrue(disponibilidadeLivrosAdapter.possuiIndisponivel(List.of(1L)));
+        assertEquals(1.0, meterRegistry.get("biblioteca.livros.disponibilidade.divergencias").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite e o cursor na listagem de ids disponíveis")
+    void deveRespeitarLimiteECursorNaListagem() {
+        when(livroRepository.streamDisponibilidade()).thenReturn(Stream.of(projecao(1L, true), projecao(2L, true), projecao(3L, true), projecao(4L, false)));
+        disponibilidadeLivrosAdapter.reconciliar();
+
+        assertEquals(List.of(1L, 2L), disponibilidadeLivrosAdapter.idsDisponiveisAposId(null, 2));
+        assertEquals(List.of(3L), disponibilidadeLivrosAdapter.idsDisponiveisAposId(2L, 2));
+    }
+
+    private DisponibilidadeLivroProjection projecao(Long id, Boolean disponivel) {
+        return new DisponibilidadeLivroProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Boolean getDisponivel() {
+                return disponivel;
+            }
+        };
+    }
+}
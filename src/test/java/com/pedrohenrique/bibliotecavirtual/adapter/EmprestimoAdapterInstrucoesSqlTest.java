@@ -0,0 +1,123 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmprestimoRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
+import com.pedrohenrique.bibliotecavirtual.config.ContagemInstrucoesSql;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntityFixture.livro;
+import static com.pedrohenrique.bibliotecavirtual.config.InstrucoesSqlAssertions.assertMaximoInstrucoes;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+// Fixa quantas instrucoes SQL os fluxos de emprestimo podem executar, para um N+1 novo quebrar o build
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pedrohenrique.bibliotecavirtual.config.ContadorInstrucoesSql")
+@Import({EmprestimoAdapter.class, EmprestimoMapper.class})
+class EmprestimoAdapterInstrucoesSqlTest {
+
+    @Autowired
+    private EmprestimoAdapter emprestimoAdapter;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    private ClienteEntity cliente;
+    private List<LivroEntity> livros;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new ClienteEntity();
+        cliente.setNome("Maria");
+        cliente.setEmail("maria@email.com");
+        cliente.setSenha("senha");
+        cliente.setPerfil(Perfil.CLIENTE);
+        cliente = clienteRepository.saveAndFlush(cliente);
+        livros = livroRepository.saveAllAndFlush(IntStream.range(0, 6).mapToObj(i -> livro("Livro " + i)).toList());
+    }
+
+    @Test
+    @DisplayName("Deve listar o histórico de empréstimos com duas consultas independentemente da quantidade")
+    void deveListarHistoricoComDuasConsultas() {
+        for (int i = 0; i < 3; i++) {
+            criarEmprestimo(livros.get(2 * i), livros.get(2 * i + 1));
+        }
+
+        var emprestimos = new ArrayList<Emprestimo>();
+        assertMaximoInstrucoes(2, () -> emprestimos.addAll(emprestimoAdapter.visualizarTodosOsEmprestimos(cliente.getId(), null, 0, 20).getItens()));
+
+        assertEquals(3, emprestimos.size());
+        assertTrue(emprestimos.stream().allMatch(emprestimo -> emprestimo.getLivros().size() == 2));
+    }
+
+    @Test
+    @DisplayName("Deve gravar o empréstimo com uma única consulta de e-mail e uma de títulos para a confirmação")
+    void deveGravarEmprestimoComUmaConsultaDeEmailEUmaDeTitulos() {
+        var emprestimo = new Emprestimo();
+        emprestimo.setClienteId(cliente.getId());
+        emprestimo.setLivros(List.of(livros.get(0).getId(), livros.get(1).getId()));
+        emprestimo.setDataEmprestimo(LocalDate.now());
+        emprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
+        emprestimo.setAtivo(true);
+
+        var contagem = assertMaximoInstrucoes(7, () -> {
+            emprestimoAdapter.realizarEmprestimo(emprestimo);
+            emprestimoRepository.flush();
+        });
+
+        // As referencias usadas no insert nunca sao inicializadas: cliente e livro so aparecem nas projecoes do e-mail
+        assertEquals(1, contarConsultas(contagem, " from cliente "), contagem::toString);
+        assertEquals(1, contarConsultas(contagem, " from livro "), contagem::toString);
+        verify(emailService).agendarEmail(eq("maria@email.com"), anyString(), contains("Livro 0, Livro 1"));
+        assertTrue(contagem.contar("insert into livro_emprestimo") >= 1);
+        assertEquals(1, emprestimoRepository.count());
+    }
+
+    private int contarConsultas(ContagemInstrucoesSql contagem, String trecho) {
+        return contagem.getExecucoesPorInstrucao().entrySet().stream()
+                .filter(instrucao -> instrucao.getKey().contains(trecho))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+    private void criarEmprestimo(LivroEntity... livrosEmprestimo) {
+        var emprestimo = new EmprestimoEntity();
+        emprestimo.setClienteId(cliente);
+        emprestimo.setLivros(List.of(livrosEmprestimo));
+        emprestimo.setDataEmprestimo(LocalDate.now());
+        emprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
+        emprestimo.setAtivo(true);
+        emprestimoRepository.saveAndFlush(emprestimo);
+    }
+}
@@ -4,24 +4,38 @@ import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMappe
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.ClienteEmailProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoDevolucaoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoResumoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroDevolvidoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroEmprestimoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.LivroTituloProjection;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmprestimoRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoInvalidoException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +47,12 @@ class EmprestimoAdapterTest {
     @Mock
     private EmprestimoRepository emprestimoRepository;
 
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private LivroRepository livroRepository;
+
     @Mock
     private EmprestimoMapper emprestimoMapper;
 
@@ -40,7 +60,10 @@ class EmprestimoAdapterTest {
     private EmailService emailService;
 
     @Mock
-    private ClienteRepository clienteRepository;
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
 
     @InjectMocks
     private EmprestimoAdapter emprestimoAdapter;
@@ -49,7 +72,6 @@ class EmprestimoAdapterTest {
     private EmprestimoEntity emprestimoEntity;
     private ClienteEntity clienteEntity;
     private List<LivroEntity> livrosEntity;
-    private List<EmprestimoEntity> emprestimoEntityList;
 
     @BeforeEach
     void setUp() {
@@ -92,109 +114,125 @@ class EmprestimoAdapterTest {
         emprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
         emprestimo.setAtivo(false);
         emprestimo.setClienteId(1L);
-
-        // Configurar lista de empréstimos para o cliente
-        emprestimoEntityList = Collections.singletonList(emprestimoEntity);
+        emprestimo.setLivros(List.of(1L, 2L));
     }
 
     @Test
     @DisplayName("Deve realizar empréstimo com sucesso")
     void deveRealizarEmprestimoComSucesso() {
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
         when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        quandoBuscarEmailDoCliente();
+        quandoBuscarTitulos(Set.of(1L, 2L), tituloLivro(1L, "Dom Casmurro"), tituloLivro(2L, "Memórias Póstumas de Brás Cubas"));
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         Emprestimo resultado = emprestimoAdapter.realizarEmprestimo(emprestimo);
 
         assertNotNull(resultado);
         assertEquals(emprestimo.getId(), resultado.getId());
         verify(emprestimoRepository, times(1)).save(emprestimoEntity);
-        verify(emailService, times(1)).enviarEmail(
+        verify(emailService, times(1)).agendarEmail(
                 eq("joao@email.com"),
                 eq("Empréstimo confirmado com sucesso"),
                 contains("Dom Casmurro, Memórias Póstumas de Brás Cubas"));
     }
 
     @Test
-    @DisplayName("Deve visualizar todos os empréstimos do cliente")
-    void deveVisualizarTodosOsEmprestimosDoCliente() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteEntity));
-        when(emprestimoRepository.findAllEmprestimosByClienteId(clienteEntity)).thenReturn(emprestimoEntityList);
+    @DisplayName("Deve gravar empréstimos em lote com um único saveAll usando referências dos clientes")
+    void deveGravarEmprestimosEmLoteComUnicoSaveAll() {
+        var emprestimo2 = new Emprestimo();
+        emprestimo2.setClienteId(1L);
+        emprestimo2.setLivros(List.of(3L));
+        var emprestimoEntity2 = new EmprestimoEntity();
+        emprestimoEntity2.setId(2L);
+        emprestimoEntity2.setClienteId(clienteEntity);
+        emprestimoEntity2.setLivros(List.of());
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
+        when(emprestimoMapper.toEntity(eq(emprestimo2), any(), anyList())).thenReturn(emprestimoEntity2);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-
-        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L);
-
-        assertNotNull(resultados);
-        assertEquals(1, resultados.size());
-        assertEquals(emprestimo.getId(), resultados.get(0).getId());
-        verify(clienteRepository, times(1)).findById(1L);
-        verify(emprestimoRepository, times(1)).findAllEmprestimosByClienteId(clienteEntity);
-    }
-
-    @Test
-    @DisplayName("Deve retornar lista vazia quando cliente não tem empréstimos")
-    void deveRetornarListaVaziaQuandoClienteNaoTemEmprestimos() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteEntity));
-        when(emprestimoRepository.findAllEmprestimosByClienteId(clienteEntity)).thenReturn(Collections.emptyList());
-
-        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L);
-
-        assertNotNull(resultados);
-        assertTrue(resultados.isEmpty());
-        verify(clienteRepository, times(1)).findById(1L);
-        verify(emprestimoRepository, times(1)).findAllEmprestimosByClienteId(clienteEntity);
+        when(emprestimoMapper.entityToDomain(emprestimoEntity2)).thenReturn(emprestimo2);
+        quandoBuscarEmailDoCliente();
+        quandoBuscarTitulos(Set.of(1L, 2L, 3L), tituloLivro(1L, "Dom Casmurro"),
+                tituloLivro(2L, "Memórias Póstumas de Brás Cubas"), tituloLivro(3L, "Iracema"));
+
+        var resultado = emprestimoAdapter.realizarEmprestimos(List.of(emprestimo, emprestimo2));
+
+        assertEquals(List.of(emprestimo, emprestimo2), resultado);
+        verify(clienteRepository, times(2)).getReferenceById(1L);
+        verify(clienteRepository, never()).findAllById(any());
+        verify(emprestimoRepository, times(1)).saveAll(List.of(emprestimoEntity, emprestimoEntity2));
+        verify(emprestimoRepository, times(1)).flush();
+        verify(emprestimoRepository, never()).save(any(EmprestimoEntity.class));
+        verify(clienteRepository, times(1)).findEmailsByIdIn(Set.of(1L));
+        verify(livroRepository, times(1)).findTitulosByIdIn(Set.of(1L, 2L, 3L));
+        verify(emailService, times(1)).agendarEmail(eq("joao@email.com"), eq("Empréstimo confirmado com sucesso"),
+                eq("Parabéns pelo empréstimo dos seguintes livros: Dom Casmurro, Memórias Póstumas de Brás Cubas"));
+        verify(emailService, times(1)).agendarEmail(eq("joao@email.com"), eq("Empréstimo confirmado com sucesso"),
+                eq("Parabéns pelo empréstimo dos seguintes livros: Iracema"));
     }
 
     @Test
-    @DisplayName("Deve retornar lista vazia quando cliente não existe")
-    void deveRetornarListaVaziaQuandoClienteNaoExiste() {
-        when(clienteRepository.findById(999L)).thenReturn(Optional.empty());
+    @DisplayName("Deve montar o empréstimo com referências de cliente e livros sem consultá-los")
+    void deveMontarEmprestimoComReferenciasDeClienteELivrosSemConsulta() {
+        when(clienteRepository.getReferenceById(1L)).thenReturn(clienteEntity);
+        when(livroRepository.getReferenceById(1L)).thenReturn(livrosEntity.get(0));
+        when(livroRepository.getReferenceById(2L)).thenReturn(livrosEntity.get(1));
+        when(emprestimoMapper.toEntity(emprestimo, clienteEntity, livrosEntity)).thenReturn(emprestimoEntity);
+        when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
+        quandoBuscarEmailDoCliente();
+        quandoBuscarTitulos(Set.of(1L, 2L), tituloLivro(1L, "Dom Casmurro"), tituloLivro(2L, "Memórias Póstumas de Brás Cubas"));
 
-        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(999L);
+        emprestimoAdapter.realizarEmprestimo(emprestimo);
 
-        assertNotNull(resultados);
-        assertTrue(resultados.isEmpty());
-        verify(clienteRepository, times(1)).findById(999L);
-        verify(emprestimoRepository, never()).findAllEmprestimosByClienteId(any(ClienteEntity.class));
+        verify(emprestimoMapper, times(1)).toEntity(emprestimo, clienteEntity, livrosEntity);
+        verify(clienteRepository, never()).findById(anyLong());
+        verify(livroRepository, never()).findById(anyLong());
+        verify(livroRepository, never()).findAllByIdIn(anyList());
     }
 
     @Test
     @DisplayName("Deve lidar com empréstimo sem livros")
     void deveLidarComEmprestimoSemLivros() {
+        emprestimo.setLivros(null);
         emprestimoEntity.setLivros(null);
+        quandoBuscarEmailDoCliente();
 
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
         when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         Emprestimo resultado = emprestimoAdapter.realizarEmprestimo(emprestimo);
 
         assertNotNull(resultado);
-        verify(emailService, times(1)).enviarEmail(
+        verify(emailService, times(1)).agendarEmail(
                 eq("joao@email.com"),
                 eq("Empréstimo confirmado com sucesso"),
                 eq("Parabéns pelo empréstimo dos seguintes livros: "));
+        verify(livroRepository, never()).findTitulosByIdIn(any());
     }
 
     @Test
     @DisplayName("Deve lidar com empréstimo com lista vazia de livros")
     void deveLidarComEmprestimoComListaVaziaDeLivros() {
+        emprestimo.setLivros(Collections.emptyList());
         emprestimoEntity.setLivros(Collections.emptyList());
+        quandoBuscarEmailDoCliente();
 
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
         when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         Emprestimo resultado = emprestimoAdapter.realizarEmprestimo(emprestimo);
 
         assertNotNull(resultado);
-        verify(emailService, times(1)).enviarEmail(
+        verify(emailService, times(1)).agendarEmail(
                 eq("joao@email.com"),
                 eq("Empréstimo confirmado com sucesso"),
                 eq("Parabéns pelo empréstimo dos seguintes livros: "));
+        verify(livroRepository, never()).findTitulosByIdIn(any());
     }
 
     @Test
@@ -203,20 +241,18 @@ class EmprestimoAdapterTest {
         ReflectionTestUtils.setField(emprestimoAdapter, "mensagemEmprestimoDevolucaoEmail",
                 "Obrigado pela devolução dos seguintes livros: %s");
 
-        emprestimo.setAtivo(false);
-        emprestimoEntity.setAtivo(false);
-
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
-        when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
-        when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        when(emprestimoRepository.encerrarEmprestimo(1L, emprestimo.getDataDevolucao())).thenReturn(1);
+        when(emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(Set.of(1L)))
+                .thenReturn(List.of(livroDevolvido(1L, 1L, "Dom Casmurro"), livroDevolvido(1L, 2L, "Memórias Póstumas de Brás Cubas")));
+        when(clienteRepository.findAllById(Set.of(1L))).thenReturn(List.of(clienteEntity));
 
         Emprestimo resultado = emprestimoAdapter.realizarDevolucaoEmprestimo(emprestimo);
 
-        assertNotNull(resultado);
-        assertEquals(emprestimo.getId(), resultado.getId());
-        verify(emprestimoRepository, times(1)).save(emprestimoEntity);
-        verify(emailService, times(1)).enviarEmail(
+        assertSame(emprestimo, resultado);
+        verify(emprestimoRepository, never()).save(any());
+        verify(emprestimoRepository, never()).getReferenceById(any());
+        verifyNoInteractions(emprestimoMapper);
+        verify(emailService, times(1)).agendarEmail(
                 eq("joao@email.com"),
                 eq("Devolução empréstimo"),
                 contains("Dom Casmurro, Memórias Póstumas de Brás Cubas"));
@@ -228,24 +264,57 @@ class EmprestimoAdapterTest {
         ReflectionTestUtils.setField(emprestimoAdapter, "mensagemEmprestimoDevolucaoEmail",
                 "Obrigado pela devolução dos seguintes livros: %s");
 
-        emprestimo.setAtivo(false);
-        emprestimoEntity.setAtivo(false);
-        emprestimoEntity.setLivros(null);
-
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
-        when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
-        when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        when(emprestimoRepository.encerrarEmprestimo(1L, emprestimo.getDataDevolucao())).thenReturn(1);
+        when(emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(Set.of(1L))).thenReturn(List.of());
+        when(clienteRepository.findAllById(Set.of(1L))).thenReturn(List.of(clienteEntity));
 
         Emprestimo resultado = emprestimoAdapter.realizarDevolucaoEmprestimo(emprestimo);
 
         assertNotNull(resultado);
-        verify(emailService, times(1)).enviarEmail(
+        verify(emailService, times(1)).agendarEmail(
                 eq("joao@email.com"),
                 eq("Devolução empréstimo"),
                 eq("Obrigado pela devolução dos seguintes livros: "));
     }
 
+    @Test
+    @DisplayName("Deve lançar exceção sem enviar email quando o empréstimo já tiver sido devolvido")
+    void deveLancarExcecaoSemEnviarEmailQuandoEmprestimoJaTiverSidoDevolvido() {
+        ReflectionTestUtils.setField(emprestimoAdapter, "mensagemErroEmprestimoJaDevolvido", "Este empréstimo já foi devolvido");
+        when(emprestimoRepository.encerrarEmprestimo(1L, emprestimo.getDataDevolucao())).thenReturn(0);
+
+        var exception = assertThrows(EmprestimoInvalidoException.class, () -> emprestimoAdapter.realizarDevolucaoEmprestimo(emprestimo));
+
+        assertEquals("Este empréstimo já foi devolvido", exception.getMessage());
+        verifyNoInteractions(emailService, clienteRepository);
+    }
+
+    @Test
+    @DisplayName("Deve montar o empréstimo da devolução a partir de uma única consulta com os ids dos livros")
+    void deveMontarEmprestimoDaDevolucaoComUmaUnicaConsulta() {
+        var linhas = List.of(linhaDevolucao(1L), linhaDevolucao(2L));
+        when(emprestimoRepository.findDevolucaoById(1L)).thenReturn(linhas);
+        when(emprestimoMapper.resumoToDomain(linhas.get(0), List.of(1L, 2L))).thenReturn(emprestimo);
+
+        var resultado = emprestimoAdapter.buscarEmprestimoParaDevolucao(1L);
+
+        assertTrue(resultado.isPresent());
+        assertSame(emprestimo, resultado.get());
+        verify(emprestimoRepository, times(1)).findDevolucaoById(1L);
+        verifyNoMoreInteractions(emprestimoRepository);
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio quando o empréstimo da devolução não existir")
+    void deveRetornarVazioQuandoEmprestimoDaDevolucaoNaoExistir() {
+        when(emprestimoRepository.findDevolucaoById(999L)).thenReturn(List.of());
+
+        assertTrue(emprestimoAdapter.buscarEmprestimoParaDevolucao(999L).isEmpty());
+        assertTrue(emprestimoAdapter.buscarEmprestimoParaDevolucao(null).isEmpty());
+        verifyNoInteractions(emprestimoMapper);
+    }
+
     @Test
     @DisplayName("Deve verificar se empréstimo existe por ID - retorna true")
     void deveVerificarSeEmprestimoExistePorIdRetornaTrue() {
@@ -271,56 +340,34 @@ class EmprestimoAdapterTest {
     @Test
     @DisplayName("Deve extrair corretamente os títulos dos livros concatenados")
     void deveExtrairCorretamenteTitulosDoLivrosConcatenados() {
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
+        quandoBuscarEmailDoCliente();
+        quandoBuscarTitulos(Set.of(1L, 2L), tituloLivro(1L, "Dom Casmurro"), tituloLivro(2L, "Memórias Póstumas de Brás Cubas"));
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
         when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         emprestimoAdapter.realizarEmprestimo(emprestimo);
 
-        verify(emailService).enviarEmail(
+        verify(emailService).agendarEmail(
                 anyString(),
                 anyString(),
                 eq("Parabéns pelo empréstimo dos seguintes livros: Dom Casmurro, Memórias Póstumas de Brás Cubas"));
     }
 
-    @Test
-    @DisplayName("Deve visualizar múltiplos empréstimos do cliente")
-    void deveVisualizarMultiplosEmprestimosDoCliente() {
-        EmprestimoEntity emprestimoEntity2 = new EmprestimoEntity();
-        emprestimoEntity2.setId(2L);
-        emprestimoEntity2.setClienteId(clienteEntity);
-
-        Emprestimo emprestimo2 = new Emprestimo();
-        emprestimo2.setId(2L);
-
-        List<EmprestimoEntity> multiplosEmprestimos = Arrays.asList(emprestimoEntity, emprestimoEntity2);
-
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteEntity));
-        when(emprestimoRepository.findAllEmprestimosByClienteId(clienteEntity)).thenReturn(multiplosEmprestimos);
-        when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        when(emprestimoMapper.entityToDomain(emprestimoEntity2)).thenReturn(emprestimo2);
-
-        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L);
-
-        assertNotNull(resultados);
-        assertEquals(2, resultados.size());
-        assertEquals(1L, resultados.get(0).getId());
-        assertEquals(2L, resultados.get(1).getId());
-        verify(emprestimoMapper, times(2)).entityToDomain(any(EmprestimoEntity.class));
-    }
-
     @Test
     @DisplayName("Deve enviar email com formato correto ao realizar empréstimo")
     void deveEnviarEmailComFormatoCorretoAoRealizarEmprestimo() {
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
+        quandoBuscarEmailDoCliente();
+        quandoBuscarTitulos(Set.of(1L, 2L), tituloLivro(1L, "Dom Casmurro"), tituloLivro(2L, "Memórias Póstumas de Brás Cubas"));
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
         when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         emprestimoAdapter.realizarEmprestimo(emprestimo);
 
-        verify(emailService).enviarEmail(
+        verify(emailService).agendarEmail(
                 eq("joao@email.com"),
                 eq("Empréstimo confirmado com sucesso"),
                 argThat(mensagem ->
@@ -334,14 +381,14 @@ class EmprestimoAdapterTest {
         ReflectionTestUtils.setField(emprestimoAdapter, "mensagemEmprestimoDevolucaoEmail",
                 "Obrigado pela devolução dos seguintes livros: %s");
 
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
-        when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
-        when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        when(emprestimoRepository.encerrarEmprestimo(1L, emprestimo.getDataDevolucao())).thenReturn(1);
+        when(emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(Set.of(1L)))
+                .thenReturn(List.of(livroDevolvido(1L, 1L, "Dom Casmurro"), livroDevolvido(1L, 2L, "Memórias Póstumas de Brás Cubas")));
+        when(clienteRepository.findAllById(Set.of(1L))).thenReturn(List.of(clienteEntity));
 
         emprestimoAdapter.realizarDevolucaoEmprestimo(emprestimo);
 
-        verify(emailService).enviarEmail(
+        verify(emailService).agendarEmail(
                 eq("joao@email.com"),
                 eq("Devolução empréstimo"),
                 argThat(mensagem ->
@@ -353,35 +400,313 @@ class EmprestimoAdapterTest {
     @Test
     @DisplayName("Deve lidar com empréstimo com um único livro")
     void deveLidarComEmprestimoComUmUnicoLivro() {
+        emprestimo.setLivros(List.of(1L));
+        quandoBuscarEmailDoCliente();
+        quandoBuscarTitulos(Set.of(1L), tituloLivro(1L, "1984"));
         LivroEntity livroUnico = new LivroEntity();
         livroUnico.setId(1L);
         livroUnico.setTitulo("1984");
         emprestimoEntity.setLivros(Collections.singletonList(livroUnico));
 
-        when(emprestimoMapper.toEntity(emprestimo)).thenReturn(emprestimoEntity);
+        when(emprestimoMapper.toEntity(eq(emprestimo), any(), anyList())).thenReturn(emprestimoEntity);
         when(emprestimoRepository.save(emprestimoEntity)).thenReturn(emprestimoEntity);
         when(emprestimoMapper.entityToDomain(emprestimoEntity)).thenReturn(emprestimo);
-        doNothing().when(emailService).enviarEmail(anyString(), anyString(), anyString());
+        doNothing().when(emailService).agendarEmail(anyString(), anyString(), anyString());
 
         emprestimoAdapter.realizarEmprestimo(emprestimo);
 
-        verify(emailService).enviarEmail(
+        verify(emailService).agendarEmail(
                 anyString(),
                 anyString(),
                 eq("Parabéns pelo empréstimo dos seguintes livros: 1984"));
     }
 
     @Test
-    @DisplayName("Deve retornar lista vazia corretamente quando buscar empréstimos de cliente sem empréstimos")
-    void deveRetornarListaVaziaCorretamenteQuandoBuscarEmprestimosDeClienteSemEmprestimos() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteEntity));
-        when(emprestimoRepository.findAllEmprestimosByClienteId(clienteEntity)).thenReturn(Collections.emptyList());
+    @DisplayName("Deve visualizar empréstimos do cliente com os livros de cada empréstimo")
+    void deveVisualizarEmprestimosDoClienteComLivrosDeCadaEmprestimo() {
+        EmprestimoResumoProjection resumo1 = resumo(1L);
+        EmprestimoResumoProjection resumo2 = resumo(2L);
+        Emprestimo emprestimo2 = new Emprestimo();
+        emprestimo2.setId(2L);
+
+        when(emprestimoRepository.findResumosByClienteId(1L, null, PageRequest.of(0, 20))).thenReturn(new SliceImpl<>(List.of(resumo1, resumo2), PageRequest.of(0, 20), true));
+        when(emprestimoRepository.findLivrosByEmprestimoIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(livroEmprestimo(1L, 1L), livroEmprestimo(1L, 2L), livroEmprestimo(2L, 3L)));
+        when(emprestimoMapper.resumoToDomain(resumo1, List.of(1L, 2L))).thenReturn(emprestimo);
+        when(emprestimoMapper.resumoToDomain(resumo2, List.of(3L))).thenReturn(emprestimo2);
+
+        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L, null, 0, 20).getItens();
+
+        assertEquals(2, resultados.size());
+        assertEquals(1L, resultados.get(0).getId());
+        assertEquals(2L, resultados.get(1).getId());
+        verify(emprestimoRepository, times(1)).findLivrosByEmprestimoIdIn(List.of(1L, 2L));
+        verify(emprestimoRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve repassar filtro de ativo e paginação para a consulta de empréstimos")
+    void deveRepassarFiltroDeAtivoEPaginacaoParaConsultaDeEmprestimos() {
+        EmprestimoResumoProjection resumo1 = resumo(1L);
+
+        when(emprestimoRepository.findResumosByClienteId(1L, true, PageRequest.of(2, 5))).thenReturn(new SliceImpl<>(List.of(resumo1), PageRequest.of(2, 5), false));
+        when(emprestimoRepository.findLivrosByEmprestimoIdIn(List.of(1L))).thenReturn(List.of(livroEmprestimo(1L, 1L)));
+        when(emprestimoMapper.resumoToDomain(resumo1, List.of(1L))).thenReturn(emprestimo);
 
-        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L);
+        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L, true, 2, 5).getItens();
 
+        assertEquals(1, resultados.size());
+        verify(emprestimoRepository, times(1)).findResumosByClienteId(1L, true, PageRequest.of(2, 5));
+    }
+
+    @Test
+    @DisplayName("Deve informar a próxima página quando houver mais empréstimos que o tamanho pedido")
+    void deveInformarProximaPaginaQuandoHouverMaisEmprestimos() {
+        EmprestimoResumoProjection resumo1 = resumo(1L);
+
+        when(emprestimoRepository.findResumosByClienteId(1L, null, PageRequest.of(3, 1))).thenReturn(new SliceImpl<>(List.of(resumo1), PageRequest.of(3, 1), true));
+        when(emprestimoRepository.findLivrosByEmprestimoIdIn(List.of(1L))).thenReturn(List.of(livroEmprestimo(1L, 1L)));
+        when(emprestimoMapper.resumoToDomain(resumo1, List.of(1L))).thenReturn(emprestimo);
+
+        Pagina<Emprestimo> resultado = emprestimoAdapter.visualizarTodosOsEmprestimos(1L, null, 3, 1);
+
+        assertTrue(resultado.isPossuiProximaPagina());
+        assertEquals(4, resultado.getProximaPagina());
+    }
+
+    @Test
+    @DisplayName("Deve retornar empréstimo sem livros quando não houver registros na tabela de junção")
+    void deveRetornarEmprestimoSemLivrosQuandoNaoHouverRegistrosNaTabelaDeJuncao() {
+        EmprestimoResumoProjection resumo1 = resumo(1L);
+
+        when(emprestimoRepository.findResumosByClienteId(1L, null, PageRequest.of(0, 20))).thenReturn(new SliceImpl<>(List.of(resumo1)));
+        when(emprestimoRepository.findLivrosByEmprestimoIdIn(List.of(1L))).thenReturn(Collections.emptyList());
+        when(emprestimoMapper.resumoToDomain(resumo1, List.of())).thenReturn(emprestimo);
+
+        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(1L, null, 0, 20).getItens();
+
+        assertEquals(1, resultados.size());
+        verify(emprestimoMapper, times(1)).resumoToDomain(resumo1, List.of());
+    }
+
+    @Test
+    @DisplayName("Deve retornar lista vazia sem consultar livros quando cliente não tem empréstimos")
+    void deveRetornarListaVaziaSemConsultarLivrosQuandoClienteNaoTemEmprestimos() {
+        when(emprestimoRepository.findResumosByClienteId(999L, null, PageRequest.of(0, 20))).thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        List<Emprestimo> resultados = emprestimoAdapter.visualizarTodosOsEmprestimos(999L, null, 0, 20).getItens();
+
+        assertNotNull(resultados);
         assertTrue(resultados.isEmpty());
-        assertEquals(0, resultados.size());
+        verify(emprestimoRepository, never()).findLivrosByEmprestimoIdIn(anyCollection());
+        verify(emprestimoMapper, never()).resumoToDomain(any(), anyList());
     }
-}
 
+    @Test
+    @DisplayName("Deve devolver em lote pelos empréstimos e enviar um único email por cliente")
+    void deveDevolverEmLotePorEmprestimosEEnviarUmEmailPorCliente() {
+        ReflectionTestUtils.setField(emprestimoAdapter, "mensagemEmprestimoDevolucaoEmail",
+                "Obrigado pela devolução dos seguintes livros: %s");
+        var hoje = LocalDate.now();
+        quandoEncerrarEmprestimos(new Object[]{1L, 1L}, new Object[]{2L, 1L});
+        when(emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(Set.of(1L, 2L)))
+                .thenReturn(List.of(livroDevolvido(1L, 1L, "Dom Casmurro"), livroDevolvido(2L, 2L, "Memórias Póstumas de Brás Cubas")));
+        when(clienteRepository.findAllById(Set.of(1L))).thenReturn(List.of(clienteEntity));
+
+        var resultado = emprestimoAdapter.devolverEmprestimos(List.of(1L, 2L, 3L), hoje);
+
+        assertEquals(List.of(1L, 2L), resultado.getEmprestimosDevolvidos());
+        assertEquals(List.of(1L, 2L), resultado.getLivrosDevolvidos());
+        assertEquals(List.of(3L), resultado.getNaoEncontrados());
+        assertTrue(resultado.getEmprestimosIncompletos().isEmpty());
+        verify(emailService, times(1)).agendarEmail(
+                eq("joao@email.com"),
+                eq("Devolução empréstimo"),
+                eq("Obrigado pela devolução dos seguintes livros: Dom Casmurro, Memórias Póstumas de Brás Cubas"));
+        verify(query, times(1)).setParameter("ids", List.of(1L, 2L, 3L));
+        verify(query, times(1)).setParameter("dataDevolucao", hoje);
+        InOrder ordem = inOrder(entityManager, query);
+        ordem.verify(entityManager).flush();
+        ordem.verify(query).getResultList();
+        ordem.verify(entityManager).clear();
+        verify(emprestimoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver em lote pelos livros separando empréstimos incompletos e livros sem empréstimo ativo")
+    void deveDevolverEmLotePorLivrosSeparandoIncompletosENaoEncontrados() {
+        ReflectionTestUtils.setField(emprestimoAdapter, "mensagemEmprestimoDevolucaoEmail",
+                "Obrigado pela devolução dos seguintes livros: %s");
+        var hoje = LocalDate.now();
+        var idsLivros = List.of(1L, 20L, 30L);
+        quandoEncerrarEmprestimos(new Object[]{1L, 1L});
+        when(emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(Set.of(1L)))
+                .thenReturn(List.of(livroDevolvido(1L, 1L, "Dom Casmurro")));
+        when(clienteRepository.findAllById(Set.of(1L))).thenReturn(List.of(clienteEntity));
+        when(emprestimoRepository.findEmprestimosAtivosByLivroIdIn(idsLivros)).thenReturn(List.of(livroEmprestimo(5L, 20L)));
+
+        var resultado = emprestimoAdapter.devolverEmprestimosPorLivros(idsLivros, hoje);
+
+        assertEquals(List.of(1L), resultado.getEmprestimosDevolvidos());
+        assertEquals(List.of(1L), resultado.getLivrosDevolvidos());
+        assertEquals(List.of(5L), resultado.getEmprestimosIncompletos());
+        assertEquals(List.of(30L), resultado.getNaoEncontrados());
+        verify(emailService, times(1)).agendarEmail(eq("joao@email.com"), eq("Devolução empréstimo"), anyString());
+    }
+
+    @Test
+    @DisplayName("Não deve consultar livros nem enviar email quando nenhum empréstimo do lote for devolvido")
+    void naoDeveConsultarLivrosNemEnviarEmailQuandoNenhumEmprestimoForDevolvido() {
+        var hoje = LocalDate.now();
+        quandoEncerrarEmprestimos();
+
+        var resultado = emprestimoAdapter.devolverEmprestimos(List.of(7L), hoje);
+
+        assertTrue(resultado.getEmprestimosDevolvidos().isEmpty());
+        assertEquals(List.of(7L), resultado.getNaoEncontrados());
+        verify(emprestimoRepository, never()).findLivrosDevolvidosByEmprestimoIdIn(anyCollection());
+        verifyNoInteractions(clienteRepository, emailService);
+    }
+
+    private EmprestimoDevolucaoProjection linhaDevolucao(Long livroId) {
+        return new EmprestimoDevolucaoProjection() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getClienteId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDate getDataEmprestimo() {
+                return LocalDate.now();
+            }
+
+            @Override
+            public LocalDate getDataDevolucao() {
+                return LocalDate.now().plusDays(7);
+            }
+
+            @Override
+            public Boolean getAtivo() {
+                return true;
+            }
+
+            @Override
+            public Long getLivroId() {
+                return livroId;
+            }
+        };
+    }
 
+    private void quandoBuscarEmailDoCliente() {
+        when(clienteRepository.findEmailsByIdIn(Set.of(1L))).thenReturn(List.of(new ClienteEmailProjection() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getEmail() {
+                return "joao@email.com";
+            }
+        }));
+    }
+
+    private void quandoBuscarTitulos(Set<Long> idsLivros, LivroTituloProjection... titulos) {
+        when(livroRepository.findTitulosByIdIn(idsLivros)).thenReturn(List.of(titulos));
+    }
+
+    private LivroTituloProjection tituloLivro(Long id, String titulo) {
+        return new LivroTituloProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitulo() {
+                return titulo;
+            }
+        };
+    }
+
+    private void quandoEncerrarEmprestimos(Object[]... linhas) {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(linhas));
+    }
+
+
+            @Override
+            public Long getClienteId() {
+                return clienteId;
+            }
+        };
+    }
+
+    private LivroDevolvidoProjection livroDevolvido(Long emprestimoId, Long livroId, String titulo) {
+        return new LivroDevolvidoProjection() {
+            @Override
+            public Long getEmprestimoId() {
+                return emprestimoId;
+            }
+
+            @Override
+            public Long getLivroId() {
+                return livroId;
+            }
+
+            @Override
+            public String getTitulo() {
+                return titulo;
+            }
+        };
+    }
+
+    private EmprestimoResumoProjection resumo(Long id) {
+        return new EmprestimoResumoProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getClienteId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDate getDataEmprestimo() {
+                return LocalDate.now();
+            }
+
+            @Override
+            public LocalDate getDataDevolucao() {
+                return LocalDate.now().plusDays(7);
+            }
+
+            @Override
+            public Boolean getAtivo() {
+                return true;
+            }
+        };
+    }
+
+    private LivroEmprestimoProjection livroEmprestimo(Long emprestimoId, Long livroId) {
+        return new LivroEmprestimoProjection() {
+            @Override
+            public Long getEmprestimoId() {
+                return emprestimoId;
+            }
+
+            @Override
+            public Long getLivroId() {
+                return livroId;
+            }
+        };
+    }
+}
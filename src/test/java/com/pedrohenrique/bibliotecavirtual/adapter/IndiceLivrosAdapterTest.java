@@ -0,0 +1,172 @@
+package com.pedrohenrique.bibliotecavirtual.adapter;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceLivrosAdapterTest {
+
+    @Mock
+    private LivroOutputPort livroOutputPort;
+
+    private IndiceLivrosAdapter indiceLivrosAdapter;
+
+    private Livro livro;
+    private Livro livro2;
+
+    @BeforeEach
+    void setUp() {
+        indiceLivrosAdapter = new IndiceLivrosAdapter(livroOutputPort, true);
+
+        livro = new Livro();
+        livro.setId(1L);
+        livro.setTitulo("Dom Casmurro");
+        livro.setAutor("Machado de Assis");
+        livro.setEditora("Editora ABC");
+
+        livro2 = new Livro();
+        livro2.setId(2L);
+        livro2.setTitulo("Quincas Borba");
+        livro2.setAutor("Machado de Assis");
+        livro2.setEditora("Editora ABC");
+    }
+
+    @Test
+    @DisplayName("Deve construir o índice a partir da leitura em streaming do catálogo")
+    @SuppressWarnings("unchecked")
+    void deveConstruirIndiceAPartirDaLeituraDoCatalogo() {
+        doAnswer(invocation -> {
+            Consumer<Livro> consumidor = invocation.getArgument(0);
+            List.of(livro, livro2).forEach(consumidor);
+            return null;
+        }).when(livroOutputPort).exportarLivros(any(Consumer.class));
+        assertFalse(indiceLivrosAdapter.ativo());
+
+        indiceLivrosAdapter.construirIndice();
+
+        assertTrue(indiceLivrosAdapter.ativo());
+        assertEquals(List.of(1L, 2L), indiceLivrosAdapter.buscar("machado", 0, 20));
+    }
+
+    @Test
+    @DisplayName("Não deve ler o catálogo nem ficar ativo quando o índice estiver desabilitado")
+    @SuppressWarnings("unchecked")
+    void naoDeveLerCatalogoQuandoIndiceEstiverDesabilitado() {
+        var adapterDesabilitado = new IndiceLivrosAdapter(livroOutputPort, false);
+
+        adapterDesabilitado.construirIndice();
+        adapterDesabilitado.indexar(livro);
+
+        assertFalse(adapterDesabilitado.ativo());
+        assertTrue(adapterDesabilitado.buscar("casmurro", 0, 20).isEmpty());
+        verify(livroOutputPort, never()).exportarLivros(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Deve incluir livros gravados fora da aplicação ao reconstruir o índice")
+    @SuppressWarnings("unchecked")
+    void deveIncluirLivrosGravadosForaDaAplicacaoAoReconstruirIndice() {
+        indiceLivrosAdapter.indexar(livro);
+        doAnswer(invocation -> {
+            Consumer<Livro> consumidor = invocation.getArgument(0);
+            List.of(livro, livro2).forEach(consumidor);
+            return null;
+        }).when(livroOutputPort).exportarLivros(any(Consumer.class));
+
+        indiceLivrosAdapter.reconstruir();
+
+        assertTrue(indiceLivrosAdapter.ativo());
+        assertEquals(List.of(1L, 2L), indiceLivrosAdapter.buscar("machado", 0, 20));
+    }
+
+    @Test
+    @DisplayName("Deve descartar ao reconstruir os livros que não estão mais no catálogo")
+    @SuppressWarnings("unchecked")
+    void deveDescartarAoReconstruirLivrosQueNaoEstaoMaisNoCatalogo() {
+        indiceLivrosAdapter.indexar(livro);
+        indiceLivrosAdapter.indexar(livro2);
+        doAnswer(invocation -> {
+            Consumer<Livro> consumidor = invocation.getArgument(0);
+            consumidor.accept(livro2);
+            return null;
+        }).when(livroOutputPort).exportarLivros(any(Consumer.class));
+
+        indiceLivrosAdapter.reconstruir();
+
+        assertTrue(indiceLivrosAdapter.buscar("casmurro", 0, 20).isEmpty());
+        assertEquals(List.of(2L), indiceLivrosAdapter.buscar("machado", 0, 20));
+    }
+
+    @Test
+    @DisplayName("Deve manter no índice reconstruído os cadastros e remoções feitos durante a leitura do catálogo")
+    @SuppressWarnings("unchecked")
+    void deveManterAlteracoesFeitasDuranteLeituraDoCatalogo() {
+        var livro3 = new Livro();
+        livro3.setId(3L);
+        livro3.setTitulo("Helena");
+        livro3.setAutor("Machado de Assis");
+        doAnswer(invocation -> {
+            Consumer<Livro> consumidor = invocation.getArgument(0);
+            consumidor.accept(livro);
+            indiceLivrosAdapter.indexar(livro3);
+            indiceLivrosAdapter.remover(2L);
+            consumidor.accept(livro2);
+            return null;
+        }).when(livroOutputPort).exportarLivros(any(Consumer.class));
+
+        indiceLivrosAdapter.construirIndice();
+
+        assertEquals(List.of(1L, 3L), indiceLivrosAdapter.buscar("machado", 0, 20));
+    }
+
+    @Test
+    @DisplayName("Deve construir o índice da subida fora da thread que publica o evento")
+    @SuppressWarnings("unchecked")
+    void deveConstruirIndiceDaSubidaForaDaThreadDoEvento() throws Exception {
+        var threadDaConstrucao = new CompletableFuture<Thread>();
+        doAnswer(invocation -> {
+            threadDaConstrucao.complete(Thread.currentThread());
+            return null;
+        }).when(livroOutputPort).exportarLivros(any(Consumer.class));
+
+        indiceLivrosAdapter.iniciarConstrucao();
+
+        assertNotSame(Thread.currentThread(), threadDaConstrucao.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve refletir cadastros e remoções incrementais")
+    void deveRefletirCadastrosERemocoesIncrementais() {
+        indiceLivrosAdapter.indexar(livro);
+        indiceLivrosAdapter.indexar(livro2);
+
+        indiceLivrosAdapter.remover(1L);
+
+        assertEquals(List.of(2L), indiceLivrosAdapter.buscar("machado", 0, 20));
+    }
+
+    @Test
+    @DisplayName("Deve paginar os ids encontrados")
+    void devePaginarIdsEncontrados() {
+        indiceLivrosAdapter.indexar(livro);
+        indiceLivrosAdapter.indexar(livro2);
+
+        assertEquals(List.of(2L), indiceLivrosAdapter.buscar("machado", 1, 1));
+        assertTrue(indiceLivrosAdapter.buscar("machado", 5, 1).isEmpty());
+    }
+}
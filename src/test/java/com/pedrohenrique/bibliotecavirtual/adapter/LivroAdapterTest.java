@@ -5,18 +5,26 @@ import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +40,9 @@ class LivroAdapterTest {
     @Mock
     private LivroMapper livroMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private LivroAdapter livroAdapter;
 
@@ -124,6 +135,58 @@ class LivroAdapterTest {
         verify(livroRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Deve buscar livros após o ID informado respeitando o limite")
+    void deveBuscarLivrosAposIdInformadoRespeitandoLimite() {
+        when(livroRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 10))).thenReturn(List.of(livrosEntity.get(1)));
+        when(livroMapper.entityToDomain(livrosEntity.get(1))).thenReturn(livros.get(1));
+
+        List<Livro> resultado = livroAdapter.visualizarLivrosAposId(1L, 10);
+
+        assertEquals(1, resultado.size());
+        assertEquals(2L, resultado.get(0).getId());
+        verify(livroRepository, times(1)).findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 10));
+    }
+
+    @Test
+    @DisplayName("Deve buscar primeira página quando cursor for nulo")
+    void deveBuscarPrimeiraPaginaQuandoCursorForNulo() {
+        when(livroRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10))).thenReturn(livrosEntity);
+        when(livroMapper.entityToDomain(any(LivroEntity.class))).thenReturn(livro);
+
+        List<Livro> resultado = livroAdapter.visualizarLivrosAposId(null, 10);
+
+        assertEquals(2, resultado.size());
+        verify(livroRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10));
+    }
+
+    @Test
+    @DisplayName("Deve exportar livros em streaming desanexando cada entidade")
+    void deveExportarLivrosEmStreamingDesanexandoCadaEntidade() {
+        when(livroRepository.streamAllByOrderByIdAsc()).thenReturn(livrosEntity.stream());
+        when(livroMapper.entityToDomain(livrosEntity.get(0))).thenReturn(livros.get(0));
+        when(livroMapper.entityToDomain(livrosEntity.get(1))).thenReturn(livros.get(1));
+        List<Livro> exportados = new ArrayList<>();
+
+        livroAdapter.exportarLivros(exportados::add);
+
+        assertEquals(livros, exportados);
+        verify(entityManager, times(1)).detach(livrosEntity.get(0));
+        verify(entityManager, times(1)).detach(livrosEntity.get(1));
+    }
+
+    @Test
+    @DisplayName("Deve não exportar nada quando não houver livros cadastrados")
+    void deveNaoExportarNadaQuandoNaoHouverLivrosCadastrados() {
+        when(livroRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.empty());
+        List<Livro> exportados = new ArrayList<>();
+
+        livroAdapter.exportarLivros(exportados::add);
+
+        assertTrue(exportados.isEmpty());
+        verify(entityManager, never()).detach(any());
+    }
+
     @Test
     @DisplayName("Deve buscar livro por ID existente")
     void deveBuscarLivroPorIdExistente() {
@@ -150,6 +213,54 @@ class LivroAdapterTest {
         verify(livroRepository, times(1)).findById(999L);
     }
 
+    @Test
+    @DisplayName("Deve buscar vários livros por ID em uma única consulta")
+    void deveBuscarVariosLivrosPorIdEmUmaUnicaConsulta() {
+        when(livroRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(livrosEntity);
+        when(livroMapper.entityToDomain(livrosEntity.get(0))).thenReturn(livros.get(0));
+        when(livroMapper.entityToDomain(livrosEntity.get(1))).thenReturn(livros.get(1));
+
+        List<Livro> resultado = livroAdapter.findAllByIdIn(List.of(1L, 2L));
+
+        assertEquals(livros, resultado);
+        verify(livroRepository, times(1)).findAllByIdIn(List.of(1L, 2L));
+        verify(livroRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve devolver os IDs dos livros disponíveis travados para reserva")
+    void deveDevolverIdsDosLivrosDisponiveisTravados() {
+        var livroTravado = new LivroEntity();
+        livroTravado.setId(2L);
+        when(livroRepository.travarLivrosDisponiveis(List.of(1L, 2L))).thenReturn(List.of(livroTravado));
+
+        var travados = livroAdapter.travarLivrosDisponiveis(List.of(1L, 2L));
+
+        assertEquals(Set.of(2L), travados);
+    }
+
+    @Test
+    @DisplayName("Deve reservar livros retornando a quantidade de linhas afetadas")
+    void deveReservarLivrosRetornandoQuantidadeDeLinhasAfetadas() {
+        when(livroRepository.reservarLivros(List.of(1L, 2L))).thenReturn(1);
+
+        int reservados = livroAdapter.reservarLivros(List.of(1L, 2L));
+
+        assertEquals(1, reservados);
+        verify(livroRepository, times(1)).reservarLivros(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Deve liberar livros retornando a quantidade de linhas afetadas")
+    void deveLiberarLivrosRetornandoQuantidadeDeLinhasAfetadas() {
+        when(livroRepository.liberarLivros(List.of(1L, 2L))).thenReturn(2);
+
+        int liberados = livroAdapter.liberarLivros(List.of(1L, 2L));
+
+        assertEquals(2, liberados);
+        verify(livroRepository, times(1)).liberarLivros(List.of(1L, 2L));
+    }
+
     @Test
     @DisplayName("Deve remover livro com sucesso")
     void deveRemoverLivroComSucesso() {
@@ -216,4 +327,80 @@ class LivroAdapterTest {
         assertTrue(exception.getMessage().contains("Livro não encontrado"));
         verify(livroRepository, times(1)).findById(999L);
     }
+
+    @Test
+    @DisplayName("Deve buscar livros transformando cada palavra do termo em prefixo")
+    void deveBuscarLivrosTransformandoCadaPalavraDoTermoEmPrefixo() {
+        when(livroRepository.buscarPorTexto("dom:* & casm:*", "Dom, Casm!", PageRequest.of(1, 10))).thenReturn(List.of(livroEntity));
+        when(livroMapper.entityToDomain(livroEntity)).thenReturn(livro);
+
+        List<Livro> resultado = livroAdapter.buscarLivros(" Dom, Casm! ", 1, 10);
+
+        assertEquals(1, resultado.size());
+        assertEquals("Dom Casmurro", resultado.get(0).getTitulo());
+        verify(livroRepository, times(1)).buscarPorTexto("dom:* & casm:*", "Dom, Casm!", PageRequest.of(1, 10));
+    }
+
+    @Test
+    @DisplayName("Deve retornar lista vazia sem consultar o banco quando o termo não tiver letras nem números")
+    void deveRetornarListaVaziaSemConsultarBancoQuandoTermoNaoTiverLetrasNemNumeros() {
+        List<Livro> resultado = livroAdapter.buscarLivros("&|!:*", 0, 10);
+
+        assertTrue(resultado.isEmpty());
+        verify(livroRepository, never()).buscarPorTexto(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar livros em lote sem popular o cache de segundo nível")
+    void deveCadastrarLivrosEmLoteSemPopularCache() {
+        Session session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(livroMapper.toEntity(livro)).thenReturn(livroEntity);
+        when(livroRepository.saveAll(List.of(livroEntity))).thenReturn(List.of(livroEntity));
+        when(livroMapper.entityToDomain(livroEntity)).thenReturn(livro);
+
+        List<Livro> resultado = livroAdapter.cadastrarLivros(List.of(livro));
+
+        assertEquals(List.of(livro), resultado);
+        InOrder ordem = inOrder(session, livroRepository);
+        ordem.verify(session).setCacheMode(CacheMode.IGNORE);
+        ordem.verify(livroRepository).saveAll(List.of(livroEntity));
+        ordem.verify(session).setCacheMode(CacheMode.NORMAL);
+        verify(entityManager, times(1)).flush();
+        verify(entityManager, times(1)).detach(livroEntity);
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    @DisplayName("Deve restaurar o modo de cache da sessão quando o cadastro em lote falhar")
+    void deveRestaurarModoDeCacheQuandoCadastroEmLoteFalhar() {
+        Session session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(livroMapper.toEntity(livro)).thenReturn(livroEntity);
+        when(livroRepository.saveAll(List.of(livroEntity))).thenThrow(new IllegalStateException("falha no banco"));
+
+        assertThrows(IllegalStateException.class, () -> livroAdapter.cadastrarLivros(List.of(livro)));
+
+        verify(session, times(1)).setCacheMode(CacheMode.NORMAL);
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    @DisplayName("Deve buscar em uma consulta os títulos já cadastrados")
+    void deveBuscarTitulosJaCadastrados() {
+        when(livroRepository.findTitulosExistentes(Set.of("DOM CASMURRO", "HELENA"))).thenReturn(List.of("DOM CASMURRO"));
+
+        Set<String> resultado = livroAdapter.buscarTitulosExistentes(Set.of("DOM CASMURRO", "HELENA"));
+
+        assertEquals(Set.of("DOM CASMURRO"), resultado);
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco quando não houver títulos para verificar")
+    void naoDeveConsultarBancoQuandoNaoHouverTitulos() {
+        assertTrue(livroAdapter.buscarTitulosExistentes(Set.of()).isEmpty());
+        verify(livroRepository, never()).findTitulosExistentes(any());
+    }
 }
@@ -4,9 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.controller.exceptions.GlobalExceptionHandler;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LoginRequestDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.AdministradorEntity;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.TokenService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticacaoService;
 import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,10 +51,7 @@ class AdministradorControllerTest {
     private TokenService tokenService;
 
     @MockBean
-    ClienteRepository clienteRepository;
-
-    @MockBean
-    AdministradorRepository administradorRepository;
+    UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
 
     private AdministradorEntity administradorEntity;
     private LoginRequestDTO loginRequestDTO;
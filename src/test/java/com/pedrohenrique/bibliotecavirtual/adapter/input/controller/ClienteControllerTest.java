@@ -4,16 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.controller.exceptions.GlobalExceptionHandler;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.*;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ClienteResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.DevolucaoLoteResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.EmprestimoLoteResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.EmprestimoResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ItemEmprestimoLoteResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.ClienteMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.TokenService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticacaoService;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.ClienteUseCase;
@@ -77,10 +82,7 @@ class ClienteControllerTest {
     private UsuarioAutenticacaoService usuarioAutenticacaoService;
 
     @MockBean
-    ClienteRepository clienteRepository;
-
-    @MockBean
-    AdministradorRepository administradorRepository;
+    UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
 
     private ClienteEntity clienteEntity;
     private LoginRequestDTO loginRequestDTO;
@@ -227,14 +229,14 @@ class ClienteControllerTest {
         Long idCliente = 1L;
         List<Emprestimo> emprestimos = Collections.singletonList(emprestimoMock);
 
-        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente)).thenReturn(emprestimos);
+        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente, null, null, null)).thenReturn(new Pagina<>(emprestimos, 0, 20, false));
         when(emprestimoMapper.toResponse(any(Emprestimo.class))).thenReturn(emprestimoResponseDTO);
 
         mockMvc.perform(get("/clientes/emprestimos/{idCliente}", idCliente)
                         .with(csrf()))
                 .andExpect(status().isOk());
 
-        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente);
+        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente, null, null, null);
         verify(emprestimoMapper, times(1)).toResponse(any(Emprestimo.class));
     }
 
@@ -244,14 +246,15 @@ class ClienteControllerTest {
     void deveRetornarListaVaziaQuandoClienteNaoPossuiEmprestimos() throws Exception {
         Long idCliente = 1L;
 
-        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente)).thenReturn(Collections.emptyList());
+        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente, null, null, null)).thenReturn(new Pagina<>(Collections.emptyList(), 0, 20, false));
 
         mockMvc.perform(get("/clientes/emprestimos/{idCliente}", idCliente)
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$.emprestimos", hasSize(0)))
+                .andExpect(jsonPath("$.possuiProximaPagina").value(false));
 
-        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente);
+        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente, null, null, null);
     }
 
     @Test
@@ -266,7 +269,7 @@ class ClienteControllerTest {
         List<Emprestimo> emprestimos = Arrays.asList(emprestimoMock, emprestimo2);
         EmprestimoResponseDTO emprestimoResponseDTO2 = new EmprestimoResponseDTO(2L, 1L, List.of(3L), LocalDate.now(), LocalDate.now().plusDays(10), true);
 
-        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente)).thenReturn(emprestimos);
+        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente, null, null, null)).thenReturn(new Pagina<>(emprestimos, 0, 20, false));
         when(emprestimoMapper.toResponse(emprestimoMock)).thenReturn(emprestimoResponseDTO);
         when(emprestimoMapper.toResponse(emprestimo2)).thenReturn(emprestimoResponseDTO2);
 
@@ -274,10 +277,34 @@ class ClienteControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk());
 
-        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente);
+        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente, null, null, null);
         verify(emprestimoMapper, times(2)).toResponse(any(Emprestimo.class));
     }
 
+    @Test
+    @WithMockUser(roles = "CLIENTE")
+    @DisplayName("Deve repassar filtro de ativo e paginação ao visualizar empréstimos")
+    void deveRepassarFiltroDeAtivoEPaginacaoAoVisualizarEmprestimos() throws Exception {
+        Long idCliente = 1L;
+
+        when(clienteUseCase.visualizarTodosOsEmprestimos(idCliente, true, 2, 5)).thenReturn(new Pagina<>(Collections.singletonList(emprestimoMock), 2, 5, true));
+        when(emprestimoMapper.toResponse(emprestimoMock)).thenReturn(emprestimoResponseDTO);
+
+        mockMvc.perform(get("/clientes/emprestimos/{idCliente}", idCliente)
+                        .param("ativo", "true")
+                        .param("pagina", "2")
+                        .param("tamanho", "5")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emprestimos", hasSize(1)))
+                .andExpect(jsonPath("$.pagina").value(2))
+                .andExpect(jsonPath("$.tamanho").value(5))
+                .andExpect(jsonPath("$.proximaPagina").value(3))
+                .andExpect(jsonPath("$.possuiProximaPagina").value(true));
+
+        verify(clienteUseCase, times(1)).visualizarTodosOsEmprestimos(idCliente, true, 2, 5);
+    }
+
     @Test
     @WithMockUser(roles = "CLIENTE")
     @DisplayName("Deve realizar empréstimo com sucesso")
@@ -332,6 +359,52 @@ class ClienteControllerTest {
         verify(clienteUseCase, times(1)).realizarEmprestimo(any(Emprestimo.class));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Deve realizar empréstimos em lote informando o resultado de cada item")
+    void deveRealizarEmprestimosEmLoteInformandoResultadoDeCadaItem() throws Exception {
+        var itens = List.of(new ItemEmprestimoLote(0, emprestimoMock), new ItemEmprestimoLote(1, null));
+        itens.get(1).recusar("O emprestimo nao pode ser nulo, tente novamente!");
+        when(emprestimoMapper.toDomain(any(EmprestimoLoteRequestDTO.class))).thenReturn(Arrays.asList(emprestimoMock, null));
+        when(clienteUseCase.realizarEmprestimosEmLote(anyList())).thenReturn(itens);
+        when(emprestimoMapper.toLoteResponse(itens)).thenReturn(new EmprestimoLoteResponseDTO(1, 1, List.of(
+                new ItemEmprestimoLoteResponseDTO(0, true, emprestimoResponseDTO, null),
+                new ItemEmprestimoLoteResponseDTO(1, false, null, "O emprestimo nao pode ser nulo, tente novamente!"))));
+
+        mockMvc.perform(post("/clientes/emprestimos/lote")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmprestimoLoteRequestDTO(Arrays.asList(emprestimoRequestDTO, null)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.realizados").value(1))
+                .andExpect(jsonPath("$.itens", hasSize(2)))
+                .andExpect(jsonPath("$.itens[1].realizado").value(false));
+
+        verify(clienteUseCase, times(1)).realizarEmprestimosEmLote(anyList());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Deve realizar devoluções em lote informando empréstimos devolvidos, incompletos e não encontrados")
+    void deveRealizarDevolucoesEmLote() throws Exception {
+        var resultado = new ResultadoDevolucaoLote(List.of(1L), List.of(10L, 11L), List.of(2L), List.of(30L));
+        when(clienteUseCase.realizarDevolucoesEmLote(null, List.of(10L, 11L, 12L, 30L))).thenReturn(resultado);
+        when(emprestimoMapper.toDevolucaoLoteResponse(resultado))
+                .thenReturn(new DevolucaoLoteResponseDTO(List.of(1L), List.of(10L, 11L), List.of(2L), List.of(30L)));
+
+        mockMvc.perform(patch("/clientes/emprestimos/devolucao/lote")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DevolucaoLoteRequestDTO(null, List.of(10L, 11L, 12L, 30L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emprestimosDevolvidos[0]").value(1))
+                .andExpect(jsonPath("$.livrosDevolvidos", hasSize(2)))
+                .andExpect(jsonPath("$.emprestimosIncompletos[0]").value(2))
+                .andExpect(jsonPath("$.naoEncontrados[0]").value(30));
+
+        verify(clienteUseCase, times(1)).realizarDevolucoesEmLote(null, List.of(10L, 11L, 12L, 30L));
+    }
+
     @Test
     @DisplayName("Deve enviar email de recuperação de senha com sucesso")
     void deveEnviarEmailRecuperacaoSenhaComSucesso() throws Exception {
@@ -3,13 +3,21 @@ package com.pedrohenrique.bibliotecavirtual.adapter.input.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.controller.exceptions.GlobalExceptionHandler;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LivroRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.CargaLivrosResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ErroImportacaoLivroResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.ImportacaoLivrosResponseDTO;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.LivroResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.CursorMapper;
 import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapper;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
-import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.TokenService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.PaginaCursor;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoCargaLivros;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoImportacaoLivros;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.CursorInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.LivroUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,17 +30,24 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -54,13 +69,13 @@ class LivroControllerTest {
     private LivroUseCase livroUseCase;
 
     @MockBean
-    private TokenService tokenService;
+    private CursorMapper cursorMapper;
 
     @MockBean
-    ClienteRepository clienteRepository;
+    private TokenService tokenService;
 
     @MockBean
-    AdministradorRepository administradorRepository;
+    UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
 
     private LivroRequestDTO livroRequestDTO;
     private Livro livroMock;
@@ -182,6 +197,120 @@ class LivroControllerTest {
         verify(livroMapper, never()).toResponse(any(Livro.class));
     }
 
+    @Test
+    @DisplayName("Deve retornar página de livros com o próximo cursor")
+    void deveRetornarPaginaDeLivrosComProximoCursor() throws Exception {
+        when(cursorMapper.decodificar("aWQ6MA")).thenReturn(0L);
+        when(livroUseCase.visualizarLivrosPaginados(0L, 2)).thenReturn(new PaginaCursor<>(livrosMock, 2L));
+        when(livroMapper.toResponse(livrosMock.get(0))).thenReturn(livrosResponseDTO.get(0));
+        when(livroMapper.toResponse(livrosMock.get(1))).thenReturn(livrosResponseDTO.get(1));
+        when(cursorMapper.codificar(2L)).thenReturn("aWQ6Mg");
+
+        mockMvc.perform(get("/livros/paginado")
+                        .param("cursor", "aWQ6MA")
+                        .param("tamanho", "2")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livros").isArray())
+                .andExpect(jsonPath("$.livros.length()").value(2))
+                .andExpect(jsonPath("$.proximoCursor").value("aWQ6Mg"))
+                .andExpect(jsonPath("$.possuiProximaPagina").value(true));
+
+        verify(livroUseCase, times(1)).visualizarLivrosPaginados(0L, 2);
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENTE")
+    @DisplayName("Deve listar apenas livros disponíveis quando solicitado")
+    void deveListarApenasLivrosDisponiveisQuandoSolicitado() throws Exception {
+        when(livroUseCase.visualizarLivrosDisponiveisPaginados(null, 2)).thenReturn(new PaginaCursor<>(livrosMock, null));
+        when(livroMapper.toResponse(livrosMock.get(0))).thenReturn(livrosResponseDTO.get(0));
+        when(livroMapper.toResponse(livrosMock.get(1))).thenReturn(livrosResponseDTO.get(1));
+
+        mockMvc.perform(get("/livros/paginado")
+                        .param("tamanho", "2")
+                        .param("disponiveis", "true")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livros.length()").value(2));
+
+        verify(livroUseCase, times(1)).visualizarLivrosDisponiveisPaginados(null, 2);
+        verify(livroUseCase, never()).visualizarLivrosPaginados(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar bad request quando o cursor for inválido")
+    void deveRetornarBadRequestQuandoCursorForInvalido() throws Exception {
+        when(cursorMapper.decodificar("invalido")).thenThrow(new CursorInvalidoException("Cursor de paginacao invalido"));
+
+        mockMvc.perform(get("/livros/paginado")
+                        .param("cursor", "invalido")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginacao invalido"));
+
+        verify(livroUseCase, never()).visualizarLivrosPaginados(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENTE")
+    @DisplayName("Deve pesquisar livros pelo termo informado")
+    void devePesquisarLivrosPeloTermoInformado() throws Exception {
+        when(livroUseCase.buscarLivros("machado", 1, 10)).thenReturn(livrosMock);
+        when(livroMapper.toResponse(livrosMock.get(0))).thenReturn(livrosResponseDTO.get(0));
+        when(livroMapper.toResponse(livrosMock.get(1))).thenReturn(livrosResponseDTO.get(1));
+
+        mockMvc.perform(get("/livros/busca")
+                        .param("termo", "machado")
+                        .param("pagina", "1")
+                        .param("tamanho", "10")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].titulo").value("Dom Casmurro"));
+
+        verify(livroUseCase, times(1)).buscarLivros("machado", 1, 10);
+    }
+
+    @Test
+    @DisplayName("Deve retornar bad request quando o termo de busca for inválido")
+    void deveRetornarBadRequestQuandoTermoDeBuscaForInvalido() throws Exception {
+        when(livroUseCase.buscarLivros("a", null, null)).thenThrow(new BusinessException("O termo de busca deve ter ao menos 2 caracteres"));
+
+        mockMvc.perform(get("/livros/busca")
+                        .param("termo", "a")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve exportar o catálogo no formato NDJSON")
+    @SuppressWarnings("unchecked")
+    void deveExportarCatalogoNoFormatoNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Livro> consumidor = invocation.getArgument(0);
+            livrosMock.forEach(consumidor);
+            return null;
+        }).when(livroUseCase).exportarCatalogo(any(Consumer.class));
+        when(livroMapper.toResponse(livrosMock.get(0))).thenReturn(livrosResponseDTO.get(0));
+        when(livroMapper.toResponse(livrosMock.get(1))).thenReturn(livrosResponseDTO.get(1));
+
+        MvcResult resultado = mockMvc.perform(get("/livros/exportar")
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String esperado = objectMapper.writeValueAsString(livrosResponseDTO.get(0)) + "\n"
+                + objectMapper.writeValueAsString(livrosResponseDTO.get(1)) + "\n";
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(esperado));
+
+        verify(livroUseCase, times(1)).exportarCatalogo(any(Consumer.class));
+    }
+
     @Test
     @DisplayName("Deve retornar livro quando buscar por ID existente")
     void deveRetornarLivroQuandoBuscarPorIdExistente() throws Exception {
@@ -374,5 +503,75 @@ class LivroControllerTest {
 
         verify(livroUseCase, times(1)).visualizarTodosOsLivros();
     }
-}
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Deve importar livros a partir de um CSV enviado em streaming")
+    void deveImportarLivrosAPartirDeCsv() throws Exception {
+        var resultado = new ResultadoImportacaoLivros(10);
+        List<LinhaImportacaoLivro> linhasLidas = new ArrayList<>();
+        when(livroUseCase.importarLivros(any())).thenAnswer(invocation -> {
+            Iterator<LinhaImportacaoLivro> linhas = invocation.getArgument(0);
+            linhas.forEachRemaining(linhasLidas::add);
+            return resultado;
+        });
+        when(livroMapper.toImportacaoResponse(resultado)).thenReturn(new ImportacaoLivrosResponseDTO(2, 1, 1,
+                List.of(new ErroImportacaoLivroResponseDTO(3, null, "Linha com 1 colunas, esperado 4"))));
+
+        mockMvc.perform(post("/livros/importar")
+                        .contentType("text/csv")
+                        .content("titulo,autor,editora,anoPublicacao\nDom Casmurro,Machado de Assis,Editora ABC,1899\nQuebrada\n")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(3));
+
+        assertEquals(2, linhasLidas.size());
+        assertEquals("Dom Casmurro", linhasLidas.get(0).getLivro().getTitulo());
+        assertTrue(linhasLidas.get(1).possuiErro());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Deve importar livros a partir de um array JSON")
+    void deveImportarLivrosAPartirDeArrayJson() throws Exception {
+        var resultado = new ResultadoImportacaoLivros(10);
+        List<LinhaImportacaoLivro> linhasLidas = new ArrayList<>();
+        when(livroMapper.toDomain(any(LivroRequestDTO.class))).thenReturn(livroMock);
+        when(livroUseCase.importarLivros(any())).thenAnswer(invocation -> {
+            Iterator<LinhaImportacaoLivro> linhas = invocation.getArgument(0);
+            linhas.forEachRemaining(linhasLidas::add);
+            return resultado;
+        });
+        when(livroMapper.toImportacaoResponse(resultado)).thenReturn(new ImportacaoLivrosResponseDTO(1, 1, 0, List.of()));
+
+        mockMvc.perform(post("/livros/importar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(livroRequestDTO)))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(1));
+
+        assertEquals(1, linhasLidas.size());
+        assertSame(livroMock, linhasLidas.get(0).getLivro());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Deve carregar o catálogo via COPY e devolver a vazão da carga")
+    void deveCarregarCatalogoViaCopy() throws Exception {
+        var resultado = new ResultadoCargaLivros(3, 2, 1, 0, 10);
+        when(livroUseCase.carregarCatalogo(any())).thenReturn(resultado);
+        when(livroMapper.toCargaResponse(resultado)).thenReturn(new CargaLivrosResponseDTO(3L, 2L, 1L, 0L, 10L, 300L));
+
+        mockMvc.perform(post("/livros/carga")
+                        .contentType("text/csv")
+                        .content("titulo,autor,editora,anoPublicacao\nDom Casmurro,Machado de Assis,Editora ABC,1899\n")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(2))
+                .andExpect(jsonPath("$.linhasPorSegundo").value(300));
+
+        verify(livroUseCase, times(1)).carregarCatalogo(any());
+    }
+}
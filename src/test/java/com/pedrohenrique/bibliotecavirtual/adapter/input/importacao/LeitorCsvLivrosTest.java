@@ -0,0 +1,67 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.importacao;
+
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorCsvLivrosTest {
+
+    @Test
+    @DisplayName("Deve converter as linhas do CSV ignorando o cabeçalho e linhas em branco")
+    void deveConverterLinhasIgnorandoCabecalhoELinhasEmBranco() {
+        var linhas = ler("""
+                titulo,autor,editora,anoPublicacao
+                Dom Casmurro,Machado de Assis,Editora ABC,1899
+
+                "Vidas Secas, edição especial",Graciliano Ramos,"Editora ""Nova""",
+                """);
+
+        assertEquals(2, linhas.size());
+        assertEquals(2, linhas.get(0).getNumero());
+        assertEquals("Dom Casmurro", linhas.get(0).getLivro().getTitulo());
+        assertEquals(1899, linhas.get(0).getLivro().getAnoPublicacao());
+        assertEquals(4, linhas.get(1).getNumero());
+        assertEquals("Vidas Secas, edição especial", linhas.get(1).getLivro().getTitulo());
+        assertEquals("Editora \"Nova\"", linhas.get(1).getLivro().getEditora());
+        assertNull(linhas.get(1).getLivro().getAnoPublicacao());
+    }
+
+    @Test
+    @DisplayName("Deve marcar como inválidas as linhas malformadas sem interromper a leitura")
+    void deveMarcarLinhasMalformadasSemInterromperLeitura() {
+        var linhas = ler("""
+                titulo,autor,editora,anoPublicacao
+                Só o título
+                Iracema,José de Alencar,Editora XYZ,mil oitocentos
+                "Aspas abertas,Autor,Editora,2000
+                Helena,Machado de Assis,Editora ABC,1876
+                """);
+
+        assertEquals(4, linhas.size());
+        assertTrue(linhas.get(0).possuiErro());
+        assertTrue(linhas.get(1).possuiErro());
+        assertTrue(linhas.get(2).possuiErro());
+        assertFalse(linhas.get(3).possuiErro());
+        assertEquals("Helena", linhas.get(3).getLivro().getTitulo());
+    }
+
+    @Test
+    @DisplayName("Não deve produzir linhas para um arquivo vazio")
+    void naoDeveProduzirLinhasParaArquivoVazio() {
+        assertTrue(ler("").isEmpty());
+    }
+
+    private List<LinhaImportacaoLivro> ler(String conteudo) {
+        var leitor = new LeitorCsvLivros(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+        var linhas = new ArrayList<LinhaImportacaoLivro>();
+        leitor.forEachRemaining(linhas::add);
+        return linhas;
+    }
+}
@@ -0,0 +1,84 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.input.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LivroRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.LivroMapper;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeitorJsonLivrosTest {
+
+    @Mock
+    private LivroMapper livroMapper;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Deve ler cada elemento do array como uma linha da importação")
+    void deveLerCadaElementoDoArrayComoUmaLinha() {
+        when(livroMapper.toDomain(any(LivroRequestDTO.class))).thenAnswer(invocation -> {
+            LivroRequestDTO dto = invocation.getArgument(0);
+            var livro = new Livro();
+            livro.setTitulo(dto.titulo());
+            return livro;
+        });
+
+        var linhas = ler("""
+                [{"titulo": "Dom Casmurro", "autor": "Machado de Assis", "editora": "Editora ABC", "anoPublicacao": 1899},
+                 {"titulo": "Iracema", "autor": "José de Alencar", "editora": "Editora XYZ", "anoPublicacao": "abc"},
+                 {"titulo": "Helena", "autor": "Machado de Assis", "editora": "Editora ABC", "anoPublicacao": 1876}]
+                """);
+
+        assertEquals(3, linhas.size());
+        assertEquals("Dom Casmurro", linhas.get(0).getLivro().getTitulo());
+        assertTrue(linhas.get(1).possuiErro());
+        assertEquals(2, linhas.get(1).getNumero());
+        assertEquals("Helena", linhas.get(2).getLivro().getTitulo());
+        assertEquals(3, linhas.get(2).getNumero());
+    }
+
+    @Test
+    @DisplayName("Deve interromper a leitura e registrar erro quando o JSON estiver quebrado")
+    void deveInterromperLeituraQuandoJsonEstiverQuebrado() {
+        var linhas = ler("[{\"titulo\": \"Dom Casmurro\", ");
+
+        assertEquals(1, linhas.size());
+        assertTrue(linhas.get(0).possuiErro());
+        verify(livroMapper, never()).toDomain(any(LivroRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar corpo que não seja um array JSON")
+    void deveRecusarCorpoQueNaoSejaArray() {
+        assertThrows(LivroInvalidoException.class, () -> ler("{\"titulo\": \"Dom Casmurro\"}"));
+    }
+
+    private List<LinhaImportacaoLivro> ler(String conteudo) {
+        var leitor = new LeitorJsonLivros(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), objectMapper, livroMapper);
+        var linhas = new ArrayList<LinhaImportacaoLivro>();
+        leitor.forEachRemaining(linhas::add);
+        return linhas;
+    }
+}
@@ -0,0 +1,27 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.entity;
+
+public final class LivroEntityFixture {
+
+    private LivroEntityFixture() {
+    }
+
+    public static LivroEntity livro(String titulo) {
+        return livro(titulo, "Autor", "Editora");
+    }
+
+    public static LivroEntity livro(String titulo, String autor, String editora) {
+        var livro = new LivroEntity();
+        livro.setTitulo(titulo);
+        livro.setAutor(autor);
+        livro.setEditora(editora);
+        livro.setAnoPublicacao(2000);
+        livro.setDisponivel(true);
+        return livro;
+    }
+
+    public static LivroEntity livroEmprestado(String titulo) {
+        var livro = livro(titulo);
+        livro.setDisponivel(false);
+        return livro;
+    }
+}
@@ -0,0 +1,85 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.indice;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceInvertidoLivrosTest {
+
+    private IndiceInvertidoLivros indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceInvertidoLivros();
+        indice.indexar(1L, "Dom Casmurro", "Machado de Assis", "Editora ABC");
+        indice.indexar(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", "Editora ABC");
+        indice.indexar(3L, "Iracema", "José de Alencar", "Editora XYZ");
+    }
+
+    @Test
+    @DisplayName("Deve encontrar livros por prefixo de palavra")
+    void deveEncontrarLivrosPorPrefixoDePalavra() {
+        assertArrayEquals(new long[]{1L, 2L}, indice.buscar("mach"));
+        assertArrayEquals(new long[]{3L}, indice.buscar("ira"));
+    }
+
+    @Test
+    @DisplayName("Deve combinar as palavras da consulta com AND")
+    void deveCombinarPalavrasDaConsultaComAnd() {
+        assertArrayEquals(new long[]{1L}, indice.buscar("dom casm"));
+        assertArrayEquals(new long[]{2L}, indice.buscar("machado brás"));
+        assertEquals(0, indice.buscar("iracema machado").length);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar acentos e caixa na consulta e no texto indexado")
+    void deveIgnorarAcentosECaixa() {
+        assertArrayEquals(new long[]{2L}, indice.buscar("MEMORIAS postumas"));
+        assertArrayEquals(new long[]{3L}, indice.buscar("josé"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio para termo sem letras ou números")
+    void deveRetornarVazioParaTermoSemLetrasOuNumeros() {
+        assertEquals(0, indice.buscar("  -- ").length);
+    }
+
+    @Test
+    @DisplayName("Deve remover livro do índice e descartar termos sem livros")
+    void deveRemoverLivroDoIndiceEDescartarTermosSemLivros() {
+        var termosAntes = indice.quantidadeTermos();
+
+        indice.remover(3L);
+
+        assertEquals(0, indice.buscar("iracema").length);
+        assertEquals(2, indice.quantidadeLivros());
+        assertTrue(indice.quantidadeTermos() < termosAntes);
+    }
+
+    @Test
+    @DisplayName("Deve substituir os termos ao reindexar um livro existente")
+    void deveSubstituirTermosAoReindexarLivroExistente() {
+        indice.indexar(1L, "Quincas Borba", "Machado de Assis", "Editora ABC");
+
+        assertEquals(0, indice.buscar("casmurro").length);
+        assertArrayEquals(new long[]{1L}, indice.buscar("quincas"));
+        assertEquals(3, indice.quantidadeLivros());
+    }
+
+    @Test
+    @DisplayName("Deve manter a lista de ids ordenada quando livros chegam fora de ordem")
+    void deveManterListaOrdenadaQuandoLivrosChegamForaDeOrdem() {
+        indice.indexar(10L, "Helena", "Machado de Assis", null);
+        indice.indexar(5L, "Ressurreição", "Machado de Assis", null);
+
+        assertArrayEquals(new long[]{1L, 2L, 5L, 10L}, indice.buscar("machado"));
+    }
+
+    @Test
+    @DisplayName("Deve intersectar listas ordenadas de ids")
+    void deveIntersectarListasOrdenadas() {
+        assertArrayEquals(new long[]{3L, 7L}, IndiceInvertidoLivros.intersectar(new long[]{1L, 3L, 5L, 7L}, new long[]{2L, 3L, 7L, 9L}));
+    }
+}
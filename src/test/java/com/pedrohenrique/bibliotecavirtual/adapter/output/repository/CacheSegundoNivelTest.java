@@ -0,0 +1,129 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem transacao no teste cada chamada ao repositorio usa um EntityManager novo, como acontece entre requisicoes
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void limpar() {
+        livroRepository.deleteAll();
+        clienteRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Deve servir a segunda leitura do livro por ID a partir do cache")
+    void deveServirSegundaLeituraDoLivroPorIdDoCache() {
+        var idLivro = salvarLivro().getId();
+        entityManagerFactory.getCache().evictAll();
+        estatisticas().clear();
+
+        livroRepository.findById(idLivro);
+        livroRepository.findById(idLivro);
+
+        assertEquals(1, estatisticas().getSecondLevelCacheMissCount());
+        assertEquals(1, estatisticas().getSecondLevelCacheHitCount());
+        assertEquals(1, estatisticas().getDomainDataRegionStatistics("livro").getHitCount());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o livro em cache quando a disponibilidade mudar por update em massa")
+    void deveInvalidarLivroEmCacheQuandoDisponibilidadeMudar() {
+        var idLivro = salvarLivro().getId();
+        livroRepository.findById(idLivro);
+        assertTrue(entityManagerFactory.getCache().contains(LivroEntity.class, idLivro));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                livroRepository.reservarLivros(List.of(idLivro)));
+
+        assertFalse(entityManagerFactory.getCache().contains(LivroEntity.class, idLivro));
+        assertFalse(livroRepository.findById(idLivro).orElseThrow().getDisponivel());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                livroRepository.liberarLivros(List.of(idLivro)));
+
+        assertTrue(livroRepository.findById(idLivro).orElseThrow().getDisponivel());
+    }
+
+    @Test
+    @DisplayName("Deve remover o livro do cache ao excluí-lo")
+    void deveRemoverLivroDoCacheAoExcluir() {
+        var idLivro = salvarLivro().getId();
+        livroRepository.findById(idLivro);
+
+        livroRepository.deleteById(idLivro);
+
+        assertFalse(entityManagerFactory.getCache().contains(LivroEntity.class, idLivro));
+        assertTrue(livroRepository.findById(idLivro).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve servir a segunda leitura do cliente por ID a partir do cache")
+    void deveServirSegundaLeituraDoClientePorIdDoCache() {
+        var cliente = new ClienteEntity();
+        cliente.setNome("Cliente Teste");
+        cliente.setEmail("cliente@teste.com");
+        cliente.setSenha("senha");
+        cliente.setPerfil(Perfil.CLIENTE);
+        var idCliente = clienteRepository.save(cliente).getId();
+        entityManagerFactory.getCache().evictAll();
+        estatisticas().clear();
+
+        clienteRepository.findById(idCliente);
+        clienteRepository.findById(idCliente);
+
+        assertEquals(1, estatisticas().getDomainDataRegionStatistics("cliente").getHitCount());
+    }
+
+    private LivroEntity salvarLivro() {
+        var livro = new LivroEntity();
+        livro.setTitulo("Dom Casmurro");
+        livro.setAutor("Machado de Assis");
+        livro.setEditora("Editora ABC");
+        livro.setAnoPublicacao(1899);
+        livro.setDisponivel(true);
+        return livroRepository.save(livro);
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,128 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.EmprestimoAdapter;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.EmprestimoMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmprestimoEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.projection.EmprestimoDevolucaoProjection;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
+import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntityFixture.livroEmprestado;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class EmprestimoRepositoryDevolucaoTest extends PostgresDataJpaTest {
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private EmprestimoAdapter emprestimoAdapter;
+    private ClienteEntity cliente;
+    private List<LivroEntity> livros;
+
+    @BeforeEach
+    void setUp() {
+        // O UPDATE ... RETURNING da devolucao em lote roda pelo EntityManager do adapter
+        emprestimoAdapter = new EmprestimoAdapter(emprestimoRepository, clienteRepository, livroRepository,
+                mock(EmprestimoMapper.class), mock(EmailService.class), entityManager);
+        ReflectionTestUtils.setField(emprestimoAdapter, "mensagemEmprestimoDevolucaoEmail", "Livros devolvidos: %s");
+
+        cliente = new ClienteEntity();
+        cliente.setNome("Maria");
+        cliente.setEmail("maria@email.com");
+        cliente.setSenha("senha");
+        cliente.setPerfil(Perfil.CLIENTE);
+        cliente = clienteRepository.saveAndFlush(cliente);
+        livros = livroRepository.saveAllAndFlush(List.of(livroEmprestado("Dom Casmurro"), livroEmprestado("O Cortiço"), livroEmprestado("Iracema")));
+    }
+
+    @Test
+    @DisplayName("Deve encerrar apenas os empréstimos ativos informados")
+    void deveEncerrarApenasEmprestimosAtivosInformados() {
+        var ativo = criarEmprestimo(true, livros.get(0));
+        var devolvido = criarEmprestimo(false, livros.get(1));
+        var hoje = LocalDate.now();
+
+        var resultado = emprestimoAdapter.devolverEmprestimos(List.of(ativo.getId(), devolvido.getId(), -1L), hoje);
+
+        assertEquals(List.of(ativo.getId()), resultado.getEmprestimosDevolvidos());
+        assertEquals(List.of(devolvido.getId(), -1L), resultado.getNaoEncontrados());
+        assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject("SELECT ativo FROM emprestimo WHERE id = ?", Boolean.class, ativo.getId()));
+        assertFalse(emprestimoRepository.findById(ativo.getId()).orElseThrow().getAtivo());
+        assertTrue(emprestimoAdapter.devolverEmprestimos(List.of(ativo.getId()), hoje).getEmprestimosDevolvidos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve encerrar pelos livros apenas os empréstimos com todos os livros no lote")
+    void deveEncerrarPelosLivrosApenasEmprestimosCompletos() {
+        var completo = criarEmprestimo(true, livros.get(0));
+        var parcial = criarEmprestimo(true, livros.get(1), livros.get(2));
+        var idsLivros = List.of(livros.get(0).getId(), livros.get(1).getId());
+
+        var resultado = emprestimoAdapter.devolverEmprestimosPorLivros(idsLivros, LocalDate.now());
+        var livrosDevolvidos = emprestimoRepository.findLivrosDevolvidosByEmprestimoIdIn(List.of(completo.getId()));
+
+        assertEquals(List.of(completo.getId()), resultado.getEmprestimosDevolvidos());
+        assertEquals(List.of(livros.get(0).getId()), resultado.getLivrosDevolvidos());
+        assertEquals(List.of(parcial.getId()), resultado.getEmprestimosIncompletos());
+        assertEquals("Dom Casmurro", livrosDevolvidos.get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve trazer o empréstimo com o id do cliente e os ids dos livros numa única consulta")
+    void deveTrazerEmprestimoComClienteELivrosNumaUnicaConsulta() {
+        var emprestimo = criarEmprestimo(true, livros.get(0), livros.get(2));
+
+        var linhas = emprestimoRepository.findDevolucaoById(emprestimo.getId());
+
+        assertEquals(2, linhas.size());
+        assertEquals(cliente.getId(), linhas.get(0).getClienteId());
+        assertTrue(linhas.get(0).getAtivo());
+        assertEquals(List.of(livros.get(0).getId(), livros.get(2).getId()),
+                linhas.stream().map(EmprestimoDevolucaoProjection::getLivroId).toList());
+        assertTrue(emprestimoRepository.findDevolucaoById(-1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o empréstimo apenas uma vez")
+    void deveEncerrarEmprestimoApenasUmaVez() {
+        var emprestimo = criarEmprestimo(true, livros.get(0));
+
+        assertEquals(1, emprestimoRepository.encerrarEmprestimo(emprestimo.getId(), LocalDate.now()));
+        assertEquals(0, emprestimoRepository.encerrarEmprestimo(emprestimo.getId(), LocalDate.now()));
+    }
+
+    private EmprestimoEntity criarEmprestimo(boolean ativo, LivroEntity... livrosEmprestimo) {
+        var emprestimo = new EmprestimoEntity();
+        emprestimo.setClienteId(cliente);
+        emprestimo.setLivros(List.of(livrosEmprestimo));
+        emprestimo.setDataEmprestimo(LocalDate.now());
+        emprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
+        emprestimo.setAtivo(ativo);
+        return emprestimoRepository.saveAndFlush(emprestimo);
+    }
+}
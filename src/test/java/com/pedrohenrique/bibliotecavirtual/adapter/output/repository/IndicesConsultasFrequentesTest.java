@@ -0,0 +1,104 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// O volume da massa e o que faz o planejador escolher os indices sozinho: com poucas linhas por pagina uma
+// varredura sequencial sai mais barata e o teste deixaria de dizer algo sobre o uso real
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndicesConsultasFrequentesTest extends PostgresDataJpaTest {
+
+    private static final int CLIENTES = 20_000;
+    private static final int LIVROS = 50_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void popularBanco() {
+        jdbcTemplate.execute("""
+                INSERT INTO cliente (nome, email, senha, perfil)
+                SELECT 'Cliente ' || i, 'cliente' || i || '@email.com', 'senha', 'CLIENTE'
+                FROM generate_series(1, %d) i""".formatted(CLIENTES));
+        jdbcTemplate.execute("""
+                INSERT INTO administrador (nome, email, senha, perfil)
+                SELECT 'Admin ' || i, 'admin' || i || '@email.com', 'senha', 'ADMIN'
+                FROM generate_series(1, 5000) i""");
+        jdbcTemplate.execute("""
+                INSERT INTO livro (titulo, autor, ano_publicacao, disponivel)
+                SELECT 'Livro ' || i, 'Autor ' || i, 2000, true
+                FROM generate_series(1, %d) i""".formatted(LIVROS));
+        // Cinco emprestimos por cliente, 2% ainda ativos; os vinculos usam os ids realmente gravados, que com as
+        // sequences em blocos de 50 (V10 e V11) nao sao 1..N
+        jdbcTemplate.execute("""
+                INSERT INTO emprestimo (cliente_id, ativo)
+                SELECT c.id, g.i %% 50 = 0
+                FROM generate_series(1, 100000) g(i)
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) AS n FROM cliente) c ON c.n = (g.i %% %d) + 1""".formatted(CLIENTES));
+        jdbcTemplate.execute("""
+                INSERT INTO livro_emprestimo (emprestimo_id, livro_id)
+                SELECT e.id, l.id
+                FROM (SELECT id, row_number() OVER (ORDER BY id) AS n FROM emprestimo) e
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) AS n FROM livro) l ON l.n = (e.n %% %d) + 1""".formatted(LIVROS));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // A massa e gravada fora da transacao de cada teste, entao nao sai no rollback
+    @AfterAll
+    void limparBanco() {
+        jdbcTemplate.execute("TRUNCATE livro_emprestimo, emprestimo, livro, cliente, administrador CASCADE");
+    }
+
+    @Test
+    @DisplayName("Deve usar índice funcional na busca de cliente por email ignorando caixa")
+    void deveUsarIndiceFuncionalNaBuscaDeClientePorEmail() {
+        assertPlanoUsaIndice("SELECT * FROM cliente WHERE upper(email) = upper('CLIENTE10@email.com')", "idx_cliente_email_upper");
+    }
+
+    @Test
+    @DisplayName("Deve usar índice funcional na busca de administrador por email ignorando caixa")
+    void deveUsarIndiceFuncionalNaBuscaDeAdministradorPorEmail() {
+        assertPlanoUsaIndice("SELECT * FROM administrador WHERE upper(email) = upper('admin10@EMAIL.com')", "idx_administrador_email_upper");
+    }
+
+    @Test
+    @DisplayName("Deve usar índice funcional na busca de livro por título ignorando caixa")
+    void deveUsarIndiceFuncionalNaBuscaDeLivroPorTitulo() {
+        assertPlanoUsaIndice("SELECT * FROM livro WHERE upper(titulo) = upper('livro 10')", "idx_livro_titulo_upper");
+    }
+
+    @Test
+    @DisplayName("Deve usar índice de cliente na busca de empréstimos por cliente")
+    void deveUsarIndiceDeClienteNaBuscaDeEmprestimosPorCliente() {
+        assertPlanoUsaIndice("SELECT * FROM emprestimo WHERE cliente_id = " + primeiroId("cliente"), "idx_emprestimo_cliente_id");
+    }
+
+    @Test
+    @DisplayName("Deve usar índice parcial na busca de empréstimos ativos por cliente")
+    void deveUsarIndiceParcialNaBuscaDeEmprestimosAtivosPorCliente() {
+        assertPlanoUsaIndice("SELECT * FROM emprestimo WHERE cliente_id = " + primeiroId("cliente") + " AND ativo = true",
+                "idx_emprestimo_cliente_id_ativo");
+    }
+
+    @Test
+    @DisplayName("Deve usar índice de livro na busca de empréstimos por livro")
+    void deveUsarIndiceDeLivroNaBuscaDeEmprestimosPorLivro() {
+        assertPlanoUsaIndice("SELECT * FROM livro_emprestimo WHERE livro_id = " + primeiroId("livro"), "idx_livro_emprestimo_livro_id");
+    }
+
+    private long primeiroId(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT min(id) FROM " + tabela, Long.class);
+    }
+
+    private void assertPlanoUsaIndice(String consulta, String indice) {
+        var plano = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + consulta, String.class));
+        assertTrue(plano.contains(indice), () -> "Plano nao usa o indice " + indice + ":\n" + plano);
+    }
+}
@@ -0,0 +1,76 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.output.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntityFixture.livro;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LivroRepositoryBuscaTest extends PostgresDataJpaTest {
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @BeforeEach
+    void setUp() {
+        livroRepository.saveAllAndFlush(List.of(
+                livro("Dom Casmurro", "Machado de Assis", "Companhia das Letras"),
+                livro("Memórias Póstumas de Brás Cubas", "Machado de Assis", "Penguin"),
+                livro("Assis e a cidade", "Joana Prado", "Editora Pequena"),
+                livro("O Cortiço", "Aluísio Azevedo", "Ática")
+        ));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar livro por palavras incompletas do título")
+    void deveEncontrarLivroPorPalavrasIncompletasDoTitulo() {
+        var resultado = livroRepository.buscarPorTexto("dom:* & casm:*", "dom casm", PageRequest.of(0, 10));
+
+        assertEquals(1, resultado.size());
+        assertEquals("Dom Casmurro", resultado.get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar livros pelo autor e pela editora")
+    void deveEncontrarLivrosPeloAutorEPelaEditora() {
+        var porAutor = livroRepository.buscarPorTexto("machado:*", "machado", PageRequest.of(0, 10));
+        var porEditora = livroRepository.buscarPorTexto("penguin:*", "penguin", PageRequest.of(0, 10));
+
+        assertEquals(2, porAutor.size());
+        assertEquals(1, porEditora.size());
+        assertEquals("Memórias Póstumas de Brás Cubas", porEditora.get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve ordenar ocorrências no título antes das ocorrências no autor")
+    void deveOrdenarOcorrenciasNoTituloAntesDasOcorrenciasNoAutor() {
+        var resultado = livroRepository.buscarPorTexto("assis:*", "assis", PageRequest.of(0, 10));
+
+        assertEquals(3, resultado.size());
+        assertEquals("Assis e a cidade", resultado.get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve tolerar erro de digitação no título pela similaridade de trigramas")
+    void deveTolerarErroDeDigitacaoNoTituloPelaSimilaridadeDeTrigramas() {
+        var resultado = livroRepository.buscarPorTexto("dom:* & casmuro:*", "Dom Casmuro", PageRequest.of(0, 10));
+
+        assertFalse(resultado.isEmpty());
+        assertEquals("Dom Casmurro", resultado.get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve paginar os resultados da busca")
+    void devePaginarResultadosDaBusca() {
+        var primeiraPagina = livroRepository.buscarPorTexto("assis:*", "assis", PageRequest.of(0, 2));
+        var segundaPagina = livroRepository.buscarPorTexto("assis:*", "assis", PageRequest.of(1, 2));
+
+        assertEquals(2, primeiraPagina.size());
+        assertEquals(1, segundaPagina.size());
+    }
+}
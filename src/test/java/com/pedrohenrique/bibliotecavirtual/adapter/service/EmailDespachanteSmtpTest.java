@@ -0,0 +1,103 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmailPendenteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmailPendenteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDespachanteSmtpTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailDespachante emailDespachante;
+
+    @BeforeEach
+    void setUp() {
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        var emailService = new EmailService(mailSender, emailPendenteRepository, eventPublisher);
+        emailDespachante = new EmailDespachante(emailPendenteRepository, emailService, mailSender, transactionManager,
+                new SimpleMeterRegistry(), 1, 10, 50, 3, Duration.ofMinutes(1), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailDespachante.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve entregar ao servidor SMTP todos os emails pendentes do lote")
+    void deveEntregarAoServidorSmtpTodosOsEmailsPendentesDoLote() throws Exception {
+        var email1 = criarEmailPendente(1L, "cliente1@email.com", "Empréstimo confirmado");
+        var email2 = criarEmailPendente(2L, "cliente2@email.com", "Devolução empréstimo");
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), anyInt(), any(Pageable.class))).thenReturn(List.of(email1, email2));
+
+        emailDespachante.despacharPendentes();
+
+        MimeMessage[] recebidos = greenMail.getReceivedMessages();
+        assertEquals(2, recebidos.length);
+        assertEquals("Empréstimo confirmado", recebidos[0].getSubject());
+        assertEquals("cliente1@email.com", recebidos[0].getAllRecipients()[0].toString());
+        assertEquals("Devolução empréstimo", recebidos[1].getSubject());
+        verify(emailPendenteRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Deve enviar o email em segundo plano quando o agendamento for confirmado")
+    void deveEnviarEmailEmSegundoPlanoQuandoAgendamentoForConfirmado() {
+        var email = criarEmailPendente(1L, "cliente@email.com", "Cadastro realizado");
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), anyInt(), any(Pageable.class))).thenReturn(List.of(email));
+
+        emailDespachante.aoAgendarEmail(new EmailAgendadoEvent(1L));
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        assertEquals("cliente@email.com", greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString());
+    }
+
+    private EmailPendenteEntity criarEmailPendente(Long id, String destinatario, String assunto) {
+        var emailPendente = new EmailPendenteEntity();
+        emailPendente.setId(id);
+        emailPendente.setDestinatario(destinatario);
+        emailPendente.setAssunto(assunto);
+        emailPendente.setConteudo("Conteudo do email");
+        emailPendente.setTentativas(0);
+        emailPendente.setDataCriacao(LocalDateTime.now());
+        emailPendente.setProximaTentativa(LocalDateTime.now());
+        return emailPendente;
+    }
+}
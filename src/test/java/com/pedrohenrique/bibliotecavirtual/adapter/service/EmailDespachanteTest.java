@@ -0,0 +1,206 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.service;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmailPendenteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmailPendenteRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.exception.EmailException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDespachanteTest {
+
+    @Mock
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MimeMessage mensagem1;
+
+    @Mock
+    private MimeMessage mensagem2;
+
+    private EmailDespachante emailDespachante;
+
+    private EmailPendenteEntity email1;
+    private EmailPendenteEntity email2;
+
+    @BeforeEach
+    void setUp() {
+        emailDespachante = new EmailDespachante(emailPendenteRepository, emailService, mailSender, transactionManager,
+                new SimpleMeterRegistry(), 1, 10, 50, 3, Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+        email1 = criarEmailPendente(1L, "cliente1@email.com");
+        email2 = criarEmailPendente(2L, "cliente2@email.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailDespachante.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve enviar o lote numa única chamada e remover os emails enviados")
+    void deveEnviarLoteNumaUnicaChamadaERemoverEmailsEnviados() {
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), eq(3), any(Pageable.class))).thenReturn(List.of(email1, email2));
+        when(emailService.criarMensagem("cliente1@email.com", "Assunto", "Conteudo")).thenReturn(mensagem1);
+        when(emailService.criarMensagem("cliente2@email.com", "Assunto", "Conteudo")).thenReturn(mensagem2);
+
+        emailDespachante.despacharPendentes();
+
+        verify(mailSender, times(1)).send(mensagem1, mensagem2);
+        verify(emailPendenteRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha apenas das mensagens recusadas pelo servidor")
+    void deveRegistrarFalhaApenasDasMensagensRecusadasPeloServidor() {
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), eq(3), any(Pageable.class))).thenReturn(List.of(email1, email2));
+        when(emailService.criarMensagem("cliente1@email.com", "Assunto", "Conteudo")).thenReturn(mensagem1);
+        when(emailService.criarMensagem("cliente2@email.com", "Assunto", "Conteudo")).thenReturn(mensagem2);
+        doThrow(new MailSendException(Map.<Object, Exception>of(mensagem2, new RuntimeException("Caixa inexistente"))))
+                .when(mailSender).send(any(MimeMessage[].class));
+        when(emailPendenteRepository.findAllById(Set.of(2L))).thenReturn(List.of(email2));
+
+        var antes = LocalDateTime.now();
+        emailDespachante.despacharPendentes();
+
+        verify(emailPendenteRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(0, email1.getTentativas());
+        assertEquals(1, email2.getTentativas());
+        assertEquals("Caixa inexistente", email2.getUltimoErro());
+        assertTrue(email2.getProximaTentativa().isAfter(antes.plusSeconds(59)));
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha de todo o lote quando a conexão SMTP falhar")
+    void deveRegistrarFalhaDeTodoLoteQuandoConexaoSmtpFalhar() {
+        email2.setTentativas(1);
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), eq(3), any(Pageable.class))).thenReturn(List.of(email1, email2));
+        when(emailService.criarMensagem("cliente1@email.com", "Assunto", "Conteudo")).thenReturn(mensagem1);
+        when(emailService.criarMensagem("cliente2@email.com", "Assunto", "Conteudo")).thenReturn(mensagem2);
+        doThrow(new MailAuthenticationException("Credenciais invalidas")).when(mailSender).send(any(MimeMessage[].class));
+        when(emailPendenteRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(email1, email2));
+
+        var antes = LocalDateTime.now();
+        emailDespachante.despacharPendentes();
+
+        verify(emailPendenteRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(1, email1.getTentativas());
+        assertEquals(2, email2.getTentativas());
+        // A espera dobra a cada tentativa
+        assertTrue(email2.getProximaTentativa().isAfter(antes.plusSeconds(119)));
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha sem enviar quando não for possível montar a mensagem")
+    void deveRegistrarFalhaSemEnviarQuandoNaoForPossivelMontarMensagem() {
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), eq(3), any(Pageable.class))).thenReturn(List.of(email1));
+        when(emailService.criarMensagem("cliente1@email.com", "Assunto", "Conteudo")).thenThrow(new EmailException("Erro ao enviar email endereco invalido"));
+        when(emailPendenteRepository.findAllById(Set.of(1L))).thenReturn(List.of(email1));
+
+        emailDespachante.despacharPendentes();
+
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+        assertEquals(1, email1.getTentativas());
+        assertEquals("Erro ao enviar email endereco invalido", email1.getUltimoErro());
+    }
+
+    @Test
+    @DisplayName("Deve reservar o lote antes de enviar para outro despacho não pegar os mesmos emails")
+    void deveReservarLoteAntesDeEnviar() {
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), eq(3), any(Pageable.class))).thenReturn(List.of(email1));
+        when(emailService.criarMensagem("cliente1@email.com", "Assunto", "Conteudo")).thenReturn(mensagem1);
+        var antes = LocalDateTime.now();
+        doAnswer(invocacao -> {
+            assertTrue(email1.getProximaTentativa().isAfter(antes.plusMinutes(4)));
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        emailDespachante.despacharPendentes();
+
+        verify(mailSender, times(1)).send(mensagem1);
+        // Reserva e registro do resultado em transacoes separadas; o envio acontece entre as duas
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve remover o email que esgotou as tentativas")
+    void deveRemoverEmailQueEsgotouAsTentativas() {
+        email1.setTentativas(2);
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), eq(3), any(Pageable.class))).thenReturn(List.of(email1, email2));
+        when(emailService.criarMensagem("cliente1@email.com", "Assunto", "Conteudo")).thenReturn(mensagem1);
+        when(emailService.criarMensagem("cliente2@email.com", "Assunto", "Conteudo")).thenReturn(mensagem2);
+        doThrow(new MailAuthenticationException("Credenciais invalidas")).when(mailSender).send(any(MimeMessage[].class));
+        when(emailPendenteRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(email1, email2));
+
+        emailDespachante.despacharPendentes();
+
+        verify(emailPendenteRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1, email2.getTentativas());
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o servidor SMTP quando não houver emails pendentes")
+    void naoDeveAcessarServidorSmtpQuandoNaoHouverEmailsPendentes() {
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        emailDespachante.despacharPendentes();
+
+        verifyNoInteractions(mailSender, emailService);
+    }
+
+    @Test
+    @DisplayName("Deve despachar em segundo plano ao solicitar despacho")
+    void deveDespacharEmSegundoPlanoAoSolicitarDespacho() {
+        when(emailPendenteRepository.buscarLotePendente(any(LocalDateTime.class), anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        emailDespachante.solicitarDespacho();
+
+        verify(emailPendenteRepository, timeout(1000).times(1)).buscarLotePendente(any(LocalDateTime.class), anyInt(), any(Pageable.class));
+    }
+
+    private EmailPendenteEntity criarEmailPendente(Long id, String destinatario) {
+        var emailPendente = new EmailPendenteEntity();
+        emailPendente.setId(id);
+        emailPendente.setDestinatario(destinatario);
+        emailPendente.setAssunto("Assunto");
+        emailPendente.setConteudo("Conteudo");
+        emailPendente.setTentativas(0);
+        emailPendente.setDataCriacao(LocalDateTime.now());
+        emailPendente.setProximaTentativa(LocalDateTime.now());
+        return emailPendente;
+    }
+}
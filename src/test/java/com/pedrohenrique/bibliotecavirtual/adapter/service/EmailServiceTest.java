@@ -1,5 +1,7 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.service;
 
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.EmailPendenteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.EmailPendenteRepository;
 import com.pedrohenrique.bibliotecavirtual.adapter.service.exception.EmailException;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -7,13 +9,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -24,6 +27,12 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private MimeMessage mimeMessage;
 
@@ -42,30 +51,38 @@ class EmailServiceTest {
     }
 
     @Test
-    @DisplayName("Deve enviar email com sucesso")
-    void deveEnviarEmailComSucesso() {
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-
-        emailService.enviarEmail(emailDestinatario, assunto, conteudo);
+    @DisplayName("Deve agendar email gravando-o como pendente sem enviar")
+    void deveAgendarEmailGravandoComoPendenteSemEnviar() {
+        when(emailPendenteRepository.save(any(EmailPendenteEntity.class))).thenAnswer(invocation -> {
+            EmailPendenteEntity emailPendente = invocation.getArgument(0);
+            emailPendente.setId(10L);
+            return emailPendente;
+        });
 
-        verify(mailSender, times(1)).createMimeMessage();
-        verify(mailSender, times(1)).send(mimeMessage);
+        emailService.agendarEmail(" " + emailDestinatario + " ", assunto, conteudo);
+
+        ArgumentCaptor<EmailPendenteEntity> captor = ArgumentCaptor.forClass(EmailPendenteEntity.class);
+        verify(emailPendenteRepository, times(1)).save(captor.capture());
+        EmailPendenteEntity emailPendente = captor.getValue();
+        assertEquals(emailDestinatario, emailPendente.getDestinatario());
+        assertEquals(assunto, emailPendente.getAssunto());
+        assertEquals(conteudo, emailPendente.getConteudo());
+        assertEquals(0, emailPendente.getTentativas());
+        assertNotNull(emailPendente.getProximaTentativa());
+        verify(eventPublisher, times(1)).publishEvent(new EmailAgendadoEvent(10L));
+        verifyNoInteractions(mailSender);
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando ocorrer erro de mensagem")
-    void deveLancarExcecaoQuandoOcorrerErroDeMessaging() {
+    @DisplayName("Deve criar mensagem com sucesso sem enviar")
+    void deveCriarMensagemComSucessoSemEnviar() {
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Erro ao enviar email")).when(mailSender).send(any(MimeMessage.class));
-
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            emailService.enviarEmail(emailDestinatario, assunto, conteudo);
-        });
 
-        assertTrue(exception.getMessage().contains("Erro ao enviar email"));
+        MimeMessage mensagem = emailService.criarMensagem(emailDestinatario, assunto, conteudo);
 
+        assertSame(mimeMessage, mensagem);
         verify(mailSender, times(1)).createMimeMessage();
-        verify(mailSender, times(1)).send(any(MimeMessage.class));
+        verify(mailSender, never()).send(any(MimeMessage.class));
     }
 
     @Test
@@ -77,7 +94,7 @@ class EmailServiceTest {
                 .when(mimeMessage).setSubject(anyString(), anyString());
 
         EmailException exception = assertThrows(EmailException.class, () -> {
-            emailService.enviarEmail(emailDestinatario, assunto, conteudo);
+            emailService.criarMensagem(emailDestinatario, assunto, conteudo);
         });
 
         assertTrue(exception.getMessage().contains("Erro ao enviar email"));
@@ -1,30 +1,29 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
 import org.mockito.MockedStatic;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class TokenServiceTest {
 
-    @InjectMocks
     private TokenService tokenService;
 
+    private SimpleMeterRegistry meterRegistry;
     private String tokenValido;
     private String tokenInvalido;
     private String jwtSecret;
@@ -34,7 +33,8 @@ class TokenServiceTest {
     void setUp() {
         jwtSecret = "chavesupersecretaparatestes123456";
         emailUsuario = "usuario@teste.com";
-        ReflectionTestUtils.setField(tokenService, "JWT_SECRET", jwtSecret);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenService = new TokenService(jwtSecret, 100, Duration.ofMinutes(5), meterRegistry);
 
         // Criação de um token válido para testes
         Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
@@ -102,4 +102,72 @@ class TokenServiceTest {
 
         assertTrue(exception.getMessage().contains("Token JWT invalido ou expirado"));
     }
+
+    @Test
+    @DisplayName("Deve reutilizar verificação em cache para o mesmo token")
+    void deveReutilizarVerificacaoEmCacheParaOMesmoToken() {
+        assertEquals(emailUsuario, tokenService.verificarToken(tokenValido));
+        assertEquals(emailUsuario, tokenService.verificarToken(tokenValido));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tokensVerificados").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tokensVerificados").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar token inválido no cache")
+    void naoDeveArmazenarTokenInvalidoNoCache() {
+        assertThrows(RuntimeException.class, () -> tokenService.verificarToken(tokenInvalido));
+        assertThrows(RuntimeException.class, () -> tokenService.verificarToken(tokenInvalido));
+
+        assertEquals(0.0, meterRegistry.get("cache.gets").tag("cache", "tokensVerificados").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar token expirado mesmo após verificação anterior")
+    void naoDeveAceitarTokenExpiradoMesmoAposVerificacaoAnterior() throws InterruptedException {
+        String tokenCurto = JWT.create()
+                .withIssuer("Biblioteca Virtual")
+                .withSubject(emailUsuario)
+                .withExpiresAt(Instant.now().plusSeconds(1))
+                .sign(Algorithm.HMAC256(jwtSecret));
+
+        assertEquals(emailUsuario, tokenService.verificarToken(tokenCurto));
+        Thread.sleep(1100);
+
+        assertThrows(RuntimeException.class, () -> tokenService.verificarToken(tokenCurto));
+    }
+
+    @Test
+    @DisplayName("Deve gerar token verificável com o email como subject")
+    void deveGerarTokenVerificavelComEmailComoSubject() {
+        String token = tokenService.gerarToken(emailUsuario);
+
+        DecodedJWT decodedJWT = JWT.require(Algorithm.HMAC256(jwtSecret)).withIssuer("Biblioteca Virtual").build().verify(token);
+        assertEquals(emailUsuario, decodedJWT.getSubject());
+        assertEquals(emailUsuario, tokenService.verificarToken(token));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando houver erro na geração do token")
+    void deveLancarExcecaoQuandoHouverErroNaGeracaoDoToken() {
+        try (MockedStatic<JWT> jwtMock = mockStatic(JWT.class)) {
+            jwtMock.when(JWT::create).thenThrow(new JWTCreationException("Erro ao gerar token", new Exception()));
+
+            assertThrows(RuntimeException.class, () -> {
+                tokenService.gerarToken(emailUsuario);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar data de expiração 30 minutos no futuro")
+    void deveGerarDataExpiracao30MinutosNoFuturo() {
+        Instant dataExpiracao = ReflectionTestUtils.invokeMethod(tokenService, "dataExpiracaoToken");
+        Instant agoraMais29Min = LocalDateTime.now().plusMinutes(29).toInstant(ZoneOffset.of("-03:00"));
+        Instant agoraMais31Min = LocalDateTime.now().plusMinutes(31).toInstant(ZoneOffset.of("-03:00"));
+
+        assertNotNull(dataExpiracao);
+        assertTrue(dataExpiracao.isAfter(agoraMais29Min));
+        assertTrue(dataExpiracao.isBefore(agoraMais31Min));
+    }
 }
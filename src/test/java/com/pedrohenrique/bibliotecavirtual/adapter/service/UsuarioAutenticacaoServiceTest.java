@@ -1,8 +1,5 @@
 package com.pedrohenrique.bibliotecavirtual.adapter.service;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTCreationException;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.AdministradorEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
 import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
@@ -13,15 +10,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.test.util.ReflectionTestUtils;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,18 +30,17 @@ class UsuarioAutenticacaoServiceTest {
     @Mock
     private AdministradorRepository administradorRepository;
 
+    @Mock
+    private TokenService tokenService;
+
     @InjectMocks
     private UsuarioAutenticacaoService usuarioAutenticacaoService;
 
     private ClienteEntity clienteEntity;
     private AdministradorEntity administradorEntity;
-    private String jwtSecret;
 
     @BeforeEach
     void setUp() {
-        jwtSecret = "chavesupersecretaparatestes123456";
-        ReflectionTestUtils.setField(usuarioAutenticacaoService, "JWT_SECRET", jwtSecret);
-
         clienteEntity = new ClienteEntity();
         clienteEntity.setId(1L);
         clienteEntity.setNome("Cliente Teste");
@@ -106,64 +97,42 @@ class UsuarioAutenticacaoServiceTest {
     @Test
     @DisplayName("Deve gerar token para cliente com sucesso")
     void deveGerarTokenParaClienteComSucesso() {
+        when(tokenService.gerarToken("cliente@teste.com")).thenReturn("token-cliente");
+
         String token = usuarioAutenticacaoService.gerarTokenCliente(clienteEntity);
 
-        assertNotNull(token);
-        assertFalse(token.isEmpty());
+        assertEquals("token-cliente", token);
+        verify(tokenService, times(1)).gerarToken("cliente@teste.com");
     }
 
     @Test
     @DisplayName("Deve gerar token para administrador com sucesso")
     void deveGerarTokenParaAdministradorComSucesso() {
+        when(tokenService.gerarToken("admin@teste.com")).thenReturn("token-admin");
+
         String token = usuarioAutenticacaoService.gerarTokenAdministrador(administradorEntity);
 
-        assertNotNull(token);
-        assertFalse(token.isEmpty());
+        assertEquals("token-admin", token);
+        verify(tokenService, times(1)).gerarToken("admin@teste.com");
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando houver erro na geração do token para cliente")
+    @DisplayName("Deve propagar exceção quando houver erro na geração do token para cliente")
     void deveLancarExcecaoQuandoHouverErroNaGeracaoDoTokenParaCliente() {
-        try (MockedStatic<JWT> jwtMock = mockStatic(JWT.class)) {
-            jwtMock.when(JWT::create).thenThrow(new JWTCreationException("Erro ao gerar token", new Exception()));
+        when(tokenService.gerarToken(anyString())).thenThrow(new RuntimeException("Erro ao gerar token JWT"));
 
-            assertThrows(RuntimeException.class, () -> {
-                usuarioAutenticacaoService.gerarTokenCliente(clienteEntity);
-            });
-        }
+        assertThrows(RuntimeException.class, () -> {
+            usuarioAutenticacaoService.gerarTokenCliente(clienteEntity);
+        });
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando houver erro na geração do token para administrador")
+    @DisplayName("Deve propagar exceção quando houver erro na geração do token para administrador")
     void deveLancarExcecaoQuandoHouverErroNaGeracaoDoTokenParaAdministrador() {
-        try (MockedStatic<JWT> jwtMock = mockStatic(JWT.class)) {
-            jwtMock.when(JWT::create).thenThrow(new JWTCreationException("Erro ao gerar token", new Exception()));
-
-            assertThrows(RuntimeException.class, () -> {
-                usuarioAutenticacaoService.gerarTokenAdministrador(administradorEntity);
-            });
-        }
-    }
-
-    @Test
-    @DisplayName("Deve gerar data de expiração futura para o token")
-    void deveGerarDataExpiracaoFuturaParaOToken() {
-        Instant dataExpiracao = ReflectionTestUtils.invokeMethod(usuarioAutenticacaoService, "dataExpiracaoToken");
-        Instant agora = LocalDateTime.now().toInstant(ZoneOffset.of("-03:00"));
+        when(tokenService.gerarToken(anyString())).thenThrow(new RuntimeException("Erro ao gerar token JWT"));
 
-        assertNotNull(dataExpiracao);
-        assertTrue(dataExpiracao.isAfter(agora));
-    }
-
-    @Test
-    @DisplayName("Deve gerar data de expiração 30 minutos no futuro")
-    void deveGerarDataExpiracao30MinutosNoFuturo() {
-        Instant dataExpiracao = ReflectionTestUtils.invokeMethod(usuarioAutenticacaoService, "dataExpiracaoToken");
-        Instant agoraMais29Min = LocalDateTime.now().plusMinutes(29).toInstant(ZoneOffset.of("-03:00"));
-        Instant agoraMais31Min = LocalDateTime.now().plusMinutes(31).toInstant(ZoneOffset.of("-03:00"));
-
-        assertNotNull(dataExpiracao);
-        assertTrue(dataExpiracao.isAfter(agoraMais29Min));
-        assertTrue(dataExpiracao.isBefore(agoraMais31Min));
+        assertThrows(RuntimeException.class, () -> {
+            usuarioAutenticacaoService.gerarTokenAdministrador(administradorEntity);
+        });
     }
 }
@@ -0,0 +1,126 @@
+package com.pedrohenrique.bibliotecavirtual.adapter.service;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.AdministradorEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.ClienteEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.AdministradorRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
+import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioAutenticadoCacheServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private AdministradorRepository administradorRepository;
+
+    private MeterRegistry meterRegistry;
+    private UsuarioAutenticadoCacheService usuarioAutenticadoCacheService;
+    private ClienteEntity clienteEntity;
+    private AdministradorEntity administradorEntity;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usuarioAutenticadoCacheService = new UsuarioAutenticadoCacheService(clienteRepository, administradorRepository, meterRegistry, 100, Duration.ofMinutes(5));
+
+        clienteEntity = new ClienteEntity();
+        clienteEntity.setId(1L);
+        clienteEntity.setEmail("joao@email.com");
+        clienteEntity.setPerfil(Perfil.CLIENTE);
+
+        administradorEntity = new AdministradorEntity();
+        administradorEntity.setId(1L);
+        administradorEntity.setEmail("admin@email.com");
+        administradorEntity.setPerfil(Perfil.ADMIN);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco apenas na primeira busca do cliente")
+    void deveConsultarBancoApenasNaPrimeiraBuscaDoCliente() {
+        when(clienteRepository.findByEmailIgnoreCase("joao@email.com")).thenReturn(Optional.of(clienteEntity));
+
+        Optional<UserDetails> primeiraBusca = usuarioAutenticadoCacheService.buscarPorEmail("joao@email.com");
+        Optional<UserDetails> segundaBusca = usuarioAutenticadoCacheService.buscarPorEmail("JOAO@email.com");
+
+        assertTrue(primeiraBusca.isPresent());
+        assertSame(clienteEntity, segundaBusca.orElseThrow());
+        verify(clienteRepository, times(1)).findByEmailIgnoreCase(anyString());
+        verifyNoInteractions(administradorRepository);
+    }
+
+    @Test
+    @DisplayName("Deve buscar administrador quando não encontrar cliente")
+    void deveBuscarAdministradorQuandoNaoEncontrarCliente() {
+        when(clienteRepository.findByEmailIgnoreCase("admin@email.com")).thenReturn(Optional.empty());
+        when(administradorRepository.findByEmailIgnoreCase("admin@email.com")).thenReturn(Optional.of(administradorEntity));
+
+        usuarioAutenticadoCacheService.buscarPorEmail("admin@email.com");
+        Optional<UserDetails> resultado = usuarioAutenticadoCacheService.buscarPorEmail("admin@email.com");
+
+        assertSame(administradorEntity, resultado.orElseThrow());
+        verify(clienteRepository, times(1)).findByEmailIgnoreCase("admin@email.com");
+        verify(administradorRepository, times(1)).findByEmailIgnoreCase("admin@email.com");
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar usuário inexistente no cache")
+    void naoDeveArmazenarUsuarioInexistenteNoCache() {
+        when(clienteRepository.findByEmailIgnoreCase("inexistente@email.com")).thenReturn(Optional.empty());
+        when(administradorRepository.findByEmailIgnoreCase("inexistente@email.com")).thenReturn(Optional.empty());
+
+        assertTrue(usuarioAutenticadoCacheService.buscarPorEmail("inexistente@email.com").isEmpty());
+        assertTrue(usuarioAutenticadoCacheService.buscarPorEmail("inexistente@email.com").isEmpty());
+
+        verify(clienteRepository, times(2)).findByEmailIgnoreCase("inexistente@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o usuário do banco após invalidação")
+    void deveRecarregarUsuarioDoBancoAposInvalidacao() {
+        when(clienteRepository.findByEmailIgnoreCase("joao@email.com")).thenReturn(Optional.of(clienteEntity));
+
+        usuarioAutenticadoCacheService.buscarPorEmail("joao@email.com");
+        usuarioAutenticadoCacheService.invalidar("Joao@Email.com");
+        usuarioAutenticadoCacheService.buscarPorEmail("joao@email.com");
+
+        verify(clienteRepository, times(2)).findByEmailIgnoreCase("joao@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio sem consultar o banco quando email for nulo")
+    void deveRetornarVazioSemConsultarBancoQuandoEmailForNulo() {
+        assertTrue(usuarioAutenticadoCacheService.buscarPorEmail(null).isEmpty());
+
+        verifyNoInteractions(clienteRepository, administradorRepository);
+    }
+
+    @Test
+    @DisplayName("Deve registrar métricas de acertos e falhas do cache")
+    void deveRegistrarMetricasDeAcertosEFalhasDoCache() {
+        when(clienteRepository.findByEmailIgnoreCase("joao@email.com")).thenReturn(Optional.of(clienteEntity));
+
+        usuarioAutenticadoCacheService.buscarPorEmail("joao@email.com");
+        usuarioAutenticadoCacheService.buscarPorEmail("joao@email.com");
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "usuariosAutenticados").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "usuariosAutenticados").tag("result", "miss").functionCounter().count());
+    }
+}
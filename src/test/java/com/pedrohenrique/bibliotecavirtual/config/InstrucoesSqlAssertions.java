@@ -0,0 +1,31 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fixa nos testes quantas instrucoes SQL um fluxo pode executar. O contexto do teste precisa registrar o
+ * ContadorInstrucoesSql, por exemplo com a propriedade
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pedrohenrique.bibliotecavirtual.config.ContadorInstrucoesSql
+ */
+public final class InstrucoesSqlAssertions {
+
+    private InstrucoesSqlAssertions() {
+    }
+
+    public static ContagemInstrucoesSql contarInstrucoes(Runnable fluxo) {
+        var contagem = ContadorInstrucoesSql.iniciar();
+        try {
+            fluxo.run();
+        } finally {
+            ContadorInstrucoesSql.encerrar();
+        }
+        return contagem;
+    }
+
+    public static ContagemInstrucoesSql assertMaximoInstrucoes(int maximo, Runnable fluxo) {
+        var contagem = contarInstrucoes(fluxo);
+        assertTrue(contagem.getTotal() <= maximo,
+                () -> "Esperado no maximo " + maximo + " instrucoes SQL, mas foram " + contagem);
+        return contagem;
+    }
+}
@@ -0,0 +1,99 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrucoesSqlInterceptorTest {
+
+    private final ContadorInstrucoesSql contadorInstrucoesSql = new ContadorInstrucoesSql();
+
+    private final HttpServletRequest request = new MockHttpServletRequest();
+
+    private final HttpServletResponse response = new MockHttpServletResponse();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InstrucoesSqlInterceptor interceptor;
+
+    private HandlerMethod handlerMethod;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new InstrucoesSqlInterceptor(meterRegistry, 5, 3);
+        handlerMethod = new HandlerMethod(new ControllerFalso(), ControllerFalso.class.getMethod("listar"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ContadorInstrucoesSql.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve registrar as instruções SQL da requisição pelo método do controller")
+    void deveRegistrarInstrucoesDaRequisicaoPeloMetodoDoController() {
+        interceptor.preHandle(request, response, handlerMethod);
+        contadorInstrucoesSql.inspect("select l1_0.id from livro l1_0 where l1_0.id=?");
+        contadorInstrucoesSql.inspect("select c1_0.id from cliente c1_0 where c1_0.id=?");
+        interceptor.afterCompletion(request, response, handlerMethod, null);
+
+        var resumo = meterRegistry.find(InstrucoesSqlInterceptor.METRICA_INSTRUCOES)
+                .tags("controller", "ControllerFalso", "metodo", "listar")
+                .summary();
+        assertNotNull(resumo);
+        assertEquals(1, resumo.count());
+        assertEquals(2.0, resumo.totalAmount());
+        assertNull(meterRegistry.find(InstrucoesSqlInterceptor.METRICA_REPETICOES).counter());
+    }
+
+    @Test
+    @DisplayName("Deve contar a requisição com a mesma instrução repetida acima do limite")
+    void deveContarRequisicaoComInstrucaoRepetidaAcimaDoLimite() {
+        interceptor.preHandle(request, response, handlerMethod);
+        for (int i = 0; i < 4; i++) {
+            contadorInstrucoesSql.inspect("select l1_0.id from livro l1_0 where l1_0.id=?");
+        }
+        interceptor.afterCompletion(request, response, handlerMethod, null);
+
+        var repeticoes = meterRegistry.find(InstrucoesSqlInterceptor.METRICA_REPETICOES)
+                .tags("controller", "ControllerFalso", "metodo", "listar")
+                .counter();
+        assertNotNull(repeticoes);
+        assertEquals(1.0, repeticoes.count());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a contagem quando a resposta continuar em outra thread")
+    void deveDescartarContagemQuandoRespostaForAssincrona() {
+        interceptor.preHandle(request, response, handlerMethod);
+        interceptor.afterConcurrentHandlingStarted(request, response, handlerMethod);
+
+        assertNull(ContadorInstrucoesSql.encerrar());
+    }
+
+    @Test
+    @DisplayName("Não deve contar instruções fora de uma requisição para controller")
+    void naoDeveContarInstrucoesForaDeRequisicaoParaController() {
+        interceptor.preHandle(request, response, new Object());
+        assertEquals("select 1", contadorInstrucoesSql.inspect("select 1"));
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertNull(meterRegistry.find(InstrucoesSqlInterceptor.METRICA_INSTRUCOES).summary());
+    }
+
+    static class ControllerFalso {
+
+        public void listar() {
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import com.pedrohenrique.bibliotecavirtual.adapter.ClienteAdapter;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.mappers.ClienteMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.ClienteRepository;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.EmailService;
+import com.pedrohenrique.bibliotecavirtual.adapter.service.UsuarioAutenticadoCacheService;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.cliente.ClienteExistenteException;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.usecase.ClienteUseCase;
+import com.pedrohenrique.bibliotecavirtual.domain.usecase.EmprestimoUseCase;
+import com.pedrohenrique.bibliotecavirtual.domain.usecase.validate.ClienteValidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricasAspectTest {
+
+    @Mock
+    private ClienteOutputPort clienteOutputPort;
+
+    @Mock
+    private ClienteValidate clienteValidate;
+
+    @Mock
+    private EmprestimoUseCase emprestimoUseCase;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ClienteUseCase clienteUseCase;
+
+    private ClienteAdapter clienteAdapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var metricasAspect = new MetricasAspect(meterRegistry);
+        clienteUseCase = proxy(new ClienteUseCase(clienteOutputPort, clienteValidate, emprestimoUseCase), metricasAspect);
+        clienteAdapter = proxy(new ClienteAdapter(mock(ClienteMapper.class), clienteRepository, mock(PasswordEncoder.class),
+                mock(EmailService.class), mock(UsuarioAutenticadoCacheService.class)), metricasAspect);
+    }
+
+    @Test
+    @DisplayName("Deve medir o tempo do caso de uso concluído sem exceção")
+    void deveMedirTempoDoCasoDeUsoConcluidoSemExcecao() {
+        var cliente = new Cliente();
+        when(clienteOutputPort.cadastrarCliente(cliente)).thenReturn(cliente);
+
+        clienteUseCase.cadastrarCliente(cliente);
+
+        var timer = meterRegistry.find(MetricasAspect.METRICA_CASOS_USO)
+                .tags("casoUso", "ClienteUseCase", "metodo", "cadastrarCliente", "excecao", MetricasAspect.SEM_EXCECAO)
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNull(meterRegistry.find(MetricasAspect.METRICA_RECUSAS).counter());
+    }
+
+    @Test
+    @DisplayName("Deve contar a recusa pelo tipo original da exceção relançada pelo caso de uso")
+    void deveContarRecusaPeloTipoOriginalDaExcecao() {
+        var cliente = new Cliente();
+        doThrow(new ClienteExistenteException("Cliente já cadastrado")).when(clienteValidate).validarCadastroCliente(cliente);
+
+        assertThrows(BusinessException.class, () -> clienteUseCase.cadastrarCliente(cliente));
+
+        var recusas = meterRegistry.find(MetricasAspect.METRICA_RECUSAS)
+                .tags("casoUso", "ClienteUseCase", "metodo", "cadastrarCliente", "excecao", "ClienteExistenteException")
+                .counter();
+        assertNotNull(recusas);
+        assertEquals(1.0, recusas.count());
+        assertNotNull(meterRegistry.find(MetricasAspect.METRICA_CASOS_USO).tag("excecao", "ClienteExistenteException").timer());
+        verifyNoInteractions(clienteOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve medir o tempo das chamadas ao adapter da porta de saída")
+    void deveMedirTempoDasChamadasAoAdapter() {
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(clienteAdapter.existsById(1L));
+        assertTrue(clienteAdapter.existsById(1L));
+
+        var timer = meterRegistry.find(MetricasAspect.METRICA_PORTAS_SAIDA)
+                .tags("adapter", "ClienteAdapter", "metodo", "existsById", "excecao", MetricasAspect.SEM_EXCECAO)
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Deve registrar a exceção lançada pelo adapter na métrica da porta de saída")
+    void deveRegistrarExcecaoLancadaPeloAdapter() {
+        when(clienteRepository.existsById(1L)).thenThrow(new IllegalStateException("banco indisponivel"));
+
+        assertThrows(IllegalStateException.class, () -> clienteAdapter.existsById(1L));
+
+        var timer = meterRegistry.find(MetricasAspect.METRICA_PORTAS_SAIDA)
+                .tags("adapter", "ClienteAdapter", "metodo", "existsById", "excecao", "IllegalStateException")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T alvo, MetricasAspect metricasAspect) {
+        var factory = new AspectJProxyFactory(alvo);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(metricasAspect);
+        return (T) factory.getProxy();
+    }
+}
@@ -0,0 +1,67 @@
+package com.pedrohenrique.bibliotecavirtual.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoteamentoLeituraDataSourceTest {
+
+    private final RoteamentoLeituraDataSource roteamento = new RoteamentoLeituraDataSource();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Deve usar o pool de leitura em transacao somente leitura")
+    void deveUsarPoolDeLeituraEmTransacaoSomenteLeitura() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(RoteamentoLeituraDataSource.Pool.LEITURA, roteamento.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Deve usar o pool de escrita em transacao de escrita")
+    void deveUsarPoolDeEscritaEmTransacaoDeEscrita() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals(RoteamentoLeituraDataSource.Pool.ESCRITA, roteamento.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Deve usar o pool de escrita fora de transacao")
+    void deveUsarPoolDeEscritaForaDeTransacao() {
+        // readOnly sem transacao real (ex.: propagation SUPPORTS) nao deve ir para a leitura
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(RoteamentoLeituraDataSource.Pool.ESCRITA, roteamento.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o total de conexoes configurado")
+    void deveRespeitarTotalDeConexoesConfigurado() {
+        assertEquals(10, DataSourceConfiguration.tamanhoTotal(10));
+    }
+
+    @Test
+    @DisplayName("Deve calcular o total de conexoes pelos nucleos quando nao configurado")
+    void deveCalcularTotalDeConexoesPelosNucleos() {
+        var esperado = Runtime.getRuntime().availableProcessors() * 2 + 1;
+
+        assertEquals(esperado, DataSourceConfiguration.tamanhoTotal(0));
+    }
+
+    @Test
+    @DisplayName("Deve dividir o total de conexoes entre os pools sem ultrapassa-lo")
+    void deveDividirTotalDeConexoesEntreOsPools() {
+        assertEquals(3, DataSourceConfiguration.tamanhoLeitura(10, 30));
+        assertEquals(1, DataSourceConfiguration.tamanhoLeitura(3, 30));
+        assertEquals(1, DataSourceConfiguration.tamanhoLeitura(2, 100));
+    }
+}
@@ -0,0 +1,359 @@
+package com.pedrohenrique.bibliotecavirtual.desempenho;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.ClienteRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.DevolucaoEmprestimoRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.EmprestimoRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.request.LoginRequestDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.EmprestimoResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.LoginResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.input.dto.response.PaginaLivrosResponseDTO;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.entity.LivroEntity;
+import com.pedrohenrique.bibliotecavirtual.adapter.output.repository.LivroRepository;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.pedrohenrique.bibliotecavirtual.domain.utils.Constantes.QUANTIDADE_MAX_NUMERO_EMPRESTIMO;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicacao com o H2 do perfil de testes e cada usuario virtual
+ * faz login, navega pelo catalogo, pega e devolve livros pelos mesmos endpoints do ClienteControllerSwagger
+ * e do LivroControllerSwagger. Fica desligado no build normal; para rodar:
+ * mvn test -Dtest=CargaEndToEndTest -Dbiblioteca.carga.habilitada=true
+ *
+ * A vazao e os percentis de cada operacao vao para o log e para target/carga (resumo.csv e um .hgrm por operacao).
+ * O teste falha se alguma requisicao nao responder 200 ou se o p99 de alguma operacao passar do orcamento.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "biblioteca.email.despacho.intervalo=PT1H",
+        "logging.level.com.pedrohenrique.bibliotecavirtual=WARN"
+})
+@EnabledIfSystemProperty(named = "biblioteca.carga.habilitada", matches = "true")
+class CargaEndToEndTest {
+
+    private static final int USUARIOS = Integer.getInteger("biblioteca.carga.usuarios", 8);
+    private static final int OPERACOES_AQUECIMENTO = Integer.getInteger("biblioteca.carga.operacoes-aquecimento", 200);
+    private static final int OPERACOES_POR_USUARIO = Integer.getInteger("biblioteca.carga.operacoes-por-usuario", 1000);
+    private static final long ORCAMENTO_P99_MILLIS = Long.getLong("biblioteca.carga.orcamento-p99-ms", 500L);
+    private static final Path DIRETORIO_SAIDA = Path.of(System.getProperty("biblioteca.carga.saida", "target/carga"));
+
+    // Cada usuario pega livros so da sua faixa, entao um emprestimo nunca e recusado por disputa com outro usuario
+    private static final int LIVROS_POR_USUARIO = 30;
+    private static final int LIVROS_SO_CATALOGO = 2_000;
+    private static final int TAMANHO_PAGINA = 20;
+    private static final String SENHA = "senha-carga";
+
+    private final Logger logger = LoggerFactory.getLogger(CargaEndToEndTest.class);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<Operacao, Histogram> histogramas = new EnumMap<>(Operacao.class);
+
+    private final ConcurrentLinkedQueue<String> erros = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong quantidadeErros = new AtomicLong();
+
+    private volatile boolean medindo;
+
+    @Test
+    @DisplayName("Deve manter o p99 de login, catálogo, empréstimo e devolução dentro do orçamento")
+    void deveManterP99DentroDoOrcamento() throws Exception {
+        for (var operacao : Operacao.values()) {
+            histogramas.put(operacao, new ConcurrentHistogram(3));
+        }
+        var livrosPorUsuario = cadastrarLivros();
+        var usuarios = IntStream.range(0, USUARIOS)
+                .mapToObj(i -> cadastrarUsuario(i, livrosPorUsuario.get(i)))
+                .toList();
+
+        // Todos aquecem juntos; a medicao so comeca quando o ultimo usuario termina o aquecimento
+        var barreira = new CyclicBarrier(USUARIOS, () -> {
+            histogramas.values().forEach(Histogram::reset);
+            medindo = true;
+        });
+        var inicio = new AtomicLong();
+        var executor = Executors.newFixedThreadPool(USUARIOS);
+        try {
+            var tarefas = new ArrayList<Callable<Void>>();
+            for (var usuario : usuarios) {
+                tarefas.add(() -> {
+                    executarOperacoes(usuario, OPERACOES_AQUECIMENTO);
+                    barreira.await();
+                    inicio.compareAndSet(0, System.nanoTime());
+                    executarOperacoes(usuario, OPERACOES_POR_USUARIO);
+                    return null;
+                });
+            }
+            for (var resultado : executor.invokeAll(tarefas)) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        var duracaoSegundos = (System.nanoTime() - inicio.get()) / 1_000_000_000.0;
+
+        publicarResultado(duracaoSegundos);
+
+        assertEquals(0, quantidadeErros.get(), () -> "Requisicoes com erro: " + erros);
+        for (var operacao : Operacao.values()) {
+            var p99Millis = histogramas.get(operacao).getValueAtPercentile(99.0) / 1_000.0;
+            assertTrue(p99Millis <= ORCAMENTO_P99_MILLIS,
+                    () -> "p99 de " + operacao + " em " + p99Millis + " ms passou do orcamento de " + ORCAMENTO_P99_MILLIS + " ms");
+        }
+    }
+
+    private void executarOperacoes(UsuarioVirtual usuario, int quantidade) throws IOException, InterruptedException {
+        for (int i = 0; i < quantidade; i++) {
+            switch (sortearOperacao(usuario)) {
+                case LOGIN -> login(usuario);
+                case CATALOGO -> navegarCatalogo(usuario);
+                case EMPRESTIMO -> realizarEmprestimo(usuario);
+                case DEVOLUCAO -> realizarDevolucao(usuario);
+            }
+        }
+    }
+
+    // Mistura aproximada de um dia de balcao: muita navegacao, emprestimos e devolucoes equilibrados e poucos logins
+    private Operacao sortearOperacao(UsuarioVirtual usuario) {
+        var sorteio = ThreadLocalRandom.current().nextInt(100);
+        if (sorteio < 5) {
+            return Operacao.LOGIN;
+        }
+        if (sorteio < 60) {
+            return Operacao.CATALOGO;
+        }
+        var emprestimo = sorteio < 80;
+        if (emprestimo && usuario.livrosLivres.size() < QUANTIDADE_MAX_NUMERO_EMPRESTIMO) {
+            return Operacao.DEVOLUCAO;
+        }
+        if (!emprestimo && usuario.emprestimosAtivos.isEmpty()) {
+            return Operacao.EMPRESTIMO;
+        }
+        return emprestimo ? Operacao.EMPRESTIMO : Operacao.DEVOLUCAO;
+    }
+
+    private void login(UsuarioVirtual usuario) throws IOException, InterruptedException {
+        var resposta = enviar(Operacao.LOGIN, post("/clientes/login", new LoginRequestDTO(usuario.email, SENHA), null));
+        if (resposta != null) {
+            usuario.token = objectMapper.readValue(resposta, LoginResponseDTO.class).token();
+        }
+    }
+
+    private void navegarCatalogo(UsuarioVirtual usuario) throws IOException, InterruptedException {
+        var caminho = "/livros/paginado?tamanho=" + TAMANHO_PAGINA
+                + (usuario.cursor != null ? "&cursor=" + URLEncoder.encode(usuario.cursor, StandardCharsets.UTF_8) : "");
+        var requisicao = requisicao(caminho, usuario.token).GET().build();
+        var resposta = enviar(Operacao.CATALOGO, requisicao);
+        if (resposta != null) {
+            var pagina = objectMapper.readValue(resposta, PaginaLivrosResponseDTO.class);
+            usuario.cursor = Boolean.TRUE.equals(pagina.possuiProximaPagina()) ? pagina.proximoCursor() : null;
+        }
+    }
+
+    private void realizarEmprestimo(UsuarioVirtual usuario) throws IOException, InterruptedException {
+        var quantidadeLivros = ThreadLocalRandom.current().nextInt(1, QUANTIDADE_MAX_NUMERO_EMPRESTIMO + 1);
+        var livros = new ArrayList<Long>(quantidadeLivros);
+        for (int i = 0; i < quantidadeLivros; i++) {
+            livros.add(usuario.livrosLivres.poll());
+        }
+        var corpo = new EmprestimoRequestDTO(usuario.id, livros, LocalDate.now().plusDays(7));
+        var resposta = enviar(Operacao.EMPRESTIMO, post("/clientes/emprestimos", corpo, usuario.token));
+        if (resposta != null) {
+            var emprestimo = objectMapper.readValue(resposta, EmprestimoResponseDTO.class);
+            usuario.emprestimosAtivos.add(new EmprestimoAtivo(emprestimo.idEmprestimo(), livros));
+        } else {
+            usuario.livrosLivres.addAll(livros);
+        }
+    }
+
+    private void realizarDevolucao(UsuarioVirtual usuario) throws IOException, InterruptedException {
+        var emprestimo = usuario.emprestimosAtivos.poll();
+        var corpo = objectMapper.writeValueAsString(new DevolucaoEmprestimoRequestDTO(usuario.id, emprestimo.id()));
+        var requisicao = requisicao("/clientes/emprestimos/devolucao", usuario.token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        if (enviar(Operacao.DEVOLUCAO, requisicao) != null) {
+            usuario.livrosLivres.addAll(emprestimo.livros());
+        } else {
+            usuario.emprestimosAtivos.add(emprestimo);
+        }
+    }
+
+    // Devolve o corpo da resposta ou null quando o status nao e 200
+    private String enviar(Operacao operacao, HttpRequest requisicao) throws IOException, InterruptedException {
+        var inicio = System.nanoTime();
+        var resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        var duracaoMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+        histogramas.get(operacao).recordValue(duracaoMicros);
+        if (resposta.statusCode() != 200) {
+            if (medindo) {
+                quantidadeErros.incrementAndGet();
+            }
+            if (erros.size() < 20) {
+                erros.add(operacao + " " + resposta.statusCode() + ": " + resposta.body());
+            }
+            return null;
+        }
+        return resposta.body();
+    }
+
+    private HttpRequest post(String caminho, Object corpo, String token) throws IOException {
+        return requisicao(caminho, token)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(corpo)))
+                .build();
+    }
+
+    private HttpRequest.Builder requisicao(String caminho, String token) {
+        var builder = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private List<Deque<Long>> cadastrarLivros() {
+        var livros = livroRepository.saveAll(LongStream.range(0, (long) USUARIOS * LIVROS_POR_USUARIO + LIVROS_SO_CATALOGO)
+                .mapToObj(this::criarLivro)
+                .toList());
+        // O mapa de disponibilidade foi carregado na subida, antes destes livros existirem
+        disponibilidadeLivrosOutputPort.reconciliar();
+        return IntStream.range(0, USUARIOS)
+                .mapToObj(i -> (Deque<Long>) new ArrayDeque<>(livros.subList(i * LIVROS_POR_USUARIO, (i + 1) * LIVROS_POR_USUARIO)
+                        .stream()
+                        .map(LivroEntity::getId)
+                        .toList()))
+                .toList();
+    }
+
+    private UsuarioVirtual cadastrarUsuario(int indice, Deque<Long> livros) {
+        var email = "carga" + indice + "@email.com";
+        try {
+            var cadastro = httpClient.send(post("/clientes/cadastrar", new ClienteRequestDTO("Cliente Carga " + indice, email, SENHA, 0), null),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, cadastro.statusCode(), cadastro::body);
+            var login = httpClient.send(post("/clientes/login", new LoginRequestDTO(email, SENHA), null), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, login.statusCode(), login::body);
+            var loginResponse = objectMapper.readValue(login.body(), LoginResponseDTO.class);
+            return new UsuarioVirtual(loginResponse.id(), email, loginResponse.token(), livros);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void publicarResultado(double duracaoSegundos) throws IOException {
+        Files.createDirectories(DIRETORIO_SAIDA);
+        var resumo = new StringBuilder("operacao,requisicoes,vazao_rps,p50_ms,p90_ms,p99_ms,max_ms\n");
+        long totalRequisicoes = 0;
+        for (var operacao : Operacao.values()) {
+            var histograma = histogramas.get(operacao);
+            totalRequisicoes += histograma.getTotalCount();
+            var linha = String.format(Locale.ROOT, "%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                    operacao, histograma.getTotalCount(), histograma.getTotalCount() / duracaoSegundos,
+                    histograma.getValueAtPercentile(50.0) / 1_000.0, histograma.getValueAtPercentile(90.0) / 1_000.0,
+                    histograma.getValueAtPercentile(99.0) / 1_000.0, histograma.getMaxValue() / 1_000.0);
+            resumo.append(linha).append('\n');
+            logger.warn("Carga {}", linha);
+            try (var saida = new PrintStream(Files.newOutputStream(DIRETORIO_SAIDA.resolve(operacao.name().toLowerCase() + ".hgrm")))) {
+                histograma.outputPercentileDistribution(saida, 1_000.0);
+            }
+        }
+        Files.writeString(DIRETORIO_SAIDA.resolve("resumo.csv"), resumo);
+        logger.warn("Carga concluida: {} usuarios, {} requisicoes em {} s ({} req/s)", USUARIOS, totalRequisicoes,
+                String.format(Locale.ROOT, "%.1f", duracaoSegundos),
+                String.format(Locale.ROOT, "%.1f", totalRequisicoes / duracaoSegundos));
+    }
+
+    private LivroEntity criarLivro(long indice) {
+        var livro = new LivroEntity();
+        livro.setTitulo("Livro de carga " + indice);
+        livro.setAutor("Autor " + indice % 50);
+        livro.setEditora("Editora " + indice % 10);
+        livro.setAnoPublicacao(1900 + (int) (indice % 120));
+        livro.setDisponivel(true);
+        return livro;
+    }
+
+    private enum Operacao {
+        LOGIN, CATALOGO, EMPRESTIMO, DEVOLUCAO
+    }
+
+    private record EmprestimoAtivo(Long id, List<Long> livros) {
+    }
+
+    // Estado de um usuario virtual; cada um roda numa unica thread
+    private static final class UsuarioVirtual {
+
+        private final Long id;
+        private final String email;
+        private final Deque<Long> livrosLivres;
+        private final Deque<EmprestimoAtivo> emprestimosAtivos = new ArrayDeque<>();
+        private String token;
+        private String cursor;
+
+        private UsuarioVirtual(Long id, String email, String token, Deque<Long> livrosLivres) {
+            this.id = id;
+            this.email = email;
+            this.token = token;
+            this.livrosLivres = livrosLivres;
+        }
+    }
+}
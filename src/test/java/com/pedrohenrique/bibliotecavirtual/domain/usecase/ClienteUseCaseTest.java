@@ -2,6 +2,9 @@ package com.pedrohenrique.bibliotecavirtual.domain.usecase;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Cliente;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.enums.Perfil;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
@@ -114,6 +117,30 @@ class ClienteUseCaseTest {
         verify(emprestimoUseCase, times(1)).realizarEmprestimo(emprestimo);
     }
 
+    @Test
+    @DisplayName("Deve delegar empréstimos em lote para o caso de uso de empréstimo")
+    void deveDelegarEmprestimosEmLote() {
+        var itens = List.of(new ItemEmprestimoLote(0, emprestimo));
+        when(emprestimoUseCase.realizarEmprestimosEmLote(List.of(emprestimo))).thenReturn(itens);
+
+        var resultado = clienteUseCase.realizarEmprestimosEmLote(List.of(emprestimo));
+
+        assertSame(itens, resultado);
+        verify(emprestimoUseCase, times(1)).realizarEmprestimosEmLote(List.of(emprestimo));
+    }
+
+    @Test
+    @DisplayName("Deve delegar devoluções em lote para o caso de uso de empréstimo")
+    void deveDelegarDevolucoesEmLote() {
+        var resultadoEsperado = new ResultadoDevolucaoLote(List.of(1L), List.of(10L), List.of(), List.of());
+        when(emprestimoUseCase.realizarDevolucoesEmLote(List.of(1L), null)).thenReturn(resultadoEsperado);
+
+        var resultado = clienteUseCase.realizarDevolucoesEmLote(List.of(1L), null);
+
+        assertSame(resultadoEsperado, resultado);
+        verify(emprestimoUseCase, times(1)).realizarDevolucoesEmLote(List.of(1L), null);
+    }
+
     @Test
     @DisplayName("Deve realizar devolução de empréstimo com sucesso")
     void deveRealizarDevolucaoDeEmprestimoComSucesso() {
@@ -144,25 +171,25 @@ class ClienteUseCaseTest {
     @Test
     @DisplayName("Deve visualizar todos os empréstimos do cliente")
     void deveVisualizarTodosOsEmprestimosDoCliente() {
-        when(emprestimoUseCase.visualizarTodosOsEmprestimos(1L)).thenReturn(emprestimos);
+        when(emprestimoUseCase.visualizarTodosOsEmprestimos(1L, null, null, null)).thenReturn(new Pagina<>(emprestimos, 0, 20, false));
 
-        List<Emprestimo> resultado = clienteUseCase.visualizarTodosOsEmprestimos(1L);
+        Pagina<Emprestimo> resultado = clienteUseCase.visualizarTodosOsEmprestimos(1L, null, null, null);
 
         assertNotNull(resultado);
-        assertEquals(2, resultado.size());
-        verify(emprestimoUseCase, times(1)).visualizarTodosOsEmprestimos(1L);
+        assertEquals(2, resultado.getItens().size());
+        verify(emprestimoUseCase, times(1)).visualizarTodosOsEmprestimos(1L, null, null, null);
     }
 
     @Test
     @DisplayName("Deve retornar lista vazia quando cliente não tem empréstimos")
     void deveRetornarListaVaziaQuandoClienteNaoTemEmprestimos() {
-        when(emprestimoUseCase.visualizarTodosOsEmprestimos(1L)).thenReturn(Collections.emptyList());
+        when(emprestimoUseCase.visualizarTodosOsEmprestimos(1L, null, null, null)).thenReturn(new Pagina<>(Collections.emptyList(), 0, 20, false));
 
-        List<Emprestimo> resultado = clienteUseCase.visualizarTodosOsEmprestimos(1L);
+        Pagina<Emprestimo> resultado = clienteUseCase.visualizarTodosOsEmprestimos(1L, null, null, null);
 
         assertNotNull(resultado);
-        assertTrue(resultado.isEmpty());
-        verify(emprestimoUseCase, times(1)).visualizarTodosOsEmprestimos(1L);
+        assertTrue(resultado.getItens().isEmpty());
+        verify(emprestimoUseCase, times(1)).visualizarTodosOsEmprestimos(1L, null, null, null);
     }
 
     @Test
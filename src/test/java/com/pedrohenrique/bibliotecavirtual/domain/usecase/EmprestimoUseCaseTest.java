@@ -1,8 +1,14 @@
 package com.pedrohenrique.bibliotecavirtual.domain.usecase;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.Pagina;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoDevolucaoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoInexistenteException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoInvalidoException;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.EmprestimoOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.validate.EmprestimoValidate;
@@ -12,16 +18,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +47,12 @@ class EmprestimoUseCaseTest {
     @Mock
     private LivroOutputPort livroOutputPort;
 
+    @Mock
+    private DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
+    @Spy
+    private Paginacao paginacao = new Paginacao(20, 100);
+
     @InjectMocks
     private EmprestimoUseCase emprestimoUseCase;
 
@@ -76,9 +92,8 @@ class EmprestimoUseCaseTest {
     @Test
     @DisplayName("Deve realizar empréstimo com sucesso")
     void deveRealizarEmprestimoComSucesso() {
-        doNothing().when(emprestimoValidate).validarEmprestimo(any(Emprestimo.class));
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
+        when(emprestimoValidate.validarEmprestimo(any(Emprestimo.class))).thenReturn(List.of(livro1, livro2));
+        when(livroOutputPort.reservarLivros(List.of(1L, 2L))).thenReturn(2);
         when(emprestimoOutputPort.realizarEmprestimo(any(Emprestimo.class))).thenReturn(emprestimo);
 
         Emprestimo resultado = emprestimoUseCase.realizarEmprestimo(emprestimo);
@@ -89,6 +104,36 @@ class EmprestimoUseCaseTest {
         assertTrue(resultado.getAtivo());
         verify(emprestimoValidate, times(1)).validarEmprestimo(any(Emprestimo.class));
         verify(emprestimoOutputPort, times(1)).realizarEmprestimo(any(Emprestimo.class));
+        verify(livroOutputPort, times(1)).reservarLivros(List.of(1L, 2L));
+        verify(disponibilidadeLivrosOutputPort, times(1)).marcarIndisponiveis(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção e não registrar empréstimo quando algum livro já foi reservado por outro empréstimo")
+    void deveLancarExcecaoQuandoAlgumLivroJaFoiReservadoPorOutroEmprestimo() {
+        ReflectionTestUtils.setField(emprestimoUseCase, "mensagemErroLivroIndisponivel", "Livro indisponível");
+        when(emprestimoValidate.validarEmprestimo(any(Emprestimo.class))).thenReturn(List.of(livro1, livro2));
+        when(livroOutputPort.reservarLivros(List.of(1L, 2L))).thenReturn(1);
+
+        var exception = assertThrows(BusinessException.class,
+            () -> emprestimoUseCase.realizarEmprestimo(emprestimo));
+
+        assertEquals("Livro indisponível", exception.getMessage());
+        verify(emprestimoOutputPort, never()).realizarEmprestimo(any(Emprestimo.class));
+        verify(disponibilidadeLivrosOutputPort, never()).marcarIndisponiveis(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve reservar cada livro uma única vez quando houver IDs repetidos")
+    void deveReservarCadaLivroUmaUnicaVezQuandoHouverIdsRepetidos() {
+        emprestimo.setLivros(Arrays.asList(1L, 1L, 2L));
+        when(emprestimoValidate.validarEmprestimo(any(Emprestimo.class))).thenReturn(List.of(livro1, livro2));
+        when(livroOutputPort.reservarLivros(List.of(1L, 2L))).thenReturn(2);
+        when(emprestimoOutputPort.realizarEmprestimo(any(Emprestimo.class))).thenReturn(emprestimo);
+
+        assertDoesNotThrow(() -> emprestimoUseCase.realizarEmprestimo(emprestimo));
+
+        verify(livroOutputPort, times(1)).reservarLivros(List.of(1L, 2L));
     }
 
     @Test
@@ -108,9 +153,8 @@ class EmprestimoUseCaseTest {
     @Test
     @DisplayName("Deve definir data de empréstimo como data atual")
     void deveDefinirDataEmprestimoComoDataAtual() {
-        doNothing().when(emprestimoValidate).validarEmprestimo(any(Emprestimo.class));
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
+        when(emprestimoValidate.validarEmprestimo(any(Emprestimo.class))).thenReturn(List.of(livro1, livro2));
+        when(livroOutputPort.reservarLivros(List.of(1L, 2L))).thenReturn(2);
         when(emprestimoOutputPort.realizarEmprestimo(any(Emprestimo.class))).thenReturn(emprestimo);
 
         Emprestimo resultado = emprestimoUseCase.realizarEmprestimo(emprestimo);
@@ -121,9 +165,8 @@ class EmprestimoUseCaseTest {
     @Test
     @DisplayName("Deve definir empréstimo como ativo")
     void deveDefinirEmprestimoComoAtivo() {
-        doNothing().when(emprestimoValidate).validarEmprestimo(any(Emprestimo.class));
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
+        when(emprestimoValidate.validarEmprestimo(any(Emprestimo.class))).thenReturn(List.of(livro1, livro2));
+        when(livroOutputPort.reservarLivros(List.of(1L, 2L))).thenReturn(2);
         when(emprestimoOutputPort.realizarEmprestimo(any(Emprestimo.class))).thenReturn(emprestimo);
 
         Emprestimo resultado = emprestimoUseCase.realizarEmprestimo(emprestimo);
@@ -134,27 +177,40 @@ class EmprestimoUseCaseTest {
     @Test
     @DisplayName("Deve visualizar todos os empréstimos de um cliente")
     void deveVisualizarTodosOsEmprestimosDeUmCliente() {
-        when(emprestimoOutputPort.visualizarTodosOsEmprestimos(1L)).thenReturn(emprestimos);
+        when(emprestimoOutputPort.visualizarTodosOsEmprestimos(1L, null, 0, 20)).thenReturn(new Pagina<>(emprestimos, 0, 20, false));
 
-        List<Emprestimo> resultado = emprestimoUseCase.visualizarTodosOsEmprestimos(1L);
+        Pagina<Emprestimo> resultado = emprestimoUseCase.visualizarTodosOsEmprestimos(1L, null, null, null);
 
         assertNotNull(resultado);
-        assertEquals(2, resultado.size());
-        assertEquals(1L, resultado.get(0).getId());
-        assertEquals(2L, resultado.get(1).getId());
-        verify(emprestimoOutputPort, times(1)).visualizarTodosOsEmprestimos(1L);
+        assertEquals(2, resultado.getItens().size());
+        assertEquals(1L, resultado.getItens().get(0).getId());
+        assertEquals(2L, resultado.getItens().get(1).getId());
+        assertNull(resultado.getProximaPagina());
+        verify(emprestimoOutputPort, times(1)).visualizarTodosOsEmprestimos(1L, null, 0, 20);
     }
 
     @Test
     @DisplayName("Deve retornar lista vazia quando cliente não tiver empréstimos")
     void deveRetornarListaVaziaQuandoClienteNaoTiverEmprestimos() {
-        when(emprestimoOutputPort.visualizarTodosOsEmprestimos(999L)).thenReturn(Collections.emptyList());
+        when(emprestimoOutputPort.visualizarTodosOsEmprestimos(999L, true, 1, 10)).thenReturn(new Pagina<>(Collections.emptyList(), 1, 10, false));
 
-        List<Emprestimo> resultado = emprestimoUseCase.visualizarTodosOsEmprestimos(999L);
+        Pagina<Emprestimo> resultado = emprestimoUseCase.visualizarTodosOsEmprestimos(999L, true, 1, 10);
 
         assertNotNull(resultado);
-        assertTrue(resultado.isEmpty());
-        verify(emprestimoOutputPort, times(1)).visualizarTodosOsEmprestimos(999L);
+        assertTrue(resultado.getItens().isEmpty());
+        verify(emprestimoOutputPort, times(1)).visualizarTodosOsEmprestimos(999L, true, 1, 10);
+    }
+
+    @Test
+    @DisplayName("Deve normalizar página negativa e limitar o tamanho ao máximo configurado")
+    void deveNormalizarPaginaNegativaELimitarTamanhoAoMaximoConfigurado() {
+        when(emprestimoOutputPort.visualizarTodosOsEmprestimos(1L, false, 0, 100)).thenReturn(new Pagina<>(emprestimos, 0, 100, true));
+
+        Pagina<Emprestimo> resultado = emprestimoUseCase.visualizarTodosOsEmprestimos(1L, false, -3, 5000);
+
+        assertEquals(2, resultado.getItens().size());
+        assertEquals(1, resultado.getProximaPagina());
+        verify(emprestimoOutputPort, times(1)).visualizarTodosOsEmprestimos(1L, false, 0, 100);
     }
 
     @Test
@@ -171,10 +227,8 @@ class EmprestimoUseCaseTest {
         emprestimoDoDb.setDataDevolucao(null);
         emprestimoDoDb.setDataEmprestimo(LocalDate.now());
 
-        doNothing().when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoDoDb);
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
+        when(emprestimoValidate.validarDevolucao(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
+        when(livroOutputPort.liberarLivros(List.of(1L, 2L))).thenReturn(2);
         when(emprestimoOutputPort.realizarDevolucaoEmprestimo(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
 
         Emprestimo resultado = emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo);
@@ -182,15 +236,14 @@ class EmprestimoUseCaseTest {
         assertNotNull(resultado);
         assertFalse(resultado.getAtivo());
         verify(emprestimoValidate, times(1)).validarDevolucao(any(Emprestimo.class));
-        verify(emprestimoOutputPort, times(1)).getReferenceById(1L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(1L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(2L);
+        verify(livroOutputPort, times(1)).liberarLivros(List.of(1L, 2L));
+        verify(disponibilidadeLivrosOutputPort, times(1)).marcarDisponiveis(List.of(1L, 2L));
         verify(emprestimoOutputPort, times(1)).realizarDevolucaoEmprestimo(any(Emprestimo.class));
     }
 
     @Test
-    @DisplayName("Deve marcar livros como disponíveis após devolução")
-    void deveMarcarLivrosComoDisponiveisAposDevolucao() {
+    @DisplayName("Deve liberar livros após devolução")
+    void deveLiberarLivrosAposDevolucao() {
         emprestimo.setAtivo(true);
         emprestimo.setId(1L);
 
@@ -202,21 +255,14 @@ class EmprestimoUseCaseTest {
         emprestimoDoDb.setDataDevolucao(null);
         emprestimoDoDb.setDataEmprestimo(LocalDate.now());
 
-        livro1.setDisponivel(false);
-        livro2.setDisponivel(false);
-
-        doNothing().when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoDoDb);
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
+        when(emprestimoValidate.validarDevolucao(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
+        when(livroOutputPort.liberarLivros(List.of(1L, 2L))).thenReturn(2);
         when(emprestimoOutputPort.realizarDevolucaoEmprestimo(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
 
         emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo);
 
-        assertTrue(livro1.getDisponivel());
-        assertTrue(livro2.getDisponivel());
-        verify(livroOutputPort, times(1)).buscarLivroPorId(1L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(2L);
+        verify(livroOutputPort, times(1)).liberarLivros(List.of(1L, 2L));
+        verify(livroOutputPort, never()).findAllByIdIn(anyList());
     }
 
     @Test
@@ -225,16 +271,37 @@ class EmprestimoUseCaseTest {
         emprestimo.setAtivo(true);
         emprestimo.setId(999L); // ID que não existe
 
-        doNothing().when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
-        when(emprestimoOutputPort.getReferenceById(999L)).thenReturn(null);
+        doThrow(new EmprestimoInexistenteException("Empréstimo não encontrado"))
+                .when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
 
         var exception = assertThrows(BusinessException.class,
             () -> emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo));
 
         assertEquals("Empréstimo não encontrado", exception.getMessage());
         verify(emprestimoValidate, times(1)).validarDevolucao(any(Emprestimo.class));
-        verify(emprestimoOutputPort, times(1)).getReferenceById(999L);
         verify(emprestimoOutputPort, never()).realizarDevolucaoEmprestimo(any(Emprestimo.class));
+        verify(livroOutputPort, never()).liberarLivros(anyList());
+    }
+
+    @Test
+    @DisplayName("Não deve liberar livros quando o empréstimo já tiver sido devolvido por outra requisição")
+    void naoDeveLiberarLivrosQuandoEmprestimoJaTiverSidoDevolvidoPorOutraRequisicao() {
+        Emprestimo emprestimoDoDb = new Emprestimo();
+        emprestimoDoDb.setId(1L);
+        emprestimoDoDb.setClienteId(1L);
+        emprestimoDoDb.setLivros(List.of(1L, 2L));
+        emprestimoDoDb.setAtivo(true);
+
+        when(emprestimoValidate.validarDevolucao(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
+        when(emprestimoOutputPort.realizarDevolucaoEmprestimo(emprestimoDoDb))
+                .thenThrow(new EmprestimoInvalidoException("Este empréstimo já foi devolvido"));
+
+        var exception = assertThrows(BusinessException.class,
+            () -> emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo));
+
+        assertEquals("Este empréstimo já foi devolvido", exception.getMessage());
+        verify(livroOutputPort, never()).liberarLivros(anyList());
+        verifyNoInteractions(disponibilidadeLivrosOutputPort);
     }
 
     @Test
@@ -251,9 +318,8 @@ class EmprestimoUseCaseTest {
         emprestimoDoDb.setDataDevolucao(null);
         emprestimoDoDb.setDataEmprestimo(LocalDate.now());
 
-        doNothing().when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoDoDb);
-        when(livroOutputPort.buscarLivroPorId(anyLong())).thenReturn(Optional.of(livro1));
+        when(emprestimoValidate.validarDevolucao(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
+        when(livroOutputPort.liberarLivros(anyList())).thenReturn(2);
         when(emprestimoOutputPort.realizarDevolucaoEmprestimo(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
 
         Emprestimo resultado = emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo);
@@ -275,10 +341,8 @@ class EmprestimoUseCaseTest {
         emprestimoDoDb.setDataDevolucao(null);
         emprestimoDoDb.setDataEmprestimo(LocalDate.now());
 
-        doNothing().when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoDoDb);
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
+        when(emprestimoValidate.validarDevolucao(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
+        when(livroOutputPort.liberarLivros(List.of(1L, 2L))).thenReturn(2);
         when(emprestimoOutputPort.realizarDevolucaoEmprestimo(any(Emprestimo.class))).thenAnswer(invocation -> {
             Emprestimo arg = invocation.getArgument(0);
             arg.setDataDevolucao(LocalDate.now());
@@ -294,10 +358,6 @@ class EmprestimoUseCaseTest {
     @Test
     @DisplayName("Deve processar devolução de múltiplos livros corretamente")
     void deveProcessarDevolucaoDeMultiplosLivrosCorretamente() {
-        Livro livro3 = new Livro();
-        livro3.setId(3L);
-        livro3.setDisponivel(false);
-
         emprestimo.setId(1L);
 
         Emprestimo emprestimoDoDb = new Emprestimo();
@@ -308,24 +368,15 @@ class EmprestimoUseCaseTest {
         emprestimoDoDb.setDataDevolucao(null);
         emprestimoDoDb.setDataEmprestimo(LocalDate.now());
 
-        livro1.setDisponivel(false);
-        livro2.setDisponivel(false);
-
-        doNothing().when(emprestimoValidate).validarDevolucao(any(Emprestimo.class));
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoDoDb);
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
-        when(livroOutputPort.buscarLivroPorId(3L)).thenReturn(Optional.of(livro3));
+        when(emprestimoValidate.validarDevolucao(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
+        when(livroOutputPort.liberarLivros(List.of(1L, 2L, 3L))).thenReturn(3);
         when(emprestimoOutputPort.realizarDevolucaoEmprestimo(any(Emprestimo.class))).thenReturn(emprestimoDoDb);
 
-        emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo);
+        Emprestimo resultado = emprestimoUseCase.realizarDevolucaoEmprestimo(emprestimo);
 
-        assertTrue(livro1.getDisponivel());
-        assertTrue(livro2.getDisponivel());
-        assertTrue(livro3.getDisponivel());
-        verify(livroOutputPort, times(1)).buscarLivroPorId(1L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(2L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(3L);
+        assertFalse(resultado.getAtivo());
+        verify(livroOutputPort, times(1)).liberarLivros(List.of(1L, 2L, 3L));
+        verify(livroOutputPort, never()).buscarLivroPorId(anyLong());
     }
 
     @Test
@@ -338,18 +389,110 @@ class EmprestimoUseCaseTest {
 
         emprestimo.setLivros(Arrays.asList(1L, 2L, 3L));
 
-        doNothing().when(emprestimoValidate).validarEmprestimo(any(Emprestimo.class));
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro1));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
-        when(livroOutputPort.buscarLivroPorId(3L)).thenReturn(Optional.of(livro3));
+        when(emprestimoValidate.validarEmprestimo(any(Emprestimo.class))).thenReturn(List.of(livro1, livro2, livro3));
+        when(livroOutputPort.reservarLivros(List.of(1L, 2L, 3L))).thenReturn(3);
 
         emprestimoUseCase.realizarEmprestimo(emprestimo);
 
-        assertFalse(livro1.getDisponivel());
-        assertFalse(livro2.getDisponivel());
-        assertFalse(livro3.getDisponivel());
-        verify(livroOutputPort, times(1)).buscarLivroPorId(1L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(2L);
-        verify(livroOutputPort, times(1)).buscarLivroPorId(3L);
+        verify(livroOutputPort, times(1)).reservarLivros(List.of(1L, 2L, 3L));
+        verify(disponibilidadeLivrosOutputPort, times(1)).marcarIndisponiveis(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Deve realizar em lote os itens válidos e recusar os que perderam o livro na trava")
+    @SuppressWarnings("unchecked")
+    void deveRealizarEmprestimosEmLoteRecusandoItensSemLivroTravado() {
+        ReflectionTestUtils.setField(emprestimoUseCase, "mensagemErroLivroIndisponivel", "Livro indisponível");
+        var emprestimoA = criarEmprestimoLote(1L, List.of(1L));
+        var emprestimoB = criarEmprestimoLote(2L, List.of(2L));
+        var emprestimoC = criarEmprestimoLote(3L, List.of(3L));
+        doAnswer(invocation -> {
+            List<ItemEmprestimoLote> itens = invocation.getArgument(0);
+            itens.get(2).recusar("Cliente não encontrado");
+            return null;
+        }).when(emprestimoValidate).validarEmprestimosEmLote(anyList());
+        when(livroOutputPort.travarLivrosDisponiveis(List.of(1L, 2L))).thenReturn(Set.of(1L));
+        when(livroOutputPort.reservarLivros(List.of(1L))).thenReturn(1);
+        var emprestimoSalvo = criarEmprestimoLote(1L, List.of(1L));
+        emprestimoSalvo.setId(10L);
+        when(emprestimoOutputPort.realizarEmprestimos(List.of(emprestimoA))).thenReturn(List.of(emprestimoSalvo));
+
+        var itens = emprestimoUseCase.realizarEmprestimosEmLote(List.of(emprestimoA, emprestimoB, emprestimoC));
+
+        assertEquals(3, itens.size());
+        assertFalse(itens.get(0).recusado());
+        assertEquals(10L, itens.get(0).getEmprestimo().getId());
+        assertEquals("Livro indisponível", itens.get(1).getErro());
+        assertEquals("Cliente não encontrado", itens.get(2).getErro());
+        assertEquals(LocalDate.now(), emprestimoB.getDataEmprestimo());
+        assertTrue(emprestimoB.getAtivo());
+        verify(disponibilidadeLivrosOutputPort, times(1)).marcarIndisponiveis(List.of(1L));
+        verify(emprestimoOutputPort, never()).realizarEmprestimo(any(Emprestimo.class));
+    }
+
+    @Test
+    @DisplayName("Não deve travar nem gravar nada quando todos os itens do lote forem recusados")
+    @SuppressWarnings("unchecked")
+    void naoDeveTravarNemGravarQuandoTodosItensDoLoteForemRecusados() {
+        doAnswer(invocation -> {
+            List<ItemEmprestimoLote> itens = invocation.getArgument(0);
+            itens.forEach(item -> item.recusar("Livro indisponível"));
+            return null;
+        }).when(emprestimoValidate).validarEmprestimosEmLote(anyList());
+
+        var itens = emprestimoUseCase.realizarEmprestimosEmLote(List.of(criarEmprestimoLote(1L, List.of(1L))));
+
+        assertTrue(itens.get(0).recusado());
+        verify(livroOutputPort, never()).travarLivrosDisponiveis(any());
+        verify(livroOutputPort, never()).reservarLivros(anyList());
+        verify(emprestimoOutputPort, never()).realizarEmprestimos(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve devolver em lote pelos ids dos empréstimos e liberar os livros devolvidos")
+    void deveDevolverEmLotePelosIdsDosEmprestimosELiberarLivros() {
+        var resultadoEsperado = new ResultadoDevolucaoLote(List.of(1L, 2L), List.of(10L, 11L, 12L), List.of(), List.of(3L));
+        when(emprestimoOutputPort.devolverEmprestimos(eq(List.of(1L, 2L, 3L)), any(LocalDate.class))).thenReturn(resultadoEsperado);
+        when(livroOutputPort.liberarLivros(List.of(10L, 11L, 12L))).thenReturn(3);
+
+        var resultado = emprestimoUseCase.realizarDevolucoesEmLote(List.of(1L, 2L, 3L, 2L), null);
+
+        assertSame(resultadoEsperado, resultado);
+        verify(emprestimoValidate).validarDevolucoesEmLote(List.of(1L, 2L, 3L, 2L), null);
+        verify(disponibilidadeLivrosOutputPort).marcarDisponiveis(List.of(10L, 11L, 12L));
+        verify(emprestimoOutputPort, never()).devolverEmprestimosPorLivros(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver em lote pelos ids dos livros sem liberar nada quando nenhum empréstimo for encerrado")
+    void deveDevolverEmLotePelosIdsDosLivrosSemLiberarQuandoNadaForEncerrado() {
+        var resultadoEsperado = new ResultadoDevolucaoLote(List.of(), List.of(), List.of(5L), List.of(20L));
+        when(emprestimoOutputPort.devolverEmprestimosPorLivros(eq(List.of(10L, 20L)), any(LocalDate.class))).thenReturn(resultadoEsperado);
+
+        var resultado = emprestimoUseCase.realizarDevolucoesEmLote(List.of(), List.of(10L, 20L));
+
+        assertEquals(List.of(5L), resultado.getEmprestimosIncompletos());
+        verify(emprestimoOutputPort, never()).devolverEmprestimos(anyCollection(), any());
+        verify(livroOutputPort, never()).liberarLivros(anyList());
+        verifyNoInteractions(disponibilidadeLivrosOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve interromper a devolução em lote quando a validação falhar")
+    void deveInterromperDevolucaoEmLoteQuandoValidacaoFalhar() {
+        doThrow(new BusinessException("Informe os empréstimos ou os livros"))
+                .when(emprestimoValidate).validarDevolucoesEmLote(List.of(1L), List.of(2L));
+
+        assertThrows(BusinessException.class, () -> emprestimoUseCase.realizarDevolucoesEmLote(List.of(1L), List.of(2L)));
+
+        verifyNoInteractions(emprestimoOutputPort, livroOutputPort, disponibilidadeLivrosOutputPort);
+    }
+
+    private Emprestimo criarEmprestimoLote(Long clienteId, List<Long> livros) {
+        var novoEmprestimo = new Emprestimo();
+        novoEmprestimo.setClienteId(clienteId);
+        novoEmprestimo.setLivros(livros);
+        novoEmprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
+        return novoEmprestimo;
     }
 }
@@ -1,7 +1,14 @@
 package com.pedrohenrique.bibliotecavirtual.domain.usecase;
 
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ErroImportacaoLivro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.LinhaImportacaoLivro;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.PaginaCursor;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ResultadoCargaLivros;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.BusinessException;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.CargaLivrosOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.IndiceLivrosOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.usecase.validate.LivroValidate;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,15 +17,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -31,6 +46,18 @@ class LivroUseCaseTest {
     @Mock
     private LivroValidate livroValidate;
 
+    @Mock
+    private IndiceLivrosOutputPort indiceLivrosOutputPort;
+
+    @Mock
+    private DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
+    @Mock
+    private CargaLivrosOutputPort cargaLivrosOutputPort;
+
+    @Spy
+    private Paginacao paginacao = new Paginacao(20, 100);
+
     @InjectMocks
     private LivroUseCase livroUseCase;
 
@@ -56,6 +83,257 @@ class LivroUseCaseTest {
         livro2.setDisponivel(true);
 
         livros = Arrays.asList(livro, livro2);
+
+        ReflectionTestUtils.setField(livroUseCase, "tamanhoLoteImportacao", 3);
+        ReflectionTestUtils.setField(livroUseCase, "maximoErrosReportadosImportacao", 10);
+        ReflectionTestUtils.setField(livroUseCase, "mensagemErroLivroExistente", "Livro já existe: ");
+        ReflectionTestUtils.setField(livroUseCase, "mensagemErroTituloRepetido", "Título repetido no arquivo: ");
+        ReflectionTestUtils.setField(livroUseCase, "mensagemErroGravacaoImportacao", "Não foi possível gravar o livro");
+    }
+
+    @Test
+    @DisplayName("Deve retornar página de livros com cursor quando existir próxima página")
+    void deveRetornarPaginaDeLivrosComCursorQuandoExistirProximaPagina() {
+        when(livroOutputPort.visualizarLivrosAposId(null, 2)).thenReturn(livros);
+
+        PaginaCursor<Livro> resultado = livroUseCase.visualizarLivrosPaginados(null, 1);
+
+        assertEquals(1, resultado.getItens().size());
+        assertEquals(1L, resultado.getProximoCursor());
+        assertTrue(resultado.possuiProximaPagina());
+        verify(livroOutputPort, times(1)).visualizarLivrosAposId(null, 2);
+    }
+
+    @Test
+    @DisplayName("Deve retornar última página sem cursor")
+    void deveRetornarUltimaPaginaSemCursor() {
+        when(livroOutputPort.visualizarLivrosAposId(1L, 21)).thenReturn(List.of(livros.get(1)));
+
+        PaginaCursor<Livro> resultado = livroUseCase.visualizarLivrosPaginados(1L, null);
+
+        assertEquals(1, resultado.getItens().size());
+        assertNull(resultado.getProximoCursor());
+        assertFalse(resultado.possuiProximaPagina());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tamanho da página ao máximo configurado")
+    void deveLimitarTamanhoDaPaginaAoMaximoConfigurado() {
+        when(livroOutputPort.visualizarLivrosAposId(null, 101)).thenReturn(Collections.emptyList());
+
+        PaginaCursor<Livro> resultado = livroUseCase.visualizarLivrosPaginados(null, 5000);
+
+        assertTrue(resultado.getItens().isEmpty());
+        verify(livroOutputPort, times(1)).visualizarLivrosAposId(null, 101);
+    }
+
+    @Test
+    @DisplayName("Deve listar livros disponíveis pelo banco enquanto o mapa de disponibilidade não estiver carregado")
+    void deveListarLivrosDisponiveisPeloBancoEnquantoMapaNaoEstiverCarregado() {
+        when(disponibilidadeLivrosOutputPort.carregado()).thenReturn(false);
+        when(livroOutputPort.visualizarLivrosDisponiveisAposId(null, 2)).thenReturn(livros);
+
+        PaginaCursor<Livro> resultado = livroUseCase.visualizarLivrosDisponiveisPaginados(null, 1);
+
+        assertEquals(1, resultado.getItens().size());
+        assertEquals(1L, resultado.getProximoCursor());
+        verify(disponibilidadeLivrosOutputPort, never()).idsDisponiveisAposId(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve listar livros disponíveis pelo mapa descartando os que o banco indicar emprestados")
+    void deveListarLivrosDisponiveisPeloMapaDescartandoEmprestados() {
+        Livro livro3 = new Livro();
+        livro3.setId(3L);
+        livro3.setDisponivel(false);
+        when(disponibilidadeLivrosOutputPort.carregado()).thenReturn(true);
+        when(disponibilidadeLivrosOutputPort.idsDisponiveisAposId(null, 3)).thenReturn(List.of(1L, 3L, 5L));
+        when(livroOutputPort.findAllByIdIn(List.of(1L, 3L))).thenReturn(List.of(livro3, livro));
+
+        PaginaCursor<Livro> resultado = livroUseCase.visualizarLivrosDisponiveisPaginados(null, 2);
+
+        assertEquals(List.of(livro), resultado.getItens());
+        assertEquals(3L, resultado.getProximoCursor());
+        verify(livroOutputPort, never()).visualizarLivrosDisponiveisAposId(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve exportar o catálogo repassando cada livro ao consumidor")
+    @SuppressWarnings("unchecked")
+    void deveExportarCatalogoRepassandoCadaLivroAoConsumidor() {
+        doAnswer(invocation -> {
+            Consumer<Livro> consumidor = invocation.getArgument(0);
+            livros.forEach(consumidor);
+            return null;
+        }).when(livroOutputPort).exportarLivros(any(Consumer.class));
+        List<Livro> exportados = new ArrayList<>();
+
+        livroUseCase.exportarCatalogo(exportados::add);
+
+        assertEquals(livros, exportados);
+        verify(livroOutputPort, times(1)).exportarLivros(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros pelo termo com paginação normalizada")
+    void deveBuscarLivrosPeloTermoComPaginacaoNormalizada() {
+        doNothing().when(livroValidate).validarTermoBusca("machado");
+        when(livroOutputPort.buscarLivros("machado", 0, 100)).thenReturn(livros);
+
+        List<Livro> resultado = livroUseCase.buscarLivros("machado", -1, 5000);
+
+        assertEquals(2, resultado.size());
+        verify(livroOutputPort, times(1)).buscarLivros("machado", 0, 100);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção e não buscar quando o termo for inválido")
+    void deveLancarExcecaoENaoBuscarQuandoTermoForInvalido() {
+        doThrow(new BusinessException("O termo de busca deve ter ao menos 2 caracteres"))
+                .when(livroValidate).validarTermoBusca("a");
+
+        assertThrows(BusinessException.class, () -> livroUseCase.buscarLivros("a", null, null));
+
+        verify(livroOutputPort, never()).buscarLivros(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve buscar no índice em memória e devolver os livros na ordem do índice")
+    void deveBuscarNoIndiceEmMemoriaEDevolverNaOrdemDoIndice() {
+        doNothing().when(livroValidate).validarTermoBusca("machado");
+        when(indiceLivrosOutputPort.ativo()).thenReturn(true);
+        when(indiceLivrosOutputPort.buscar("machado", 0, 20)).thenReturn(List.of(2L, 1L));
+        when(livroOutputPort.findAllByIdIn(List.of(2L, 1L))).thenReturn(livros);
+
+        List<Livro> resultado = livroUseCase.buscarLivros("machado", null, null);
+
+        assertEquals(List.of(2L, 1L), resultado.stream().map(Livro::getId).toList());
+        verify(livroOutputPort, never()).buscarLivros(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco quando o índice em memória não encontrar livros")
+    void naoDeveConsultarBancoQuandoIndiceNaoEncontrarLivros() {
+        doNothing().when(livroValidate).validarTermoBusca("inexistente");
+        when(indiceLivrosOutputPort.ativo()).thenReturn(true);
+        when(indiceLivrosOutputPort.buscar("inexistente", 0, 20)).thenReturn(List.of());
+
+        List<Livro> resultado = livroUseCase.buscarLivros("inexistente", null, null);
+
+        assertTrue(resultado.isEmpty());
+        verify(livroOutputPort, never()).findAllByIdIn(any());
+        verify(livroOutputPort, never()).buscarLivros(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve importar os livros válidos e reportar os erros de cada linha sem interromper a importação")
+    void deveImportarLivrosValidosEReportarErrosPorLinha() {
+        var helena = criarLivro("Helena");
+        var helenaRepetido = criarLivro("HELENA");
+        var helenaSalvo = criarLivro("Helena");
+        helenaSalvo.setId(10L);
+        var linhas = List.of(
+                LinhaImportacaoLivro.valida(1, livro),
+                LinhaImportacaoLivro.invalida(2, "Linha com 1 colunas, esperado 4"),
+                LinhaImportacaoLivro.valida(3, helena),
+                LinhaImportacaoLivro.valida(4, helenaRepetido));
+        when(livroOutputPort.buscarTitulosExistentes(Set.of("DOM CASMURRO", "HELENA"))).thenReturn(Set.of("DOM CASMURRO"));
+        when(livroOutputPort.cadastrarLivros(List.of(helena))).thenReturn(List.of(helenaSalvo));
+
+        var resultado = livroUseCase.importarLivros(linhas.iterator());
+
+        assertEquals(4, resultado.getLinhasProcessadas());
+        assertEquals(1, resultado.getImportados());
+        assertEquals(3, resultado.getTotalErros());
+        assertEquals(List.of(2, 1, 4), resultado.getErros().stream().map(ErroImportacaoLivro::getLinha).toList());
+        assertEquals("Livro já existe: Dom Casmurro", resultado.getErros().get(1).getMensagem());
+        assertTrue(helena.getDisponivel());
+        verify(indiceLivrosOutputPort, times(1)).indexar(helenaSalvo);
+        verify(disponibilidadeLivrosOutputPort, times(1)).marcarDisponiveis(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("Deve reportar a linha recusada pela validação e seguir com as demais")
+    void deveReportarLinhaRecusadaPelaValidacao() {
+        var semAutor = criarLivro("Iracema");
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == semAutor) {
+                throw new BusinessException("Campo obrigatório não informado: autor");
+            }
+            return null;
+        }).when(livroValidate).validarImportacaoLivro(any(Livro.class));
+        when(livroOutputPort.buscarTitulosExistentes(Set.of("DOM CASMURRO"))).thenReturn(Set.of());
+        when(livroOutputPort.cadastrarLivros(List.of(livro))).thenReturn(List.of(livro));
+
+        var resultado = livroUseCase.importarLivros(List.of(
+                LinhaImportacaoLivro.valida(1, semAutor),
+                LinhaImportacaoLivro.valida(2, livro)).iterator());
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getErros().get(0).getLinha());
+        assertEquals("Iracema", resultado.getErros().get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve gravar linha a linha quando o lote for recusado pelo banco")
+    void deveGravarLinhaALinhaQuandoLoteForRecusado() {
+        var helena = criarLivro("Helena");
+        when(livroOutputPort.buscarTitulosExistentes(Set.of("DOM CASMURRO", "HELENA"))).thenReturn(Set.of());
+        when(livroOutputPort.cadastrarLivros(List.of(livro, helena))).thenThrow(new RuntimeException("value too long"));
+        when(livroOutputPort.cadastrarLivros(List.of(livro))).thenReturn(List.of(livro));
+        when(livroOutputPort.cadastrarLivros(List.of(helena))).thenThrow(new RuntimeException("value too long"));
+
+        var resultado = livroUseCase.importarLivros(List.of(
+                LinhaImportacaoLivro.valida(1, livro),
+                LinhaImportacaoLivro.valida(2, helena)).iterator());
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getTotalErros());
+        assertEquals(2, resultado.getErros().get(0).getLinha());
+        assertEquals("Não foi possível gravar o livro", resultado.getErros().get(0).getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve contar todos os erros mas devolver apenas o máximo configurado")
+    void deveContarTodosOsErrosMasDevolverApenasOMaximoConfigurado() {
+        ReflectionTestUtils.setField(livroUseCase, "maximoErrosReportadosImportacao", 1);
+
+        var resultado = livroUseCase.importarLivros(List.of(
+                LinhaImportacaoLivro.invalida(1, "Aspas nao fechadas na linha"),
+                LinhaImportacaoLivro.invalida(2, "Aspas nao fechadas na linha")).iterator());
+
+        assertEquals(2, resultado.getTotalErros());
+        assertEquals(1, resultado.getErros().size());
+        verify(livroOutputPort, never()).cadastrarLivros(any());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o mapa de disponibilidade e o índice após uma carga via COPY")
+    void deveRecarregarMapaDeDisponibilidadeEIndiceAposCarga() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        var resultadoCarga = new ResultadoCargaLivros(3, 2, 1, 0, 10);
+        when(cargaLivrosOutputPort.carregarCsv(csv)).thenReturn(resultadoCarga);
+        when(indiceLivrosOutputPort.ativo()).thenReturn(true);
+
+        var resultado = livroUseCase.carregarCatalogo(csv);
+
+        assertSame(resultadoCarga, resultado);
+        assertEquals(300, resultado.getLinhasPorSegundo());
+        verify(disponibilidadeLivrosOutputPort, times(1)).reconciliar();
+        verify(indiceLivrosOutputPort, times(1)).reconstruir();
+    }
+
+    @Test
+    @DisplayName("Não deve recarregar estruturas em memória quando a carga não importar livros")
+    void naoDeveRecarregarEstruturasEmMemoriaQuandoCargaNaoImportarLivros() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        when(cargaLivrosOutputPort.carregarCsv(csv)).thenReturn(new ResultadoCargaLivros(2, 0, 1, 1, 5));
+
+        var resultado = livroUseCase.carregarCatalogo(csv);
+
+        assertEquals(0, resultado.getImportados());
+        verify(disponibilidadeLivrosOutputPort, never()).reconciliar();
+        verify(indiceLivrosOutputPort, never()).reconstruir();
     }
 
     @Test
@@ -72,6 +350,8 @@ class LivroUseCaseTest {
         assertTrue(livro.getDisponivel());
         verify(livroValidate, times(1)).validarCadastroLivro(livro);
         verify(livroOutputPort, times(1)).cadastrarLivro(livro);
+        verify(indiceLivrosOutputPort, times(1)).indexar(livro);
+        verify(disponibilidadeLivrosOutputPort, times(1)).marcarDisponiveis(List.of(1L));
     }
 
     @Test
@@ -87,6 +367,7 @@ class LivroUseCaseTest {
         assertEquals("Título não pode ser vazio", exception.getMessage());
         verify(livroValidate, times(1)).validarCadastroLivro(livro);
         verify(livroOutputPort, never()).cadastrarLivro(any(Livro.class));
+        verify(indiceLivrosOutputPort, never()).indexar(any(Livro.class));
     }
 
     @Test
@@ -161,6 +442,8 @@ class LivroUseCaseTest {
 
         verify(livroValidate, times(1)).validarIdLivro(1L);
         verify(livroOutputPort, times(1)).removerLivro(1L);
+        verify(indiceLivrosOutputPort, times(1)).remover(1L);
+        verify(disponibilidadeLivrosOutputPort, times(1)).remover(1L);
     }
 
     @Test
@@ -176,5 +459,14 @@ class LivroUseCaseTest {
         assertEquals("Livro com empréstimo ativo não pode ser removido", exception.getMessage());
         verify(livroValidate, times(1)).validarIdLivro(1L);
         verify(livroOutputPort, never()).removerLivro(anyLong());
+        verify(indiceLivrosOutputPort, never()).remover(anyLong());
+    }
+
+    private Livro criarLivro(String titulo) {
+        Livro novoLivro = new Livro();
+        novoLivro.setTitulo(titulo);
+        novoLivro.setAutor("Machado de Assis");
+        novoLivro.setEditora("Editora ABC");
+        return novoLivro;
     }
 }
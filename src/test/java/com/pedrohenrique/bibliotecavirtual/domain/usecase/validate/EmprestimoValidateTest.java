@@ -1,6 +1,7 @@
 package com.pedrohenrique.bibliotecavirtual.domain.usecase.validate;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Emprestimo;
+import com.pedrohenrique.bibliotecavirtual.domain.entity.ItemEmprestimoLote;
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.cliente.ClienteInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.DataEmprestimoInvalidoException;
@@ -8,9 +9,9 @@ import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.Empresti
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.emprestimo.EmprestimoNuloException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
-import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNaoEcontradoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.QuantidadeMaximaLivrosEmprestimoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.ClienteOutputPort;
+import com.pedrohenrique.bibliotecavirtual.domain.port.output.DisponibilidadeLivrosOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.EmprestimoOutputPort;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,8 +28,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +47,9 @@ class EmprestimoValidateTest {
     @Mock
     private EmprestimoOutputPort emprestimoOutputPort;
 
+    @Mock
+    private DisponibilidadeLivrosOutputPort disponibilidadeLivrosOutputPort;
+
     @InjectMocks
     private EmprestimoValidate emprestimoValidate;
 
@@ -73,22 +80,43 @@ class EmprestimoValidateTest {
         ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroEmprestimoInexistente", "Empréstimo não encontrado");
         ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroEmprestimoInexistenteClienteId", "O empréstimo não pertence ao cliente informado");
         ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroEmprestimoJaDevolvido", "Este empréstimo já foi devolvido");
+        ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroLivroRepetido", "Livro repetido no empréstimo");
+        ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroTamanhoLote", "Tamanho do lote inválido: ");
+        ReflectionTestUtils.setField(emprestimoValidate, "tamanhoMaximoLote", 3);
+        ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroCriterioDevolucaoLote", "Informe os empréstimos ou os livros");
+        ReflectionTestUtils.setField(emprestimoValidate, "mensagemErroTamanhoDevolucaoLote", "Lote de devolução acima do máximo: ");
+        ReflectionTestUtils.setField(emprestimoValidate, "tamanhoMaximoDevolucaoLote", 3);
     }
 
     @Test
     @DisplayName("Deve validar empréstimo com sucesso quando todos os dados estão corretos")
     void deveValidarEmprestimoComSucessoQuandoTodosDadosEstaoCorretos() {
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
         when(clienteOutputPort.existsById(1L)).thenReturn(true);
 
-        assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
+        List<Livro> livrosValidados = assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
 
-        verify(livroOutputPort).buscarLivroPorId(1L);
-        verify(livroOutputPort).existsById(1L);
+        assertEquals(List.of(livro), livrosValidados);
+        verify(livroOutputPort).findAllByIdIn(List.of(1L));
+        verify(livroOutputPort, never()).buscarLivroPorId(anyLong());
+        verify(livroOutputPort, never()).existsById(anyLong());
         verify(clienteOutputPort).existsById(1L);
     }
 
+    @Test
+    @DisplayName("Deve lançar exceção quando o mesmo livro aparece mais de uma vez no empréstimo")
+    void deveLancarExcecaoQuandoMesmoLivroApareceMaisDeUmaVez() {
+        emprestimo.setLivros(List.of(1L, 1L));
+
+        LivroInvalidoException exception = assertThrows(
+            LivroInvalidoException.class,
+            () -> emprestimoValidate.validarEmprestimo(emprestimo)
+        );
+
+        assertEquals("Livro repetido no empréstimo", exception.getMessage());
+        verify(livroOutputPort, never()).findAllByIdIn(anyList());
+    }
+
     @Test
     @DisplayName("Deve lançar exceção quando empréstimo é nulo")
     void deveLancarExcecaoQuandoEmprestimoEhNulo() {
@@ -105,8 +133,7 @@ class EmprestimoValidateTest {
     void deveLancarExcecaoQuandoDataDevolucaoEhNula() {
         emprestimo.setDataDevolucao(null);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
 
         DataEmprestimoInvalidoException exception = assertThrows(
             DataEmprestimoInvalidoException.class,
@@ -122,8 +149,7 @@ class EmprestimoValidateTest {
         emprestimo.setDataEmprestimo(LocalDate.now());
         emprestimo.setDataDevolucao(LocalDate.now().minusDays(1));
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
 
         DataEmprestimoInvalidoException exception = assertThrows(
             DataEmprestimoInvalidoException.class,
@@ -139,8 +165,7 @@ class EmprestimoValidateTest {
         emprestimo.setDataEmprestimo(LocalDate.now());
         emprestimo.setDataDevolucao(LocalDate.now().plusDays(16));
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
 
         DataEmprestimoInvalidoException exception = assertThrows(
             DataEmprestimoInvalidoException.class,
@@ -156,8 +181,7 @@ class EmprestimoValidateTest {
         emprestimo.setDataEmprestimo(LocalDate.now());
         emprestimo.setDataDevolucao(LocalDate.now().plusDays(15));
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
         when(clienteOutputPort.existsById(1L)).thenReturn(true);
 
         assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
@@ -168,8 +192,7 @@ class EmprestimoValidateTest {
     void deveLancarExcecaoQuandoIdDoClienteEhNulo() {
         emprestimo.setClienteId(null);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
 
         ClienteInvalidoException exception = assertThrows(
             ClienteInvalidoException.class,
@@ -182,8 +205,7 @@ class EmprestimoValidateTest {
     @Test
     @DisplayName("Deve lançar exceção quando cliente não existe no banco de dados")
     void deveLancarExcecaoQuandoClienteNaoExisteNoBancoDeDados() {
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
         when(clienteOutputPort.existsById(1L)).thenReturn(false);
 
         ClienteInvalidoException exception = assertThrows(
@@ -237,7 +259,7 @@ class EmprestimoValidateTest {
     @Test
     @DisplayName("Deve lançar exceção quando livro não é encontrado no banco de dados")
     void deveLancarExcecaoQuandoLivroNaoEhEncontradoNoBancoDeDados() {
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.empty());
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(Collections.emptyList());
 
         LivroInvalidoException exception = assertThrows(
             LivroInvalidoException.class,
@@ -245,31 +267,43 @@ class EmprestimoValidateTest {
         );
 
         assertEquals("Livro indisponível", exception.getMessage());
-        verify(livroOutputPort).buscarLivroPorId(1L);
+        verify(livroOutputPort).findAllByIdIn(List.of(1L));
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando livro não existe por ID")
-    void deveLancarExcecaoQuandoLivroNaoExistePorId() {
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(false);
+    @DisplayName("Deve recusar sem consultar o banco quando o mapa de disponibilidade indicar livro emprestado")
+    void deveRecusarSemConsultarBancoQuandoMapaIndicarLivroEmprestado() {
+        when(disponibilidadeLivrosOutputPort.possuiIndisponivel(List.of(1L))).thenReturn(true);
 
-        LivroNaoEcontradoException exception = assertThrows(
-            LivroNaoEcontradoException.class,
+        LivroInvalidoException exception = assertThrows(
+            LivroInvalidoException.class,
             () -> emprestimoValidate.validarEmprestimo(emprestimo)
         );
 
         assertEquals("Livro indisponível", exception.getMessage());
-        verify(livroOutputPort).buscarLivroPorId(1L);
-        verify(livroOutputPort).existsById(1L);
+        verify(livroOutputPort, never()).findAllByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando apenas parte dos livros é encontrada no banco de dados")
+    void deveLancarExcecaoQuandoApenasParteDosLivrosEhEncontrada() {
+        emprestimo.setLivros(Arrays.asList(1L, 2L));
+        when(livroOutputPort.findAllByIdIn(Arrays.asList(1L, 2L))).thenReturn(List.of(livro));
+
+        LivroInvalidoException exception = assertThrows(
+            LivroInvalidoException.class,
+            () -> emprestimoValidate.validarEmprestimo(emprestimo)
+        );
+
+        assertEquals("Livro indisponível", exception.getMessage());
+        verify(clienteOutputPort, never()).existsById(anyLong());
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando livro não está disponível")
     void deveLancarExcecaoQuandoLivroNaoEstaDisponivel() {
         livro.setDisponivel(false);
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
 
         LivroInvalidoException exception = assertThrows(
             LivroInvalidoException.class,
@@ -277,8 +311,7 @@ class EmprestimoValidateTest {
         );
 
         assertEquals("Livro indisponível", exception.getMessage());
-        verify(livroOutputPort).buscarLivroPorId(1L);
-        verify(livroOutputPort).existsById(1L);
+        verify(livroOutputPort).findAllByIdIn(List.of(1L));
     }
 
     @Test
@@ -298,14 +331,7 @@ class EmprestimoValidateTest {
         livro4.setId(4L);
         livro4.setDisponivel(true);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
-        when(livroOutputPort.buscarLivroPorId(3L)).thenReturn(Optional.of(livro3));
-        when(livroOutputPort.buscarLivroPorId(4L)).thenReturn(Optional.of(livro4));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
-        when(livroOutputPort.existsById(2L)).thenReturn(true);
-        when(livroOutputPort.existsById(3L)).thenReturn(true);
-        when(livroOutputPort.existsById(4L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(Arrays.asList(1L, 2L, 3L, 4L))).thenReturn(List.of(livro, livro2, livro3, livro4));
         when(clienteOutputPort.existsById(1L)).thenReturn(true);
 
         QuantidadeMaximaLivrosEmprestimoException exception = assertThrows(
@@ -330,19 +356,12 @@ class EmprestimoValidateTest {
         livro3.setId(3L);
         livro3.setDisponivel(true);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
-        when(livroOutputPort.buscarLivroPorId(3L)).thenReturn(Optional.of(livro3));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
-        when(livroOutputPort.existsById(2L)).thenReturn(true);
-        when(livroOutputPort.existsById(3L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(livrosIds)).thenReturn(List.of(livro, livro2, livro3));
         when(clienteOutputPort.existsById(1L)).thenReturn(true);
 
         assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
 
-        verify(livroOutputPort).buscarLivroPorId(1L);
-        verify(livroOutputPort).buscarLivroPorId(2L);
-        verify(livroOutputPort).buscarLivroPorId(3L);
+        verify(livroOutputPort, times(1)).findAllByIdIn(livrosIds);
     }
 
     @Test
@@ -352,8 +371,7 @@ class EmprestimoValidateTest {
         emprestimo.setDataEmprestimo(hoje);
         emprestimo.setDataDevolucao(hoje);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
         when(clienteOutputPort.existsById(1L)).thenReturn(true);
 
         assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
@@ -369,18 +387,14 @@ class EmprestimoValidateTest {
         livro2.setId(2L);
         livro2.setDisponivel(true);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
-        when(livroOutputPort.existsById(2L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(livrosIds)).thenReturn(List.of(livro, livro2));
         when(clienteOutputPort.existsById(1L)).thenReturn(true);
 
-        assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
+        List<Livro> livrosValidados = assertDoesNotThrow(() -> emprestimoValidate.validarEmprestimo(emprestimo));
 
-        verify(livroOutputPort).buscarLivroPorId(1L);
-        verify(livroOutputPort).buscarLivroPorId(2L);
-        verify(livroOutputPort).existsById(1L);
-        verify(livroOutputPort).existsById(2L);
+        assertEquals(List.of(livro, livro2), livrosValidados);
+        verify(livroOutputPort, times(1)).findAllByIdIn(livrosIds);
+        verifyNoMoreInteractions(livroOutputPort);
     }
 
     @Test
@@ -393,10 +407,7 @@ class EmprestimoValidateTest {
         livro2.setId(2L);
         livro2.setDisponivel(false);
 
-        when(livroOutputPort.buscarLivroPorId(1L)).thenReturn(Optional.of(livro));
-        when(livroOutputPort.buscarLivroPorId(2L)).thenReturn(Optional.of(livro2));
-        when(livroOutputPort.existsById(1L)).thenReturn(true);
-        when(livroOutputPort.existsById(2L)).thenReturn(true);
+        when(livroOutputPort.findAllByIdIn(livrosIds)).thenReturn(List.of(livro, livro2));
 
         LivroInvalidoException exception = assertThrows(
             LivroInvalidoException.class,
@@ -417,18 +428,18 @@ class EmprestimoValidateTest {
         Emprestimo emprestimoExistente = new Emprestimo();
         emprestimoExistente.setId(1L);
         emprestimoExistente.setClienteId(1L);
+        emprestimoExistente.setLivros(List.of(1L, 2L));
         emprestimoExistente.setAtivo(true);
 
 
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(true);
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoExistente);
-        when(clienteOutputPort.existsById(1L)).thenReturn(true);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.of(emprestimoExistente));
 
-        assertDoesNotThrow(() -> emprestimoValidate.validarDevolucao(emprestimo));
+        var emprestimoAtual = assertDoesNotThrow(() -> emprestimoValidate.validarDevolucao(emprestimo));
 
-        verify(emprestimoOutputPort).existsById(1L);
-        verify(emprestimoOutputPort, times(2)).getReferenceById(1L);
-        verify(clienteOutputPort).existsById(1L);
+        assertSame(emprestimoExistente, emprestimoAtual);
+        verify(emprestimoOutputPort, times(1)).buscarEmprestimoParaDevolucao(1L);
+        verifyNoMoreInteractions(emprestimoOutputPort);
+        verifyNoInteractions(clienteOutputPort, livroOutputPort);
     }
 
     @Test
@@ -446,7 +457,7 @@ class EmprestimoValidateTest {
     @DisplayName("Deve lançar exceção ao validar devolução quando empréstimo não existe")
     void deveLancarExcecaoAoValidarDevolucaoQuandoEmprestimoNaoExiste() {
         emprestimo.setAtivo(true);
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(false);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.empty());
 
         EmprestimoInexistenteException exception = assertThrows(
             EmprestimoInexistenteException.class,
@@ -454,7 +465,7 @@ class EmprestimoValidateTest {
         );
 
         assertEquals("Empréstimo não encontrado", exception.getMessage());
-        verify(emprestimoOutputPort).existsById(1L);
+        verify(emprestimoOutputPort).buscarEmprestimoParaDevolucao(1L);
     }
 
     @Test
@@ -462,7 +473,7 @@ class EmprestimoValidateTest {
     void deveLancarExcecaoAoValidarDevolucaoQuandoIdDoClienteEhNulo() {
         emprestimo.setClienteId(null);
         emprestimo.setAtivo(true);
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(true);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.of(criarEmprestimoExistente(1L, 1L, true)));
 
         ClienteInvalidoException exception = assertThrows(
             ClienteInvalidoException.class,
@@ -473,22 +484,20 @@ class EmprestimoValidateTest {
     }
 
     @Test
-    @DisplayName("Deve lançar exceção ao validar devolução quando cliente não existe")
-    void deveLancarExcecaoAoValidarDevolucaoQuandoClienteNaoExiste() {
+    @DisplayName("Deve recusar devolução de cliente inexistente sem consultar o cliente")
+    void deveRecusarDevolucaoDeClienteInexistenteSemConsultarCliente() {
+        emprestimo.setClienteId(99L);
         emprestimo.setAtivo(true);
 
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(true);
-        when(clienteOutputPort.existsById(1L)).thenReturn(false);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.of(criarEmprestimoExistente(1L, 1L, true)));
 
-        ClienteInvalidoException exception = assertThrows(
-            ClienteInvalidoException.class,
+        EmprestimoInexistenteException exception = assertThrows(
+            EmprestimoInexistenteException.class,
             () -> emprestimoValidate.validarDevolucao(emprestimo)
         );
 
-        assertEquals("Cliente não encontrado", exception.getMessage());
-        verify(emprestimoOutputPort).existsById(1L);
-        verify(clienteOutputPort).existsById(1L);
-        verify(emprestimoOutputPort, never()).getReferenceById(any());
+        assertEquals("O empréstimo não pertence ao cliente informado", exception.getMessage());
+        verifyNoInteractions(clienteOutputPort);
     }
 
     @Test
@@ -498,19 +507,11 @@ class EmprestimoValidateTest {
         emprestimo.setClienteId(1L);
         emprestimo.setAtivo(true);
 
-        Emprestimo emprestimoExistente = new Emprestimo();
-        emprestimoExistente.setId(999L);
-        emprestimoExistente.setClienteId(1L);
-        emprestimoExistente.setAtivo(true);
-
-        when(emprestimoOutputPort.existsById(999L)).thenReturn(true);
-        when(emprestimoOutputPort.getReferenceById(999L)).thenReturn(emprestimoExistente);
-        when(clienteOutputPort.existsById(1L)).thenReturn(true);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(999L)).thenReturn(Optional.of(criarEmprestimoExistente(999L, 1L, true)));
 
         assertDoesNotThrow(() -> emprestimoValidate.validarDevolucao(emprestimo));
 
-        verify(emprestimoOutputPort).existsById(999L);
-        verify(emprestimoOutputPort, times(2)).getReferenceById(999L);
+        verify(emprestimoOutputPort, times(1)).buscarEmprestimoParaDevolucao(999L);
     }
 
     @Test
@@ -518,7 +519,7 @@ class EmprestimoValidateTest {
     void deveLancarExcecaoAoValidarDevolucaoQuandoEmprestimoComIdDiferenteNaoExiste() {
         emprestimo.setId(999L);
         emprestimo.setAtivo(true);
-        when(emprestimoOutputPort.existsById(999L)).thenReturn(false);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(999L)).thenReturn(Optional.empty());
 
         EmprestimoInexistenteException exception = assertThrows(
             EmprestimoInexistenteException.class,
@@ -539,17 +540,10 @@ class EmprestimoValidateTest {
         emprestimo.setClienteId(2L);
         emprestimo.setAtivo(true);
 
-        Emprestimo emprestimoExistente = new Emprestimo();
-        emprestimoExistente.setId(1L);
-        emprestimoExistente.setClienteId(1L);
-        emprestimoExistente.setAtivo(true);
-
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoExistente);
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(true);
-        when(clienteOutputPort.existsById(2L)).thenReturn(true);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.of(criarEmprestimoExistente(1L, 1L, true)));
 
         assertThrows(EmprestimoInexistenteException.class, () -> emprestimoValidate.validarDevolucao(emprestimo));
-        verify(emprestimoOutputPort).getReferenceById(1L);
+        verify(emprestimoOutputPort).buscarEmprestimoParaDevolucao(1L);
     }
 
     @Test
@@ -558,20 +552,13 @@ class EmprestimoValidateTest {
         emprestimo.setAtivo(true);
         emprestimo.setId(1L);
 
-        Emprestimo emprestimoInativo = new Emprestimo();
-        emprestimoInativo.setId(1L);
-        emprestimoInativo.setClienteId(1L);
-        emprestimoInativo.setAtivo(false);
-
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoInativo);
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(true);
-        when(clienteOutputPort.existsById(1L)).thenReturn(true);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.of(criarEmprestimoExistente(1L, 1L, false)));
 
         var exception = assertThrows(EmprestimoInvalidoException.class,
             () -> emprestimoValidate.validarDevolucao(emprestimo));
 
         assertEquals("Este empréstimo já foi devolvido", exception.getMessage());
-        verify(emprestimoOutputPort, times(2)).getReferenceById(1L);
+        verify(emprestimoOutputPort, times(1)).buscarEmprestimoParaDevolucao(1L);
     }
 
     @Test
@@ -580,20 +567,123 @@ class EmprestimoValidateTest {
         emprestimo.setAtivo(true);
         emprestimo.setId(1L);
 
-        Emprestimo emprestimoAtivo = new Emprestimo();
-        emprestimoAtivo.setId(1L);
-        emprestimoAtivo.setClienteId(1L);
-        emprestimoAtivo.setAtivo(true);
-
-        when(emprestimoOutputPort.getReferenceById(1L)).thenReturn(emprestimoAtivo);
-        when(emprestimoOutputPort.existsById(1L)).thenReturn(true);
-        when(clienteOutputPort.existsById(1L)).thenReturn(true);
+        when(emprestimoOutputPort.buscarEmprestimoParaDevolucao(1L)).thenReturn(Optional.of(criarEmprestimoExistente(1L, 1L, true)));
 
         assertDoesNotThrow(() -> emprestimoValidate.validarDevolucao(emprestimo));
 
-        verify(emprestimoOutputPort, times(2)).getReferenceById(1L);
-        verify(emprestimoOutputPort).existsById(1L);
-        verify(clienteOutputPort).existsById(1L);
+        verify(emprestimoOutputPort, times(1)).buscarEmprestimoParaDevolucao(1L);
+        verify(emprestimoOutputPort, never()).existsById(anyLong());
+        verifyNoInteractions(clienteOutputPort);
     }
-}
 
+    @Test
+    @DisplayName("Deve validar o lote com uma consulta de clientes e uma de livros, recusando item a item")
+    void deveValidarLoteComConsultasUnicasRecusandoItemAItem() {
+        var livro2 = new Livro();
+        livro2.setId(2L);
+        livro2.setDisponivel(false);
+        var itens = List.of(
+                new ItemEmprestimoLote(0, criarEmprestimo(1L, List.of(1L))),
+                new ItemEmprestimoLote(1, criarEmprestimo(9L, List.of(3L))),
+                new ItemEmprestimoLote(2, criarEmprestimo(1L, List.of(2L))));
+        when(clienteOutputPort.buscarIdsExistentes(Set.of(1L, 9L))).thenReturn(Set.of(1L));
+        when(livroOutputPort.findAllByIdIn(List.of(1L, 3L, 2L))).thenReturn(List.of(livro, livro2));
+
+        emprestimoValidate.validarEmprestimosEmLote(itens);
+
+        assertFalse(itens.get(0).recusado());
+        assertEquals("Cliente não encontrado", itens.get(1).getErro());
+        assertEquals("Livro indisponível", itens.get(2).getErro());
+        verify(clienteOutputPort, never()).existsById(anyLong());
+        verify(livroOutputPort, times(1)).findAllByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar item com dados inválidos ou livro já pedido por outro item do lote")
+    void deveRecusarItemComDadosInvalidosOuLivroJaPedidoNoLote() {
+        var semDataDevolucao = criarEmprestimo(1L, List.of(1L));
+        semDataDevolucao.setDataDevolucao(null);
+        var itens = List.of(
+                new ItemEmprestimoLote(0, criarEmprestimo(1L, List.of(1L))),
+                new ItemEmprestimoLote(1, criarEmprestimo(2L, List.of(1L))),
+                new ItemEmprestimoLote(2, semDataDevolucao));
+        when(clienteOutputPort.buscarIdsExistentes(Set.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+        when(livroOutputPort.findAllByIdIn(List.of(1L))).thenReturn(List.of(livro));
+
+        emprestimoValidate.validarEmprestimosEmLote(itens);
+
+        assertFalse(itens.get(0).recusado());
+        assertEquals("Livro indisponível", itens.get(1).getErro());
+        assertEquals("Data de devolução inválida", itens.get(2).getErro());
+    }
+
+    @Test
+    @DisplayName("Deve recusar item com o mesmo livro repetido sem consultar o banco")
+    void deveRecusarItemComMesmoLivroRepetido() {
+        var itens = List.of(new ItemEmprestimoLote(0, criarEmprestimo(1L, List.of(1L, 1L))));
+
+        emprestimoValidate.validarEmprestimosEmLote(itens);
+
+        assertEquals("Livro repetido no empréstimo", itens.get(0).getErro());
+        verifyNoInteractions(clienteOutputPort, livroOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o lote estiver vazio ou acima do tamanho máximo")
+    void deveLancarExcecaoQuandoLoteEstiverVazioOuAcimaDoMaximo() {
+        var loteGrande = List.of(
+                new ItemEmprestimoLote(0, criarEmprestimo(1L, List.of(1L))),
+                new ItemEmprestimoLote(1, criarEmprestimo(1L, List.of(2L))),
+                new ItemEmprestimoLote(2, criarEmprestimo(1L, List.of(3L))),
+                new ItemEmprestimoLote(3, criarEmprestimo(1L, List.of(4L))));
+
+        assertThrows(EmprestimoInvalidoException.class, () -> emprestimoValidate.validarEmprestimosEmLote(List.of()));
+        var exception = assertThrows(EmprestimoInvalidoException.class, () -> emprestimoValidate.validarEmprestimosEmLote(loteGrande));
+        assertEquals("Tamanho do lote inválido: 3", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar devolução em lote informando apenas empréstimos ou apenas livros")
+    void deveAceitarDevolucaoEmLoteInformandoApenasEmprestimosOuApenasLivros() {
+        assertDoesNotThrow(() -> emprestimoValidate.validarDevolucoesEmLote(List.of(1L, 2L), null));
+        assertDoesNotThrow(() -> emprestimoValidate.validarDevolucoesEmLote(List.of(), List.of(1L, 2L, 3L)));
+        verifyNoInteractions(emprestimoOutputPort, livroOutputPort, clienteOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando a devolução em lote informar os dois critérios, nenhum ou ids nulos")
+    void deveLancarExcecaoQuandoDevolucaoEmLoteTiverCriterioInvalido() {
+        assertThrows(EmprestimoInvalidoException.class, () -> emprestimoValidate.validarDevolucoesEmLote(List.of(1L), List.of(2L)));
+        assertThrows(EmprestimoInvalidoException.class, () -> emprestimoValidate.validarDevolucoesEmLote(null, List.of()));
+        var exception = assertThrows(EmprestimoInvalidoException.class,
+                () -> emprestimoValidate.validarDevolucoesEmLote(Arrays.asList(1L, null), null));
+        assertEquals("Informe os empréstimos ou os livros", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando a devolução em lote passar do tamanho máximo")
+    void deveLancarExcecaoQuandoDevolucaoEmLotePassarDoTamanhoMaximo() {
+        var exception = assertThrows(EmprestimoInvalidoException.class,
+                () -> emprestimoValidate.validarDevolucoesEmLote(null, List.of(1L, 2L, 3L, 4L)));
+        assertEquals("Lote de devolução acima do máximo: 3", exception.getMessage());
+    }
+
+    private Emprestimo criarEmprestimoExistente(Long id, Long clienteId, boolean ativo) {
+        var emprestimoExistente = new Emprestimo();
+        emprestimoExistente.setId(id);
+        emprestimoExistente.setClienteId(clienteId);
+        emprestimoExistente.setLivros(List.of(1L));
+        emprestimoExistente.setAtivo(ativo);
+        return emprestimoExistente;
+    }
+
+    private Emprestimo criarEmprestimo(Long clienteId, List<Long> livros) {
+        var novoEmprestimo = new Emprestimo();
+        novoEmprestimo.setClienteId(clienteId);
+        novoEmprestimo.setLivros(livros);
+        novoEmprestimo.setDataEmprestimo(LocalDate.now());
+        novoEmprestimo.setDataDevolucao(LocalDate.now().plusDays(7));
+        novoEmprestimo.setAtivo(true);
+        return novoEmprestimo;
+    }
+}
@@ -2,8 +2,10 @@ package com.pedrohenrique.bibliotecavirtual.domain.usecase.validate;
 
 import com.pedrohenrique.bibliotecavirtual.domain.entity.Livro;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroExistenteException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNaoEcontradoException;
 import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.LivroNuloException;
+import com.pedrohenrique.bibliotecavirtual.domain.exceptions.livro.TermoBuscaInvalidoException;
 import com.pedrohenrique.bibliotecavirtual.domain.port.output.LivroOutputPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -41,6 +43,9 @@ class LivroValidateTest {
         ReflectionTestUtils.setField(livroValidate, "mensagemErroLivroNulo", "Livro não pode ser nulo");
         ReflectionTestUtils.setField(livroValidate, "mensagemErroLivroNaoEcontrado", "Livro não encontrado: ");
         ReflectionTestUtils.setField(livroValidate, "mensagemErroLivroExistnte", "Livro já existe: ");
+        ReflectionTestUtils.setField(livroValidate, "mensagemErroBuscaTermoInvalido", "O termo de busca deve ter ao menos 2 caracteres");
+        ReflectionTestUtils.setField(livroValidate, "mensagemErroImportacaoCampoObrigatorio", "Campo obrigatório não informado: ");
+        ReflectionTestUtils.setField(livroValidate, "mensagemErroImportacaoCampoTamanho", "Campo excede o tamanho máximo permitido: ");
     }
 
     @Test
@@ -167,5 +172,51 @@ class LivroValidateTest {
 
         verify(livroOutputPort).existsByTitulo("Clean Code");
     }
-}
 
+    @Test
+    @DisplayName("Deve aceitar termo de busca com ao menos dois caracteres")
+    void deveAceitarTermoDeBuscaComAoMenosDoisCaracteres() {
+        assertDoesNotThrow(() -> livroValidate.validarTermoBusca("tolkien"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando termo de busca for nulo ou curto demais")
+    void deveLancarExcecaoQuandoTermoDeBuscaForNuloOuCurtoDemais() {
+        assertThrows(TermoBuscaInvalidoException.class, () -> livroValidate.validarTermoBusca(null));
+        TermoBuscaInvalidoException exception = assertThrows(TermoBuscaInvalidoException.class, () -> livroValidate.validarTermoBusca(" a "));
+
+        assertEquals("O termo de busca deve ter ao menos 2 caracteres", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar livro de importação com editora em branco")
+    void deveAceitarLivroDeImportacaoComEditoraEmBranco() {
+        livro.setEditora(null);
+
+        assertDoesNotThrow(() -> livroValidate.validarImportacaoLivro(livro));
+
+        verifyNoInteractions(livroOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve recusar livro de importação sem autor")
+    void deveRecusarLivroDeImportacaoSemAutor() {
+        livro.setAutor("  ");
+
+        LivroInvalidoException exception = assertThrows(LivroInvalidoException.class,
+                () -> livroValidate.validarImportacaoLivro(livro));
+
+        assertEquals("Campo obrigatório não informado: autor", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve recusar livro de importação com título maior que a coluna")
+    void deveRecusarLivroDeImportacaoComTituloMaiorQueAColuna() {
+        livro.setTitulo("a".repeat(201));
+
+        LivroInvalidoException exception = assertThrows(LivroInvalidoException.class,
+                () -> livroValidate.validarImportacaoLivro(livro));
+
+        assertEquals("Campo excede o tamanho máximo permitido: titulo", exception.getMessage());
+    }
+}